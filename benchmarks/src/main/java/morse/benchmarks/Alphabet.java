@@ -0,0 +1,18 @@
+package morse.benchmarks;
+
+/**
+ * Conjunto de caracteres usado na geração das entradas dos benchmarks
+ */
+public enum Alphabet {
+    LETTERS("ABCDEFGHIJKLMNOPQRSTUVWXYZ"),
+    LOWERCASE("abcdefghijklmnopqrstuvwxyz"),
+    ALPHANUMERIC("ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"),
+    // Letras mais frequentes, minúsculas, dígitos e espaços entre palavras
+    TEXT("ETAOINSHRDLUetaoinshrdlu0123456789    ");
+
+    final String chars;
+
+    Alphabet(String chars) {
+        this.chars = chars;
+    }
+}
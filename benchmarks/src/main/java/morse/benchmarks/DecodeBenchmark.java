@@ -0,0 +1,61 @@
+package morse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@code MorseDecoder.decodeMorse} sobre mensagens completas, e a
+ * decodificação tolerante ({@code TolerantDecoder.decodeMorse}) sobre as mesmas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class DecodeBenchmark {
+
+    // Tamanho da mensagem morse em caracteres: de 1 caractere a 100 MB
+    @Param({"1", "1024", "1048576", "104857600"})
+    public int size;
+
+    @Param({"LETTERS", "ALPHANUMERIC", "TEXT"})
+    public Alphabet alphabet;
+
+    // Fração de sequências inválidas na mensagem
+    @Param({"0.0", "0.01", "0.1"})
+    public double invalidRatio;
+
+    private Object decoder;
+    private Object tolerant;
+    private String morse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        decoder = MorseHandles.newDecoder();
+        tolerant = MorseHandles.tolerant(decoder);
+        morse = MorseInputs.morse(size, decoder, alphabet, invalidRatio);
+    }
+
+    @Benchmark
+    public String decodeMorse() throws Throwable {
+        return (String) MorseHandles.DECODE_MORSE.invokeExact(decoder, morse);
+    }
+
+    @Benchmark
+    public String decodeMorseTolerant() throws Throwable {
+        return (String) MorseHandles.TOLERANT_DECODE_MORSE.invokeExact(tolerant, morse);
+    }
+}
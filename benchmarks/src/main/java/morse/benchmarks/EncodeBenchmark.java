@@ -0,0 +1,58 @@
+package morse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@code MorseDecoder.encodeText} e {@code MorseDecoder.encodeTextNoMap}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class EncodeBenchmark {
+
+    // Tamanho da entrada em caracteres: de 1 caractere a 100 MB
+    @Param({"1", "1024", "1048576", "104857600"})
+    public int size;
+
+    @Param({"LETTERS", "LOWERCASE", "ALPHANUMERIC", "TEXT"})
+    public Alphabet alphabet;
+
+    // Fração de caracteres sem código morse
+    @Param({"0.0", "0.01", "0.1"})
+    public double invalidRatio;
+
+    private Object decoder;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        decoder = MorseHandles.newDecoder();
+        text = MorseInputs.text(size, alphabet, invalidRatio);
+    }
+
+    @Benchmark
+    public String encodeText() throws Throwable {
+        return (String) MorseHandles.ENCODE_TEXT.invokeExact(decoder, text);
+    }
+
+    @Benchmark
+    public String encodeTextNoMap() throws Throwable {
+        return (String) MorseHandles.ENCODE_TEXT_NO_MAP.invokeExact(decoder, text);
+    }
+}
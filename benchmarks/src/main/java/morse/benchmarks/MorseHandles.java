@@ -0,0 +1,116 @@
+package morse.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Acesso às classes da aplicação, que ficam no pacote padrão.
+ *
+ * O JMH não aceita benchmarks no pacote padrão e o Java não permite importar
+ * classes de lá, então os métodos são resolvidos uma vez como MethodHandles
+ * constantes. Chamadas por {@code invokeExact} em campos static final são
+ * inlinadas pelo JIT e não distorcem as medições.
+ */
+final class MorseHandles {
+    static final MethodHandle NEW_DECODER;
+    static final MethodHandle ENCODE_TEXT;
+    static final MethodHandle ENCODE_TEXT_NO_MAP;
+    static final MethodHandle DECODE_MORSE;
+    static final MethodHandle MORSE_TO_CHAR;
+    static final MethodHandle TOLERANT;
+    static final MethodHandle TOLERANT_DECODE_MORSE;
+    static final MethodHandle SCANNER;
+    static final MethodHandle SCALAR_SCANNER;
+    static final MethodHandle SCANNER_NAME;
+    static final MethodHandle INDEX_OF_INVALID_MORSE;
+    static final MethodHandle INDEX_OF_NON_SYMBOL;
+    static final MethodHandle INDEX_OF_NON_ASCII;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> decoder = Class.forName("MorseDecoder");
+
+            NEW_DECODER = lookup.findConstructor(decoder, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            ENCODE_TEXT = virtual(lookup, decoder, "encodeText", String.class, String.class);
+            ENCODE_TEXT_NO_MAP = virtual(lookup, decoder, "encodeTextNoMap", String.class, String.class);
+            DECODE_MORSE = virtual(lookup, decoder, "decodeMorse", String.class, String.class);
+            MORSE_TO_CHAR = virtual(lookup, decoder, "morseToChar", char.class, String.class);
+
+            Class<?> tolerant = Class.forName("TolerantDecoder");
+            TOLERANT = lookup.findVirtual(decoder, "tolerant", MethodType.methodType(tolerant))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            TOLERANT_DECODE_MORSE = virtual(lookup, tolerant, "decodeMorse", String.class, String.class);
+
+            Class<?> scanner = Class.forName("MorseScanner");
+            SCANNER = lookup.findStatic(scanner, "get", MethodType.methodType(scanner))
+                    .asType(MethodType.methodType(Object.class));
+            SCALAR_SCANNER = lookup.findStatic(scanner, "scalar", MethodType.methodType(scanner))
+                    .asType(MethodType.methodType(Object.class));
+            SCANNER_NAME = lookup.findVirtual(scanner, "getName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            INDEX_OF_INVALID_MORSE = virtual(lookup, scanner, "indexOfInvalidMorse", int.class, String.class);
+            INDEX_OF_NON_SYMBOL = virtual(lookup, scanner, "indexOfNonSymbol", int.class, String.class);
+            INDEX_OF_NON_ASCII = virtual(lookup, scanner, "indexOfNonAscii", int.class, String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MorseHandles() {
+    }
+
+    // Resolve um método de instância e troca o tipo do receptor por Object
+    private static MethodHandle virtual(MethodHandles.Lookup lookup, Class<?> owner, String name,
+                                        Class<?> returnType, Class<?> parameterType)
+            throws ReflectiveOperationException {
+        return lookup.findVirtual(owner, name, MethodType.methodType(returnType, parameterType))
+                .asType(MethodType.methodType(returnType, Object.class, parameterType));
+    }
+
+    static Object newDecoder() {
+        try {
+            return (Object) NEW_DECODER.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Não foi possível criar o MorseDecoder", e);
+        }
+    }
+
+    static Object tolerant(Object decoder) {
+        try {
+            return (Object) TOLERANT.invokeExact(decoder);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Não foi possível criar o TolerantDecoder", e);
+        }
+    }
+
+    /**
+     * @param vector true para o scanner padrão (vetorial, se o módulo estiver presente)
+     * @return O MorseScanner pedido
+     */
+    static Object scanner(boolean vector) {
+        try {
+            return vector ? (Object) SCANNER.invokeExact() : (Object) SCALAR_SCANNER.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Não foi possível obter o MorseScanner", e);
+        }
+    }
+
+    static String scannerName(Object scanner) {
+        try {
+            return (String) SCANNER_NAME.invokeExact(scanner);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String encodeText(Object decoder, String text) {
+        try {
+            return (String) ENCODE_TEXT.invokeExact(decoder, text);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
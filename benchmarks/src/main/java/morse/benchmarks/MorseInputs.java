@@ -0,0 +1,100 @@
+package morse.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Gera entradas determinísticas para os benchmarks
+ */
+final class MorseInputs {
+    // Semente fixa para que todas as execuções meçam a mesma entrada
+    private static final long SEED = 0x5EED_0F_C0DEL;
+
+    // Caracteres sem código morse, usados como símbolos inválidos no texto
+    private static final String INVALID_TEXT = "?#@%&*";
+
+    // Sequências que não existem na árvore ou contêm símbolos inválidos
+    private static final String[] INVALID_MORSE = {".......", "--.--.-", ".-x", "_", "..--.."};
+
+    private MorseInputs() {
+    }
+
+    /**
+     * Gera um texto com exatamente {@code size} caracteres
+     * @param size Tamanho do texto
+     * @param alphabet Conjunto de caracteres válidos
+     * @param invalidRatio Fração de caracteres sem código morse
+     * @return O texto gerado
+     */
+    static String text(int size, Alphabet alphabet, double invalidRatio) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder text = new StringBuilder(size);
+
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() < invalidRatio) {
+                text.append(INVALID_TEXT.charAt(random.nextInt(INVALID_TEXT.length())));
+            } else {
+                text.append(alphabet.chars.charAt(random.nextInt(alphabet.chars.length())));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Gera sequências morse individuais, uma por letra
+     * @param count Quantidade de sequências
+     * @param decoder Instância de MorseDecoder usada para obter os códigos
+     * @param alphabet Conjunto de caracteres válidos
+     * @param invalidRatio Fração de sequências inválidas
+     * @return As sequências geradas
+     */
+    static String[] codes(int count, Object decoder, Alphabet alphabet, double invalidRatio) {
+        String[] table = codeTable(decoder, alphabet);
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] codes = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < invalidRatio) {
+                codes[i] = INVALID_MORSE[random.nextInt(INVALID_MORSE.length)];
+            } else {
+                codes[i] = table[random.nextInt(table.length)];
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Gera uma mensagem morse com exatamente {@code size} caracteres
+     * @param size Tamanho da mensagem
+     * @param decoder Instância de MorseDecoder usada para obter os códigos
+     * @param alphabet Conjunto de caracteres válidos
+     * @param invalidRatio Fração de sequências inválidas
+     * @return A mensagem gerada, com sequências separadas por espaço
+     */
+    static String morse(int size, Object decoder, Alphabet alphabet, double invalidRatio) {
+        String[] table = codeTable(decoder, alphabet);
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder morse = new StringBuilder(size + 16);
+
+        while (morse.length() < size) {
+            if (morse.length() > 0) {
+                morse.append(' ');
+            }
+            if (random.nextDouble() < invalidRatio) {
+                morse.append(INVALID_MORSE[random.nextInt(INVALID_MORSE.length)]);
+            } else {
+                morse.append(table[random.nextInt(table.length)]);
+            }
+        }
+        morse.setLength(size);
+        return morse.toString();
+    }
+
+    // Código morse de cada caractere do alfabeto, obtido do próprio decodificador
+    private static String[] codeTable(Object decoder, Alphabet alphabet) {
+        String[] table = new String[alphabet.chars.length()];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = MorseHandles.encodeText(decoder, String.valueOf(alphabet.chars.charAt(i)));
+        }
+        return table;
+    }
+}
@@ -0,0 +1,57 @@
+package morse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@code MorseDecoder.morseToChar} por sequência individual
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MorseToCharBenchmark {
+    // Sequências decodificadas por invocação
+    private static final int CODES = 1024;
+
+    @Param({"LETTERS", "ALPHANUMERIC"})
+    public Alphabet alphabet;
+
+    // Fração de sequências inválidas
+    @Param({"0.0", "0.01", "0.1"})
+    public double invalidRatio;
+
+    private Object decoder;
+    private String[] codes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        decoder = MorseHandles.newDecoder();
+        codes = MorseInputs.codes(CODES, decoder, alphabet, invalidRatio);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public int morseToChar() throws Throwable {
+        int sum = 0;
+        for (String code : codes) {
+            sum += (char) MorseHandles.MORSE_TO_CHAR.invokeExact(decoder, code);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,88 @@
+package morse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Mede as buscas do {@code MorseScanner} sobre entradas válidas (varredura
+ * completa), nas versões escalar e vetorial, contra a validação por
+ * expressão regular que a interface usava.
+ *
+ * A versão "regex" só responde se a entrada é válida; as outras devolvem
+ * também a posição do primeiro caractere inválido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class ScannerBenchmark {
+    private static final Pattern MORSE = Pattern.compile("[-./ ]*");
+    private static final Pattern SYMBOLS = Pattern.compile("[.-]*");
+    private static final Pattern ASCII = Pattern.compile("\\p{ASCII}*");
+
+    // Tamanho da entrada em caracteres: 1 MB e 16 MB
+    @Param({"1048576", "16777216"})
+    public int size;
+
+    @Param({"regex", "scalar", "vector"})
+    public String implementation;
+
+    private Object scanner;
+    private String morse;
+    private String symbols;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!implementation.equals("regex")) {
+            scanner = MorseHandles.scanner(implementation.equals("vector"));
+            if (implementation.equals("vector") && MorseHandles.scannerName(scanner).equals("escalar")) {
+                throw new IllegalStateException("Scanner vetorial indisponível: use --add-modules jdk.incubator.vector");
+            }
+        }
+        Object decoder = MorseHandles.newDecoder();
+        morse = MorseInputs.morse(size, decoder, Alphabet.TEXT, 0.0);
+        // Só pontos e traços, como o código aceito pela visualização da árvore
+        symbols = morse.replace(' ', '.').replace('/', '-');
+        text = MorseInputs.text(size, Alphabet.TEXT, 0.0);
+    }
+
+    @Benchmark
+    public int indexOfInvalidMorse() throws Throwable {
+        if (scanner == null) {
+            return MORSE.matcher(morse).matches() ? -1 : 0;
+        }
+        return (int) MorseHandles.INDEX_OF_INVALID_MORSE.invokeExact(scanner, morse);
+    }
+
+    @Benchmark
+    public int indexOfNonSymbol() throws Throwable {
+        if (scanner == null) {
+            return SYMBOLS.matcher(symbols).matches() ? -1 : 0;
+        }
+        return (int) MorseHandles.INDEX_OF_NON_SYMBOL.invokeExact(scanner, symbols);
+    }
+
+    @Benchmark
+    public int indexOfNonAscii() throws Throwable {
+        if (scanner == null) {
+            return ASCII.matcher(text).matches() ? -1 : 0;
+        }
+        return (int) MorseHandles.INDEX_OF_NON_ASCII.invokeExact(scanner, text);
+    }
+}
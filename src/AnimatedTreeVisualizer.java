@@ -1,23 +1,25 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Line2D;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 import javax.sound.sampled.*;
 
 /**
  * Classe para visualizar a árvore binária de código morse com animação
- * para mostrar o processo de decodificação e som para dots e dashes
+ * para mostrar o processo de decodificação e som para dots e dashes.
+ *
+ * A animação é dirigida por um {@link javax.swing.Timer}: todo o estado muda
+ * na thread de eventos e cada passo repinta só as caixas dos nós que mudaram,
+ * com as coordenadas do {@link TreeLayout}. O tempo de pintura de cada
+ * quadro da animação vai para as {@link MorseMetrics}; passos do Timer,
+ * pinturas, geração de tons e início/parada dos clips também são eventos
+ * do JFR ({@link MorseEvents}).
  */
 public class AnimatedTreeVisualizer extends JPanel {
     private MorseNode root;
-    private int nodeSize = 30;
-    private int horizontalSpacing = 20;
-    private int verticalSpacing = 50;
-    private int treeHeight;
-    private int maxNodeWidth;
+    private final TreeRenderer renderer;
 
     // Variáveis para animação
     private List<MorseNode> highlightPath = new ArrayList<>();
@@ -25,14 +27,19 @@ public class AnimatedTreeVisualizer extends JPanel {
     private MorseNode targetNode = null;
     private Timer animationTimer;
     private int animationDelay = 500; // Delay em milissegundos entre cada passo
+    private char[] sequence = new char[0]; // Sequência de sons (. ou -)
+    private int nextStep = 0; // Próximo índice do caminho a destacar
 
     // Status da animação
     private boolean animationRunning = false;
     private boolean loopAnimation = false; // Controla se a animação deve repetir
 
-    // Variáveis para som
-    private Clip dotSound;
-    private Clip dashSound;
+    // Variáveis para som: só os tons ficam guardados, o Clip é pedido ao
+    // ToneBank a cada som porque o banco pode fechá-lo para abrir outro
+    private ToneBank.ToneKey dotTone;
+    private ToneBank.ToneKey dashTone;
+    private Clip lastClip;      // Último clip iniciado, parado no dispose
+    private char lastSymbol;
     private boolean soundEnabled = true;
 
     /**
@@ -41,11 +48,22 @@ public class AnimatedTreeVisualizer extends JPanel {
      */
     public AnimatedTreeVisualizer(MorseNode root) {
         this.root = root;
-        this.treeHeight = calculateTreeHeight(root);
-        this.maxNodeWidth = 2400;
+        this.renderer = new TreeRenderer(root);
 
-        setPreferredSize(new Dimension(maxNodeWidth, treeHeight * (nodeSize + verticalSpacing) + 50));
         setBackground(Color.WHITE);
+        setToolTipText(""); // Registra o componente para dicas do mouse
+
+        // Clicar em um nó anima o caminho até ele
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                TreeLayout layout = renderer.getLayout(getWidth());
+                int index = layout.nodeAt(e.getX(), e.getY());
+                if (index > 0) {
+                    animateDecode(layout.code(index), loopAnimation);
+                }
+            }
+        });
 
         // Inicializa os sons
         initializeSounds();
@@ -55,15 +73,19 @@ public class AnimatedTreeVisualizer extends JPanel {
      * Inicializa os sons para dots e dashes gerando-os programaticamente
      */
     private void initializeSounds() {
+        // Formato de áudio: PCM_SIGNED, 44100Hz, 16 bits, mono
+        // Ponto (dot) - frequência mais alta e duração curta: 800Hz, 150ms
+        dotTone = new ToneBank.ToneKey(800, 150, 44100, ToneBank.Envelope.LINEAR_ATTACK_RELEASE);
+        // Traço (dash) - frequência mais baixa e duração longa: 600Hz, 450ms
+        dashTone = new ToneBank.ToneKey(600, 450, 44100, ToneBank.Envelope.LINEAR_ATTACK_RELEASE);
         try {
-            // Gera som para o ponto (dot) - frequência mais alta e duração curta
-            dotSound = generateToneClip(800, 150); // 800Hz, 150ms
-
-            // Gera som para o traço (dash) - frequência mais baixa e duração longa
-            dashSound = generateToneClip(600, 450); // 600Hz, 450ms
+            // Gera os dois de antemão para o primeiro som não atrasar
+            generateToneClip(dotTone);
+            generateToneClip(dashTone);
 
             soundEnabled = true;
-        } catch (LineUnavailableException e) {
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // IllegalArgumentException: nenhum mixer oferece Clips (máquina sem áudio)
             System.err.println("Erro ao gerar sons: " + e.getMessage());
             e.printStackTrace();
             soundEnabled = false;
@@ -71,45 +93,23 @@ public class AnimatedTreeVisualizer extends JPanel {
     }
 
     /**
-     * Gera um clip de áudio com um tom de uma determinada frequência e duração
+     * Obtém do banco compartilhado um clip com o tom. Um acerto no pool é só
+     * uma consulta ao mapa; se o banco tiver fechado o clip para abrir
+     * outro, ele é reaberto aqui.
      *
-     * @param frequency Frequência do tom em Hz
-     * @param duration Duração do tom em ms
-     * @return Um Clip contendo o tom gerado
+     * @param key O tom desejado
+     * @return Um Clip contendo o tom gerado (pertence ao {@link ToneBank}, não deve ser fechado)
      * @throws LineUnavailableException Se houver problema ao criar o clip
      */
-    private Clip generateToneClip(float frequency, int duration) throws LineUnavailableException {
-        // Formato de áudio: PCM_SIGNED, 44100Hz, 16 bits, mono
-        AudioFormat format = new AudioFormat(44100, 16, 1, true, false);
-
-        // Tamanho do buffer em bytes
-        int numSamples = (int)(format.getSampleRate() * duration / 1000.0);
-        byte[] buffer = new byte[numSamples * 2]; // 16 bits = 2 bytes por amostra
-
-        // Gera uma onda senoidal
-        double amplitude = 0.7 * Short.MAX_VALUE;
-        double twoPiF = 2 * Math.PI * frequency;
-        double step = frequency / format.getSampleRate();
-
-        for (int i = 0; i < numSamples; i++) {
-            double angle = twoPiF * i / format.getSampleRate();
-            // Aplica um envelope ADSR simples para evitar cliques
-            double envelope = 1.0;
-            if (i < numSamples * 0.1) { // Attack: 10% do tempo
-                envelope = i / (numSamples * 0.1);
-            } else if (i > numSamples * 0.8) { // Release: 20% do tempo
-                envelope = (numSamples - i) / (numSamples * 0.2);
-            }
-
-            short sample = (short)(amplitude * Math.sin(angle) * envelope);
-            buffer[i * 2] = (byte)(sample & 0xFF);
-            buffer[i * 2 + 1] = (byte)((sample >> 8) & 0xFF);
+    private Clip generateToneClip(ToneBank.ToneKey key) throws LineUnavailableException {
+        MorseEvents.ToneGenerated event = new MorseEvents.ToneGenerated();
+        event.begin();
+        Clip clip = ToneBank.getInstance().clip(key);
+        if (event.shouldCommit()) {
+            event.frequency = key.getFrequency();
+            event.toneDuration = key.getDurationMillis();
+            event.commit();
         }
-
-        // Cria o clip e carrega o buffer
-        Clip clip = AudioSystem.getClip();
-        clip.open(format, buffer, 0, buffer.length);
-
         return clip;
     }
 
@@ -117,25 +117,62 @@ public class AnimatedTreeVisualizer extends JPanel {
      * Reproduz o som do ponto (dot)
      */
     private void playDotSound() {
-        if (soundEnabled && dotSound != null) {
-            if (dotSound.isRunning()) {
-                dotSound.stop();
-            }
-            dotSound.setFramePosition(0);
-            dotSound.start();
-        }
+        playTone(dotTone, '.');
     }
 
     /**
      * Reproduz o som do traço (dash)
      */
     private void playDashSound() {
-        if (soundEnabled && dashSound != null) {
-            if (dashSound.isRunning()) {
-                dashSound.stop();
-            }
-            dashSound.setFramePosition(0);
-            dashSound.start();
+        playTone(dashTone, '-');
+    }
+
+    private void playTone(ToneBank.ToneKey tone, char symbol) {
+        if (!soundEnabled || tone == null) {
+            return;
+        }
+        try {
+            Clip clip = generateToneClip(tone);
+            startClip(clip, symbol);
+            lastClip = clip;
+            lastSymbol = symbol;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Erro ao tocar som: " + e.getMessage());
+            soundEnabled = false;
+        }
+    }
+
+    /**
+     * Reinicia um clip do começo, interrompendo-o se ainda estiver tocando
+     */
+    private static void startClip(Clip clip, char symbol) {
+        MorseEvents.Clip event = new MorseEvents.Clip();
+        event.begin();
+        boolean restarted = clip.isRunning();
+        if (restarted) {
+            clip.stop();
+        }
+        clip.setFramePosition(0);
+        clip.start();
+        if (event.shouldCommit()) {
+            event.action = "start";
+            event.symbol = symbol;
+            event.restarted = restarted;
+            event.commit();
+        }
+    }
+
+    /**
+     * Para um clip ao fechar o visualizador
+     */
+    private static void stopClip(Clip clip, char symbol) {
+        MorseEvents.Clip event = new MorseEvents.Clip();
+        event.begin();
+        clip.stop();
+        if (event.shouldCommit()) {
+            event.action = "stop";
+            event.symbol = symbol;
+            event.commit();
         }
     }
 
@@ -156,99 +193,81 @@ public class AnimatedTreeVisualizer extends JPanel {
     }
 
     /**
-     * Calcula a altura da árvore
-     * @param node O nó atual
-     * @return A altura da árvore
+     * Troca a árvore exibida (por exemplo, ao escolher outra tabela de códigos)
+     * @param root A nova raiz
      */
-    private int calculateTreeHeight(MorseNode node) {
-        if (node == null) {
-            return 0;
-        }
-        return 1 + Math.max(calculateTreeHeight(node.left), calculateTreeHeight(node.right));
+    public void setRoot(MorseNode root) {
+        clearAnimation();
+        this.root = root;
+        renderer.setRoot(root);
+        revalidate();
+        repaint();
     }
 
+    /**
+     * O tamanho acompanha a extensão real da árvore calculada pelo layout
+     */
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    public Dimension getPreferredSize() {
+        return renderer.getPreferredSize();
+    }
 
-        // Desenha a árvore a partir da raiz
-        drawTree(g2d, root, getWidth() / 2, 40, getWidth() / 4);
+    /**
+     * @return A posição horizontal da raiz no layout da largura atual
+     */
+    public int getRootX() {
+        TreeLayout layout = renderer.getLayout(getWidth());
+        return layout.size() > 0 ? layout.x(0) : getWidth() / 2;
     }
 
     /**
-     * Desenha recursivamente a árvore
-     * @param g2d Contexto gráfico
-     * @param node Nó atual
-     * @param x Posição x do nó
-     * @param y Posição y do nó
-     * @param xOffset Deslocamento horizontal para os nós filhos
+     * Mostra o caractere e o código do nó sob o mouse
      */
-    private void drawTree(Graphics2D g2d, MorseNode node, int x, int y, int xOffset) {
-        if (node == null) {
-            return;
-        }
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        return renderer.describeNodeAt(getWidth(), event.getPoint());
+    }
 
-        // Determina a cor do nó com base na animação
-        Color nodeColor;
-        if (animationRunning && node == targetNode) {
-            nodeColor = Color.GREEN; // Nó de destino (final)
-        } else if (animationRunning && currentHighlightIndex >= 0 &&
-                currentHighlightIndex < highlightPath.size() &&
-                node == highlightPath.get(currentHighlightIndex)) {
-            nodeColor = Color.RED; // Nó atual na animação
-        } else {
-            nodeColor = new Color(240, 240, 255); // Cor padrão
-        }
+    @Override
+    protected void paintComponent(Graphics g) {
+        MorseEvents.Paint event = new MorseEvents.Paint();
+        event.begin();
+        long start = animationRunning ? MorseMetrics.startTimer() : 0;
+        Graphics2D g2d = (Graphics2D) g;
 
-        // Desenha o nó
-        g2d.setColor(nodeColor);
-        g2d.fillOval(x - nodeSize / 2, y - nodeSize / 2, nodeSize, nodeSize);
-        g2d.setColor(Color.BLACK);
-        g2d.drawOval(x - nodeSize / 2, y - nodeSize / 2, nodeSize, nodeSize);
-
-        // Desenha o caractere no nó
-        g2d.setFont(new Font("Arial", Font.BOLD, 18));
-        FontMetrics fm = g2d.getFontMetrics();
-        String nodeValue = (node.character != '\0') ? String.valueOf(node.character) : "•";
-        int textWidth = fm.stringWidth(nodeValue);
-        int textHeight = fm.getHeight();
-        g2d.drawString(nodeValue, x - textWidth / 2, y + textHeight / 4);
-
-        // Se for uma folha com caractere, desenha o código morse abaixo do nó
-        if (node.character != '\0' && node.morseCode != null && !node.morseCode.isEmpty()) {
-            g2d.setFont(new Font("Arial", Font.BOLD, 14));
-            g2d.setColor(Color.gray);
-            fm = g2d.getFontMetrics();
-            textWidth = fm.stringWidth(node.morseCode);
-            g2d.drawString(node.morseCode, x - textWidth / 2, y + nodeSize);
-        }
+        // Árvore estática vinda da imagem em cache, apenas no trecho recortado
+        renderer.paint(g2d, this);
 
-        // Desenha os filhos, se existirem
-        int nextY = y + verticalSpacing;
-        int newXOffset = Math.max(xOffset / 2, 20);
-
-        if (node.left != null) {
-            // Desenha a linha para o filho esquerdo com "." (ponto)
-            int leftX = x - newXOffset;
-            g2d.setColor(Color.BLACK);
-            g2d.draw(new Line2D.Double(x, y + nodeSize / 2, leftX, nextY - nodeSize / 2));
-            g2d.setFont(new Font("Arial", Font.BOLD, 44));
-            g2d.setColor(Color.GREEN);
-            g2d.drawString(".", (x + leftX) / 2 - 5, (y + nextY) / 2);
-            drawTree(g2d, node.left, leftX, nextY, newXOffset);
+        // Destaques da animação por cima
+        if (animationRunning) {
+            paintHighlights(g2d);
         }
+        MorseMetrics.recordFrame(start);
+
+        if (event.shouldCommit()) {
+            Rectangle clip = g.getClipBounds();
+            event.animating = animationRunning;
+            event.clipWidth = clip != null ? clip.width : getWidth();
+            event.clipHeight = clip != null ? clip.height : getHeight();
+            event.commit();
+        }
+    }
 
-        if (node.right != null) {
-            // Desenha a linha para o filho direito com "-" (traço)
-            int rightX = x + newXOffset;
-            g2d.setColor(Color.BLACK);
-            g2d.draw(new Line2D.Double(x, y + nodeSize / 2, rightX, nextY - nodeSize / 2));
-            g2d.setFont(new Font("Arial", Font.BOLD, 36));
-            g2d.setColor(Color.RED);
-            g2d.drawString("-", (x + rightX) / 2 - 5, (y + nextY) / 2);
-            drawTree(g2d, node.right, rightX, nextY, newXOffset);
+    /**
+     * Pinta o nó atual da animação e o nó de destino
+     */
+    private void paintHighlights(Graphics2D g2d) {
+        TreeLayout layout = renderer.getLayout(getWidth());
+        if (currentHighlightIndex >= 0 && currentHighlightIndex < highlightPath.size()) {
+            MorseNode current = highlightPath.get(currentHighlightIndex);
+            int index = layout.indexOf(current);
+            if (current != targetNode && index >= 0) {
+                renderer.paintNode(g2d, current, layout.x(index), layout.y(index), Color.RED); // Nó atual na animação
+            }
+        }
+        int target = layout.indexOf(targetNode);
+        if (target >= 0) {
+            renderer.paintNode(g2d, targetNode, layout.x(target), layout.y(target), Color.GREEN); // Nó de destino (final)
         }
     }
 
@@ -259,15 +278,15 @@ public class AnimatedTreeVisualizer extends JPanel {
      */
     public void animateDecode(String morseCode, boolean loop) {
         // Se já houver uma animação em andamento, pare-a
-        if (animationRunning && animationTimer != null) {
-            animationTimer.cancel();
-        }
+        stopTimer();
 
         // Encontra o caminho para o código morse
         highlightPath = new ArrayList<>();
         targetNode = findNodePath(root, morseCode.trim(), highlightPath);
 
         if (targetNode == null) {
+            animationRunning = false;
+            repaint();
             JOptionPane.showMessageDialog(this,
                     "Não foi possível decodificar: '" + morseCode + "'",
                     "Erro de Decodificação",
@@ -277,64 +296,98 @@ public class AnimatedTreeVisualizer extends JPanel {
 
         // Configura o loop da animação
         this.loopAnimation = loop;
+        this.sequence = morseCode.trim().toCharArray();
 
-        // Inicia a animação
+        // Inicia a animação na raiz
         currentHighlightIndex = 0;
+        nextStep = 1;
         animationRunning = true;
+        repaint();
 
-        // Array para armazenar a sequência de sons (. ou -)
-        final char[] sequence = morseCode.trim().toCharArray();
+        animationTimer = new Timer(animationDelay, e -> step());
+        animationTimer.start();
+    }
 
-        animationTimer = new Timer();
-        animationTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                // Atualiza o índice do nó atual
-                if (currentHighlightIndex < highlightPath.size()) {
-                    // Toca o som correspondente ao caractere atual
-                    if (currentHighlightIndex > 0 && currentHighlightIndex <= sequence.length) {
-                        char symbol = sequence[currentHighlightIndex - 1];
-                        if (symbol == '.') {
-                            playDotSound();
-                        } else if (symbol == '-') {
-                            playDashSound();
-                        }
-                    }
-
-                    repaint();
-                    currentHighlightIndex++;
-                } else {
-                    // Animação concluída, mostra o nó de destino
-                    currentHighlightIndex = -1;
-                    repaint();
-
-                    // Exibe uma mensagem informando o caractere decodificado
-                    // (Apenas na primeira vez, não em loops)
-                    if (targetNode.character != '\0' && !loopAnimation) {
-                        SwingUtilities.invokeLater(() -> {
-                            JOptionPane.showMessageDialog(AnimatedTreeVisualizer.this,
-                                    "Caractere decodificado: '" + targetNode.character + "'",
-                                    "Decodificação Concluída",
-                                    JOptionPane.INFORMATION_MESSAGE);
-                        });
-                    }
-
-                    // Se estiver em modo loop, reinicia a animação após um breve intervalo
-                    if (loopAnimation) {
-                        // Adiciona um pequeno delay para destacar o nó de destino
-
-
-                        // Reinicia a animação
-                        currentHighlightIndex = 0;
-                        repaint();
-                    } else {
-                        // Para o timer se não estiver em loop
-                        animationTimer.cancel();
-                        animationRunning = false;
-                    }
+    /**
+     * Avança um passo da animação (sempre na thread de eventos)
+     */
+    private void step() {
+        MorseEvents.AnimationTick event = new MorseEvents.AnimationTick();
+        event.begin();
+        advance();
+        if (event.shouldCommit()) {
+            event.step = currentHighlightIndex;
+            event.pathLength = highlightPath.size();
+            event.delay = animationDelay;
+            event.commit();
+        }
+    }
+
+    /**
+     * Move o destaque para o próximo nó do caminho, tocando o som do símbolo
+     */
+    private void advance() {
+        int previous = currentHighlightIndex;
+
+        if (nextStep < highlightPath.size()) {
+            // Toca o som do símbolo que leva ao próximo nó
+            if (nextStep > 0 && nextStep <= sequence.length) {
+                char symbol = sequence[nextStep - 1];
+                if (symbol == '.') {
+                    playDotSound();
+                } else if (symbol == '-') {
+                    playDashSound();
                 }
             }
-        }, animationDelay, animationDelay);
+            currentHighlightIndex = nextStep++;
+            repaintPathNode(previous);
+            repaintPathNode(currentHighlightIndex);
+            return;
+        }
+
+        // Animação concluída: por um passo, fica destacado só o nó de destino
+        currentHighlightIndex = -1;
+        repaintPathNode(previous);
+
+        if (loopAnimation) {
+            // Reinicia a animação a partir da raiz no próximo passo
+            nextStep = 0;
+            return;
+        }
+
+        // Para o timer se não estiver em loop
+        stopTimer();
+        animationRunning = false;
+        repaintPathNode(highlightPath.size() - 1);
+
+        // Exibe uma mensagem informando o caractere decodificado
+        if (targetNode.character != '\0') {
+            JOptionPane.showMessageDialog(this,
+                    "Caractere decodificado: '" + MorseCodeTable.label(targetNode.character) + "'",
+                    "Decodificação Concluída",
+                    JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    /**
+     * Repinta apenas a caixa do nó que está na posição informada do caminho
+     */
+    private void repaintPathNode(int pathIndex) {
+        if (pathIndex < 0 || pathIndex >= highlightPath.size()) {
+            return;
+        }
+        TreeLayout layout = renderer.getLayout(getWidth());
+        int index = layout.indexOf(highlightPath.get(pathIndex));
+        if (index >= 0) {
+            repaint(layout.bounds(index));
+        }
+    }
+
+    private void stopTimer() {
+        if (animationTimer != null) {
+            animationTimer.stop();
+            animationTimer = null;
+        }
     }
 
     /**
@@ -395,9 +448,7 @@ public class AnimatedTreeVisualizer extends JPanel {
      * Limpa qualquer animação em andamento
      */
     public void clearAnimation() {
-        if (animationTimer != null) {
-            animationTimer.cancel();
-        }
+        stopTimer();
         highlightPath.clear();
         currentHighlightIndex = -1;
         targetNode = null;
@@ -415,7 +466,7 @@ public class AnimatedTreeVisualizer extends JPanel {
 
         // Se já estiver em animação e o modo loop foi modificado para false, para a animação
         if (!loop && animationRunning && animationTimer != null) {
-            animationTimer.cancel();
+            stopTimer();
             animationRunning = false;
             repaint();
         }
@@ -435,6 +486,10 @@ public class AnimatedTreeVisualizer extends JPanel {
      */
     public void setAnimationSpeed(int delay) {
         this.animationDelay = delay;
+        // Vale também para a animação em andamento
+        if (animationTimer != null) {
+            animationTimer.setDelay(delay);
+        }
     }
 
     /**
@@ -442,20 +497,11 @@ public class AnimatedTreeVisualizer extends JPanel {
      */
     public void dispose() {
         clearAnimation();
-        if (animationTimer != null) {
-            animationTimer.cancel();
-            animationTimer = null;
-        }
 
-        if (dotSound != null) {
-            dotSound.stop();      // <- garante que o áudio pare
-            dotSound.close();
-            dotSound = null;
-        }
-        if (dashSound != null) {
-            dashSound.stop();
-            dashSound.close();
-            dashSound = null;
+        // Os clips pertencem ao ToneBank e continuam abertos para as próximas janelas
+        if (lastClip != null && lastClip.isOpen()) {
+            stopClip(lastClip, lastSymbol);      // <- garante que o áudio pare
         }
+        lastClip = null;
     }
 }
\ No newline at end of file
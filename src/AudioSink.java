@@ -0,0 +1,264 @@
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Saída de áudio com buffer limitado, no modelo de uma SourceDataLine: a
+ * escrita bloqueia enquanto o buffer está cheio e {@link #available()}
+ * informa quanto cabe sem bloquear, o que permite medir quanto áudio ainda
+ * está na fila.
+ *
+ * Há três implementações:
+ * <ul>
+ *   <li>{@link #line()}: a placa de som, por uma SourceDataLine;</li>
+ *   <li>{@link #silent()}: descarta o áudio, mas consome o buffer no ritmo
+ *       da taxa de amostragem, como um dispositivo real, para usar sem placa
+ *       de som (servidores, testes);</li>
+ *   <li>{@link #wavFile(Path)}: como a silenciosa, e grava tudo o que
+ *       "tocou" em um arquivo WAV ao fechar.</li>
+ * </ul>
+ *
+ * Instâncias não são thread-safe: uma única thread escreve, e a saída só
+ * deve ser fechada depois que ela terminar.
+ */
+public interface AudioSink extends Closeable {
+
+    /**
+     * Abre a saída
+     * @param format Formato do áudio (PCM)
+     * @param bufferBytes Tamanho pedido para o buffer; a saída pode usar outro
+     * @throws LineUnavailableException Se não houver dispositivo disponível
+     */
+    void open(AudioFormat format, int bufferBytes) throws LineUnavailableException;
+
+    /**
+     * Começa a consumir o buffer. Antes disso, as escritas só o enchem.
+     */
+    void start();
+
+    /**
+     * Escreve o áudio, bloqueando até que todo ele caiba no buffer
+     * @param buffer Os bytes PCM
+     * @param offset Posição inicial
+     * @param length Quantidade de bytes (múltiplo do tamanho do quadro)
+     */
+    void write(byte[] buffer, int offset, int length);
+
+    /**
+     * @return Quantos bytes podem ser escritos sem bloquear
+     */
+    int available();
+
+    /**
+     * @return Tamanho real do buffer em bytes
+     */
+    int getBufferSize();
+
+    /**
+     * @return Nome da saída, para relatórios
+     */
+    String getName();
+
+    /**
+     * @return A placa de som padrão
+     */
+    static AudioSink line() {
+        return new LineSink();
+    }
+
+    /**
+     * @return Uma saída sem dispositivo, que consome o áudio em tempo real
+     */
+    static AudioSink silent() {
+        return new SilentSink();
+    }
+
+    /**
+     * @param path Arquivo WAV gravado ao fechar a saída
+     * @return Uma saída sem dispositivo que grava o áudio consumido
+     */
+    static AudioSink wavFile(Path path) {
+        return new WavFileSink(path);
+    }
+
+    /**
+     * Saída pela placa de som
+     */
+    final class LineSink implements AudioSink {
+        private SourceDataLine line;
+
+        @Override
+        public void open(AudioFormat format, int bufferBytes) throws LineUnavailableException {
+            line = AudioSystem.getSourceDataLine(format);
+            line.open(format, bufferBytes);
+        }
+
+        @Override
+        public void start() {
+            line.start();
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            line.write(buffer, offset, length);
+        }
+
+        @Override
+        public int available() {
+            return line.available();
+        }
+
+        @Override
+        public int getBufferSize() {
+            return line.getBufferSize();
+        }
+
+        @Override
+        public String getName() {
+            return "placa de som";
+        }
+
+        @Override
+        public void close() {
+            if (line != null) {
+                line.stop();
+                line.flush();
+                line.close();
+                line = null;
+            }
+        }
+    }
+
+    /**
+     * Saída simulada: um relógio próprio consome o buffer na taxa de
+     * amostragem a partir de {@link #start()}. Quando o buffer esvazia, o
+     * "dispositivo" toca silêncio, como uma placa de som faria.
+     */
+    class SilentSink implements AudioSink {
+        private AudioFormat format;
+        private int bufferBytes;
+        private double bytesPerNano;
+
+        private boolean started;
+        private long writtenBytes;
+        private double playedBytes;
+        private long lastNanos;
+
+        @Override
+        public void open(AudioFormat format, int bufferBytes) {
+            int frameSize = format.getFrameSize();
+            this.format = format;
+            this.bufferBytes = Math.max(frameSize, bufferBytes / frameSize * frameSize);
+            this.bytesPerNano = format.getFrameRate() * frameSize / 1e9;
+        }
+
+        @Override
+        public void start() {
+            if (!started) {
+                started = true;
+                lastNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            while (length > 0) {
+                int free = available();
+                if (free == 0) {
+                    // Espera o tempo de tocar um quadro a mais que o que falta
+                    int missing = Math.min(length, bufferBytes);
+                    LockSupport.parkNanos((long) (missing / bytesPerNano));
+                    continue;
+                }
+                int count = Math.min(free, length);
+                count -= count % format.getFrameSize();
+                if (count == 0) {
+                    LockSupport.parkNanos((long) (format.getFrameSize() / bytesPerNano));
+                    continue;
+                }
+                consumed(buffer, offset, count);
+                writtenBytes += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public int available() {
+            if (started) {
+                long now = System.nanoTime();
+                playedBytes = Math.min(writtenBytes, playedBytes + (now - lastNanos) * bytesPerNano);
+                lastNanos = now;
+            }
+            return bufferBytes - (int) (writtenBytes - (long) playedBytes);
+        }
+
+        @Override
+        public int getBufferSize() {
+            return bufferBytes;
+        }
+
+        @Override
+        public String getName() {
+            return "sem dispositivo";
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        /**
+         * Recebe cada trecho aceito pelo buffer, na ordem em que vai tocar
+         */
+        void consumed(byte[] buffer, int offset, int length) {
+        }
+
+        AudioFormat getFormat() {
+            return format;
+        }
+    }
+
+    /**
+     * Saída simulada que guarda o áudio e o grava como WAV ao fechar
+     */
+    final class WavFileSink extends SilentSink {
+        private final Path path;
+        private final ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+
+        WavFileSink(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        void consumed(byte[] buffer, int offset, int length) {
+            pcm.write(buffer, offset, length);
+        }
+
+        @Override
+        public String getName() {
+            return "arquivo " + path.getFileName();
+        }
+
+        @Override
+        public void close() throws IOException {
+            AudioFormat format = getFormat();
+            if (format == null) {
+                return;
+            }
+            byte[] bytes = pcm.toByteArray();
+            try (AudioInputStream audio = new AudioInputStream(new ByteArrayInputStream(bytes), format,
+                    bytes.length / format.getFrameSize())) {
+                AudioSystem.write(audio, AudioFileFormat.Type.WAVE, path.toFile());
+            }
+        }
+    }
+}
@@ -0,0 +1,435 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Modo em lote, sem interface gráfica, para codificar ou decodificar todos
+ * os arquivos de um diretório.
+ *
+ * Os arquivos são distribuídos em um ForkJoinPool (work-stealing) com um
+ * worker por núcleo. Arquivos grandes são lidos em regiões mapeadas em
+ * memória pelo FileChannel; todos os workers compartilham as tabelas de um
+ * único {@link MorseDecoder}. Nenhuma classe AWT/Swing é carregada.
+ *
+ * Uso: {@code java BatchProcessor <encode|decode> <diretório de entrada> <diretório de saída>}
+ */
+public class BatchProcessor {
+    // Arquivos a partir deste tamanho são mapeados em memória
+    private static final long MAP_THRESHOLD = 1L << 20;       // 1 MB
+    // Tamanho de cada região mapeada
+    private static final long MAP_REGION_SIZE = 64L << 20;    // 64 MB
+    // Tamanho dos buffers de leitura e escrita de cada arquivo
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Direção da conversão
+     */
+    public enum Direction {
+        ENCODE, DECODE
+    }
+
+    private final MorseDecoder decoder;
+    private final Direction direction;
+    private final Path inputDir;
+    private final Path outputDir;
+    private final int parallelism;
+
+    // Contadores atualizados pelos workers
+    private final LongAdder filesProcessed = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Cria um processador em lote com um worker por núcleo
+     * @param decoder Decodificador compartilhado por todos os workers
+     * @param direction Direção da conversão
+     * @param inputDir Diretório com os arquivos de entrada
+     * @param outputDir Diretório onde os resultados serão gravados
+     */
+    public BatchProcessor(MorseDecoder decoder, Direction direction, Path inputDir, Path outputDir) {
+        this(decoder, direction, inputDir, outputDir, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Cria um processador em lote
+     * @param decoder Decodificador compartilhado por todos os workers
+     * @param direction Direção da conversão
+     * @param inputDir Diretório com os arquivos de entrada
+     * @param outputDir Diretório onde os resultados serão gravados
+     * @param parallelism Quantidade de workers
+     */
+    public BatchProcessor(MorseDecoder decoder, Direction direction, Path inputDir, Path outputDir,
+                          int parallelism) {
+        this.decoder = decoder;
+        this.direction = direction;
+        this.inputDir = inputDir;
+        this.outputDir = outputDir;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Processa todos os arquivos do diretório de entrada (incluindo subdiretórios)
+     * @return O resumo da execução
+     * @throws IOException Se o diretório de entrada não puder ser listado
+     * @throws IllegalArgumentException Se um diretório estiver dentro do outro (ou forem o mesmo)
+     */
+    public Summary run() throws IOException {
+        checkDirectories(inputDir, outputDir);
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(inputDir)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new FileBatchTask(files, 0, files.size()));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Summary(filesProcessed.sum(), bytesRead.sum(), bytesWritten.sum(), elapsed,
+                new ArrayList<>(errors));
+    }
+
+    /**
+     * Recusa diretórios de entrada e saída iguais ou um dentro do outro: a
+     * saída é aberta truncando o arquivo, e no mesmo diretório cada entrada
+     * seria apagada antes de ser lida. Os caminhos são comparados depois de
+     * resolver links simbólicos e "..".
+     * @throws IOException Se o diretório de entrada não existir
+     * @throws IllegalArgumentException Se os diretórios se sobrepuserem
+     */
+    static void checkDirectories(Path inputDir, Path outputDir) throws IOException {
+        Path input = inputDir.toRealPath();
+        Path output = realPathOfMissing(outputDir);
+        if (output.startsWith(input) || input.startsWith(output)) {
+            throw new IllegalArgumentException("Os diretórios de entrada e saída não podem ser o mesmo "
+                    + "nem estar um dentro do outro: " + input + ", " + output);
+        }
+    }
+
+    /**
+     * Caminho real de um diretório que pode ainda não existir: resolve o
+     * ancestral existente mais próximo e acrescenta o restante
+     */
+    private static Path realPathOfMissing(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath().normalize();
+        Path existing = absolute;
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        if (existing == null) {
+            return absolute;
+        }
+        return existing.toRealPath().resolve(existing.relativize(absolute));
+    }
+
+    /**
+     * Divide a lista de arquivos ao meio até sobrar um arquivo por tarefa,
+     * deixando o balanceamento de carga para o work-stealing do pool
+     */
+    private class FileBatchTask extends RecursiveAction {
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+
+        FileBatchTask(List<Path> files, int from, int to) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    processFile(files.get(from));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FileBatchTask(files, from, middle), new FileBatchTask(files, middle, to));
+        }
+    }
+
+    /**
+     * Converte um arquivo, registrando qualquer falha no resumo
+     * @param input O arquivo de entrada
+     */
+    private void processFile(Path input) {
+        Path output = outputDir.resolve(inputDir.relativize(input));
+        try {
+            Path parent = output.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (direction == Direction.ENCODE) {
+                    encode(in, out);
+                } else {
+                    decode(in, out);
+                }
+            }
+            filesProcessed.increment();
+        } catch (IOException | UncheckedIOException e) {
+            errors.add(input + ": " + e.getMessage());
+        }
+    }
+
+    private void encode(FileChannel in, FileChannel out) throws IOException {
+        MorseByteEncoder encoder = new MorseByteEncoder(decoder);
+        ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+
+        ByteBuffer region;
+        RegionReader reader = new RegionReader(in);
+        while ((region = reader.next()) != null) {
+            while (!encoder.encode(region, output)) {
+                drain(output, out);
+            }
+        }
+        while (!encoder.finish(output)) {
+            drain(output, out);
+        }
+        drain(output, out);
+    }
+
+    private void decode(FileChannel in, FileChannel out) throws IOException {
+        ChannelSink sink = new ChannelSink(out);
+        MorseStreamDecoder stream = new MorseStreamDecoder(decoder, sink);
+
+        ByteBuffer region;
+        RegionReader reader = new RegionReader(in);
+        while ((region = reader.next()) != null) {
+            stream.feed(region);
+        }
+        stream.finish();
+        sink.flush();
+    }
+
+    /**
+     * Escreve todo o conteúdo do buffer no canal e o deixa vazio
+     */
+    private void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten.add(out.write(buffer));
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Lê um arquivo em blocos: regiões mapeadas em memória para arquivos
+     * grandes ou um único buffer reaproveitado para os pequenos
+     */
+    private class RegionReader {
+        private final FileChannel channel;
+        private final long size;
+        private final boolean mapped;
+        private ByteBuffer buffer;
+        private long position = 0;
+
+        RegionReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.mapped = size >= MAP_THRESHOLD;
+        }
+
+        /**
+         * @return A próxima região do arquivo, ou null no fim
+         */
+        ByteBuffer next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+
+            if (mapped) {
+                long length = Math.min(MAP_REGION_SIZE, size - position);
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+                bytesRead.add(length);
+                return region;
+            }
+
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(size, 1)));
+            }
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return null;
+            }
+            position += read;
+            bytesRead.add(read);
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Recebe os caracteres decodificados e os grava em UTF-8 no canal de saída
+     */
+    private class ChannelSink implements MorseStreamDecoder.Sink {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        ChannelSink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void accept(char c) {
+            if (buffer.remaining() < 3) {
+                flush();
+            }
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        void flush() {
+            try {
+                drain(buffer, channel);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Resumo de uma execução em lote
+     */
+    public static class Summary {
+        private final long files;
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final long elapsedNanos;
+        private final List<String> errors;
+
+        Summary(long files, long bytesRead, long bytesWritten, long elapsedNanos, List<String> errors) {
+            this.files = files;
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        public long getFiles() {
+            return files;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return Vazão de leitura em MB/s
+         */
+        public double getThroughputMBps() {
+            double seconds = elapsedNanos / 1e9;
+            return seconds > 0 ? bytesRead / (1024.0 * 1024.0) / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Arquivos: %d | Lidos: %d bytes | Gravados: %d bytes | Tempo: %.3f s | Vazão: %.2f MB/s | Erros: %d",
+                    files, bytesRead, bytesWritten, elapsedNanos / 1e9, getThroughputMBps(), errors.size());
+        }
+    }
+
+    /**
+     * Ponto de entrada do modo em lote
+     * @param args direção (encode|decode), diretório de entrada e diretório de saída
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        if (args.length != 3) {
+            System.err.println("Uso: BatchProcessor <encode|decode> <diretório de entrada> <diretório de saída>");
+            System.exit(2);
+            return;
+        }
+
+        Direction direction;
+        try {
+            direction = Direction.valueOf(args[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Direção inválida: " + args[0] + " (use encode ou decode)");
+            System.exit(2);
+            return;
+        }
+
+        Path inputDir = Paths.get(args[1]);
+        Path outputDir = Paths.get(args[2]);
+        if (!Files.isDirectory(inputDir)) {
+            System.err.println("Diretório de entrada não encontrado: " + inputDir);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            checkDirectories(inputDir, outputDir);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        } catch (IOException e) {
+            System.err.println("Erro ao verificar " + inputDir + ": " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        try {
+            Summary summary = new BatchProcessor(MorseDecoder.forTable(MorseCodeTable.DEFAULT), direction, inputDir, outputDir).run();
+            for (String error : summary.getErrors()) {
+                System.err.println("Erro: " + error);
+            }
+            System.out.println(summary);
+            System.exit(summary.getErrors().isEmpty() ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("Erro ao listar " + inputDir + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Sequência de caracteres que só cresce, guardada em blocos de tamanho fixo.
+ *
+ * Acrescentar texto nunca copia o que já foi guardado (ao contrário de um
+ * StringBuilder ou de um PlainDocument, que realocam e dobram a memória), e
+ * os blocos podem ficar fora do heap, em buffers diretos, para não pesar na
+ * coleta de lixo quando a saída chega a centenas de megabytes.
+ *
+ * Instâncias não são thread-safe: acréscimos e leituras acontecem na mesma
+ * thread. Para ler em outra thread enquanto a sequência cresce (a área de
+ * transferência, por exemplo), use um {@link #snapshot()}.
+ */
+final class ChunkedCharStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;    // 64K caracteres por bloco
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final boolean direct;
+    private CharBuffer[] chunks = new CharBuffer[16];
+    private int chunkCount;
+    private long length;
+
+    /**
+     * @param direct true para guardar os blocos fora do heap
+     */
+    ChunkedCharStore(boolean direct) {
+        this.direct = direct;
+    }
+
+    /**
+     * @return A quantidade de caracteres guardados
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * @return true se os blocos ficam fora do heap
+     */
+    boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Acrescenta um trecho ao final
+     */
+    void append(CharSequence text) {
+        int pos = 0;
+        int count = text.length();
+        while (pos < count) {
+            int offset = (int) (length & CHUNK_MASK);
+            if (offset == 0) {
+                if (chunkCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, 2 * chunks.length);
+                }
+                chunks[chunkCount++] = direct
+                        ? ByteBuffer.allocateDirect(CHUNK_SIZE * 2).asCharBuffer()
+                        : CharBuffer.allocate(CHUNK_SIZE);
+            }
+            CharBuffer chunk = chunks[chunkCount - 1];
+            int n = Math.min(count - pos, CHUNK_SIZE - offset);
+            for (int i = 0; i < n; i++) {
+                chunk.put(offset + i, text.charAt(pos + i));
+            }
+            pos += n;
+            length += n;
+        }
+    }
+
+    /**
+     * @return O caractere na posição informada
+     */
+    char charAt(long index) {
+        return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Copia um trecho para um vetor
+     * @param start Posição inicial na sequência
+     * @param dst Vetor de destino
+     * @param off Posição inicial no destino
+     * @param count Quantidade de caracteres
+     */
+    void getChars(long start, char[] dst, int off, int count) {
+        copy(chunks, start, dst, off, count);
+    }
+
+    /**
+     * @return Uma visão imutável do que já foi guardado, que pode ser lida em
+     *         outra thread enquanto esta instância continua crescendo
+     */
+    Snapshot snapshot() {
+        return new Snapshot(Arrays.copyOf(chunks, chunkCount), length);
+    }
+
+    private static void copy(CharBuffer[] chunks, long start, char[] dst, int off, int count) {
+        while (count > 0) {
+            CharBuffer chunk = chunks[(int) (start >>> CHUNK_BITS)].duplicate();
+            int offset = (int) (start & CHUNK_MASK);
+            int n = Math.min(count, CHUNK_SIZE - offset);
+            chunk.position(offset);
+            chunk.get(dst, off, n);
+            start += n;
+            off += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Os primeiros {@code length} caracteres de um {@link ChunkedCharStore}.
+     *
+     * Caracteres já escritos nunca mudam e o vetor de blocos é uma cópia
+     * própria em campo final, então a visão não é afetada por acréscimos
+     * posteriores (nem pelo crescimento do vetor) e pode ser entregue a
+     * outra thread.
+     */
+    static final class Snapshot {
+        private final CharBuffer[] chunks;
+        private final long length;
+
+        private Snapshot(CharBuffer[] chunks, long length) {
+            this.chunks = chunks;
+            this.length = length;
+        }
+
+        /**
+         * @return A quantidade de caracteres da visão
+         */
+        long length() {
+            return length;
+        }
+
+        /**
+         * @return Um Reader que percorre o trecho [start, end) sem copiá-lo de uma vez
+         */
+        Reader reader(long start, long end) {
+            checkRange(start, end);
+            return new Reader() {
+                private long position = start;
+
+                @Override
+                public int read(char[] buffer, int off, int len) {
+                    if (position >= end) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, end - position);
+                    copy(chunks, position, buffer, off, n);
+                    position += n;
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) {
+                    long skipped = Math.max(0, Math.min(n, end - position));
+                    position += skipped;
+                    return skipped;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    position = end;
+                }
+            };
+        }
+
+        /**
+         * @return O trecho [start, end) como String
+         */
+        String substring(long start, long end) {
+            checkRange(start, end);
+            int count = Math.toIntExact(end - start);
+            char[] text = new char[count];
+            copy(chunks, start, text, 0, count);
+            return new String(text);
+        }
+
+        private void checkRange(long start, long end) {
+            if (start < 0 || start > end || end > length) {
+                throw new IndexOutOfBoundsException("[" + start + ", " + end + ") fora de [0, " + length + ")");
+            }
+        }
+    }
+}
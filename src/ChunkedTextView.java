@@ -0,0 +1,448 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.ClipboardOwner;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.Transferable;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Visualização somente leitura para saídas muito grandes.
+ *
+ * O texto fica em um {@link ChunkedCharStore} (opcionalmente fora do heap) e
+ * é quebrado em um número fixo de colunas, calculado pela largura visível e
+ * por uma fonte monoespaçada. Assim a posição de cada linha visual sai de uma
+ * conta, sem medir texto: só as quebras de linha explícitas são indexadas, e
+ * a pintura percorre apenas as linhas dentro da área recortada. Acrescentar
+ * texto custa proporcional ao trecho novo, não ao total.
+ *
+ * A seleção é feita com o mouse ou com Ctrl+A; Ctrl+C copia a seleção por um
+ * Transferable preguiçoso, que só lê o texto quando alguém cola.
+ */
+public class ChunkedTextView extends JComponent implements Scrollable {
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 13);
+    private static final Color SELECTION_COLOR = new Color(184, 207, 229);
+    private static final int MARGIN = 4;
+
+    private final boolean direct;
+    private ChunkedCharStore store;
+
+    // Início de cada linha lógica (separadas por '\n')
+    private long[] lineStarts = new long[64];
+    private int lineCount = 1;
+
+    // Linhas visuais antes de cada linha lógica, válidas até validLines
+    private long[] rowsBefore = new long[64];
+    private int validLines = 0;
+    private int columns = 0;
+
+    // Seleção [selectionStart, selectionEnd), independente da direção do arraste
+    private long anchor = -1;
+    private long caret = -1;
+
+    private final int charWidth;
+    private final int lineHeight;
+    private final int ascent;
+    private char[] rowBuffer = new char[256];
+
+    /**
+     * Cria uma visualização com os blocos no heap
+     */
+    public ChunkedTextView() {
+        this(false);
+    }
+
+    /**
+     * @param direct true para guardar o texto fora do heap
+     */
+    public ChunkedTextView(boolean direct) {
+        this.direct = direct;
+        this.store = new ChunkedCharStore(direct);
+
+        FontMetrics metrics = getFontMetrics(FONT);
+        this.charWidth = Math.max(1, metrics.charWidth('m'));
+        this.lineHeight = metrics.getHeight();
+        this.ascent = metrics.getAscent();
+
+        setFont(FONT);
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setForeground(Color.BLACK);
+        setFocusable(true);
+        setCursor(Cursor.getPredefinedCursor(Cursor.TEXT_CURSOR));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                requestFocusInWindow();
+                long offset = offsetAt(e.getPoint());
+                if (!e.isShiftDown() || anchor < 0) {
+                    anchor = offset;
+                }
+                moveCaret(offset);
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                moveCaret(offsetAt(e.getPoint()));
+                scrollRectToVisible(new Rectangle(e.getX(), e.getY(), 1, 1));
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+
+        int menuMask = GraphicsEnvironment.isHeadless()
+                ? InputEvent.CTRL_DOWN_MASK : Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_A, menuMask), "select-all");
+        getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_C, menuMask), "copy");
+        getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_INSERT, InputEvent.CTRL_DOWN_MASK), "copy");
+        getActionMap().put("select-all", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                selectAll();
+            }
+        });
+        getActionMap().put("copy", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                copy();
+            }
+        });
+    }
+
+    /**
+     * Acrescenta texto ao final (deve ser chamado na thread de eventos)
+     */
+    public void append(String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        long base = store.length();
+        int lastLine = lineCount - 1;
+        store.append(text);
+
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            if (lineCount == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            }
+            lineStarts[lineCount++] = base + i + 1;
+        }
+        // A antiga última linha cresceu: as contagens a partir dela são refeitas
+        validLines = Math.min(validLines, lastLine + 1);
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Descarta todo o texto e a seleção.
+     * Conteúdo já copiado continua disponível para colar.
+     */
+    public void clear() {
+        store = new ChunkedCharStore(direct);
+        lineCount = 1;
+        validLines = 0;
+        anchor = -1;
+        caret = -1;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @return A quantidade de caracteres exibidos
+     */
+    public long getLength() {
+        return store.length();
+    }
+
+    /**
+     * @return Um Reader sobre o texto exibido até agora, sem copiá-lo; o que
+     *         for acrescentado depois não aparece nele
+     */
+    public Reader getReader() {
+        ChunkedCharStore.Snapshot snapshot = store.snapshot();
+        return snapshot.reader(0, snapshot.length());
+    }
+
+    /**
+     * Seleciona todo o texto
+     */
+    public void selectAll() {
+        anchor = 0;
+        moveCaret(store.length());
+    }
+
+    /**
+     * @return O início da seleção, ou -1 se não houver
+     */
+    public long getSelectionStart() {
+        return anchor < 0 ? -1 : Math.min(anchor, caret);
+    }
+
+    /**
+     * @return O fim (exclusivo) da seleção, ou -1 se não houver
+     */
+    public long getSelectionEnd() {
+        return anchor < 0 ? -1 : Math.max(anchor, caret);
+    }
+
+    /**
+     * Copia a seleção para a área de transferência. O texto só é lido quando colado.
+     */
+    public void copy() {
+        long start = getSelectionStart();
+        long end = getSelectionEnd();
+        if (start < 0 || start == end) {
+            return;
+        }
+        Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+        // Outra aplicação pode colar a qualquer momento, pela thread do toolkit,
+        // enquanto o worker continua acrescentando texto nesta thread
+        LazyTextTransferable contents = new LazyTextTransferable(store.snapshot(), start, end);
+        clipboard.setContents(contents, contents);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Container parent = getParent();
+        int width = parent instanceof JViewport && parent.getWidth() > 0
+                ? parent.getWidth() : 80 * charWidth + 2 * MARGIN;
+        ensureLayout(width);
+        long height = totalRows() * lineHeight + 2L * MARGIN;
+        return new Dimension(width, (int) Math.min(Integer.MAX_VALUE, height));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        ensureLayout(getWidth());
+        if (store.length() == 0) {
+            return;
+        }
+
+        long firstRow = Math.max(0, (clip.y - MARGIN) / lineHeight);
+        long lastRow = Math.min(totalRows() - 1, (clip.y + clip.height - MARGIN) / lineHeight);
+        if (firstRow > lastRow) {
+            return;
+        }
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setFont(FONT);
+
+        long selectionStart = getSelectionStart();
+        long selectionEnd = getSelectionEnd();
+
+        int line = lineForRow(firstRow);
+        for (long row = firstRow; row <= lastRow; row++) {
+            while (line + 1 < lineCount && rowsBefore[line + 1] <= row) {
+                line++;
+            }
+            long start = lineStarts[line] + (row - rowsBefore[line]) * columns;
+            long end = Math.min(start + columns, lineEnd(line));
+            int y = MARGIN + (int) (row * lineHeight);
+
+            // Fundo da seleção no trecho desta linha
+            if (selectionStart < selectionEnd && selectionStart <= end && selectionEnd > start) {
+                long from = Math.max(start, selectionStart);
+                long to = Math.min(selectionEnd, end);
+                int x = MARGIN + (int) (from - start) * charWidth;
+                int width = (int) (to - from) * charWidth + (selectionEnd > end ? charWidth : 0);
+                g2.setColor(SELECTION_COLOR);
+                g2.fillRect(x, y, width, lineHeight);
+            }
+
+            int count = (int) (end - start);
+            if (count > 0) {
+                if (rowBuffer.length < count) {
+                    rowBuffer = new char[count];
+                }
+                store.getChars(start, rowBuffer, 0, count);
+                g2.setColor(getForeground());
+                g2.drawChars(rowBuffer, 0, count, MARGIN, y + ascent);
+            }
+        }
+    }
+
+    // ---- Scrollable ----
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(80 * charWidth + 2 * MARGIN, 5 * lineHeight);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? lineHeight : charWidth;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation == SwingConstants.VERTICAL) {
+            return Math.max(lineHeight, visibleRect.height - lineHeight);
+        }
+        return visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getHeight() > totalRowsHeight();
+    }
+
+    // ---- Layout ----
+
+    /**
+     * Recalcula as linhas visuais se a largura mudou ou se há linhas novas
+     */
+    private void ensureLayout(int width) {
+        int newColumns = Math.max(1, (width - 2 * MARGIN) / charWidth);
+        if (newColumns != columns) {
+            columns = newColumns;
+            validLines = 0;
+        }
+        if (rowsBefore.length < lineCount + 1) {
+            rowsBefore = Arrays.copyOf(rowsBefore, Math.max(lineCount + 1, rowsBefore.length * 2));
+        }
+        if (validLines == 0) {
+            rowsBefore[0] = 0;
+            validLines = 1;
+        }
+        for (int line = validLines; line <= lineCount; line++) {
+            rowsBefore[line] = rowsBefore[line - 1] + rowsIn(line - 1);
+        }
+        validLines = lineCount;
+    }
+
+    /**
+     * @return Quantas linhas visuais a linha lógica ocupa (pelo menos uma)
+     */
+    private long rowsIn(int line) {
+        long length = lineEnd(line) - lineStarts[line];
+        return Math.max(1, (length + columns - 1) / columns);
+    }
+
+    /**
+     * @return O fim da linha lógica, sem o '\n'
+     */
+    private long lineEnd(int line) {
+        return line + 1 < lineCount ? lineStarts[line + 1] - 1 : store.length();
+    }
+
+    private long totalRows() {
+        return rowsBefore[lineCount];
+    }
+
+    private long totalRowsHeight() {
+        ensureLayout(getWidth() > 0 ? getWidth() : 80 * charWidth + 2 * MARGIN);
+        return totalRows() * lineHeight + 2L * MARGIN;
+    }
+
+    /**
+     * @return A linha lógica que contém a linha visual (busca binária)
+     */
+    private int lineForRow(long row) {
+        int low = 0;
+        int high = lineCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (rowsBefore[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return A posição no texto mais próxima do ponto
+     */
+    private long offsetAt(Point point) {
+        ensureLayout(getWidth());
+        if (store.length() == 0) {
+            return 0;
+        }
+        long row = Math.max(0, Math.min(totalRows() - 1, (point.y - MARGIN) / lineHeight));
+        int line = lineForRow(row);
+        long start = lineStarts[line] + (row - rowsBefore[line]) * columns;
+        long end = Math.min(start + columns, lineEnd(line));
+        long column = Math.max(0, (point.x - MARGIN + charWidth / 2) / charWidth);
+        return Math.min(end, start + column);
+    }
+
+    private void moveCaret(long offset) {
+        caret = offset;
+        repaint();
+    }
+
+    /**
+     * Conteúdo da área de transferência que lê o trecho somente quando pedido
+     */
+    private static final class LazyTextTransferable implements Transferable, ClipboardOwner {
+        private static final DataFlavor READER_FLAVOR = createReaderFlavor();
+
+        private final ChunkedCharStore.Snapshot text;
+        private final long start;
+        private final long end;
+
+        LazyTextTransferable(ChunkedCharStore.Snapshot text, long start, long end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        private static DataFlavor createReaderFlavor() {
+            try {
+                return new DataFlavor("text/plain;class=java.io.Reader");
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public DataFlavor[] getTransferDataFlavors() {
+            return new DataFlavor[]{DataFlavor.stringFlavor, READER_FLAVOR};
+        }
+
+        @Override
+        public boolean isDataFlavorSupported(DataFlavor flavor) {
+            return DataFlavor.stringFlavor.equals(flavor) || READER_FLAVOR.equals(flavor);
+        }
+
+        @Override
+        public Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException, IOException {
+            if (DataFlavor.stringFlavor.equals(flavor)) {
+                return text.substring(start, end);
+            }
+            if (READER_FLAVOR.equals(flavor)) {
+                return text.reader(start, end);
+            }
+            throw new UnsupportedFlavorException(flavor);
+        }
+
+        @Override
+        public void lostOwnership(Clipboard clipboard, Transferable contents) {
+            // Nada a liberar: o trecho é lido direto dos blocos do armazenamento
+        }
+    }
+}
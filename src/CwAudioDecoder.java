@@ -0,0 +1,527 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Decodificador de áudio CW (morse em tom contínuo) para texto.
+ *
+ * O áudio PCM é dividido em blocos curtos e, em cada bloco, um filtro de
+ * Goertzel mede a energia na frequência da portadora. Um limiar adaptativo
+ * (que acompanha o nível do sinal e o ruído de fundo) transforma a energia
+ * em trechos de tom ligado/desligado; a duração desses trechos é
+ * classificada em pontos, traços e intervalos pelo {@link TimingClassifier},
+ * com uma estimativa de velocidade (WPM) que se ajusta durante a mensagem.
+ * Os símbolos resultantes alimentam um {@link MorseStreamDecoder}, que
+ * consulta a árvore morse.
+ *
+ * O início da mensagem passa por duas esperas. O primeiro segundo de
+ * blocos fica guardado até que o ruído de fundo possa ser medido por um
+ * percentil baixo dele, para que um áudio que já começa com tom não trate
+ * o primeiro elemento como ruído. Depois, os primeiros tons e intervalos
+ * ficam guardados até que a unidade possa ser estimada por eles; só então
+ * são separados em letras, para que a velocidade inicial assumida não junte
+ * ou divida as primeiras letras.
+ *
+ * O processamento é incremental: o áudio pode chegar em blocos de qualquer
+ * tamanho. Instâncias não são thread-safe.
+ */
+public class CwAudioDecoder {
+    // Duração padrão de cada bloco analisado pelo Goertzel
+    private static final double DEFAULT_BLOCK_MILLIS = 5.0;
+    // Velocidade assumida antes da primeira estimativa
+    private static final double DEFAULT_INITIAL_WPM = 20.0;
+    // Relação mínima entre o nível do sinal e a média do ruído para haver tom
+    private static final double MIN_SIGNAL_TO_NOISE = 5.0;
+    // Nível mínimo absoluto do sinal (cerca de -54 dBFS)
+    private static final double MIN_SIGNAL_LEVEL = 1e-3;
+    // Trecho inicial usado para medir o ruído de fundo, e o percentil usado
+    private static final double WARMUP_MILLIS = 1000.0;
+    private static final double NOISE_PERCENTILE = 0.1;
+    // Tons guardados antes da primeira estimativa da unidade
+    private static final int CALIBRATION_MARKS = 8;
+
+    private final MorseStreamDecoder stream;
+    private final float sampleRate;
+    private final int blockSize;
+    private final double blockMillis;
+
+    // Coeficientes do filtro de Goertzel
+    private final double coefficient;
+    private final double cosine;
+    private final double sine;
+
+    // Estado do bloco em andamento
+    private double s1;
+    private double s2;
+    private int samplesInBlock;
+
+    // Limiar adaptativo
+    private double signalLevel;
+    private double noiseLevel;
+    private boolean levelsInitialized;
+    private boolean toneOn;
+
+    // Níveis dos primeiros blocos, guardados até a medida do ruído de fundo
+    private final double[] warmup;
+    private int warmupCount;
+
+    // Primeiros trechos (tom, intervalo, tom...) em ms, guardados até a
+    // primeira estimativa da unidade
+    private final double[] calibration = new double[2 * CALIBRATION_MARKS - 1];
+    private int calibrationCount;
+    private double shortestRun = Double.MAX_VALUE;
+    private boolean calibrated;
+    private final double initialUnitMillis;
+
+    // Trecho atual (em blocos) e intervalos já emitidos durante um silêncio
+    private int runBlocks;
+    private boolean letterGapEmitted;
+    private boolean wordGapPending;
+
+    // Pontos, traços e estimativa de velocidade
+    private final TimingClassifier timing;
+
+    /**
+     * Cria um decodificador com blocos de 5 ms e velocidade inicial de 20 WPM
+     * @param decoder Decodificador com a árvore morse
+     * @param toneFrequency Frequência da portadora em Hz
+     * @param sampleRate Taxa de amostragem do áudio em Hz
+     * @param sink Destino do texto decodificado
+     */
+    public CwAudioDecoder(MorseDecoder decoder, float toneFrequency, float sampleRate,
+                          MorseStreamDecoder.Sink sink) {
+        this(decoder, toneFrequency, sampleRate, DEFAULT_BLOCK_MILLIS, DEFAULT_INITIAL_WPM, sink);
+    }
+
+    /**
+     * Cria um decodificador
+     * @param decoder Decodificador com a árvore morse
+     * @param toneFrequency Frequência da portadora em Hz
+     * @param sampleRate Taxa de amostragem do áudio em Hz
+     * @param blockMillis Duração de cada bloco de análise em ms (menor = mais resolução temporal)
+     * @param initialWpm Velocidade assumida até a primeira estimativa
+     * @param sink Destino do texto decodificado
+     */
+    public CwAudioDecoder(MorseDecoder decoder, float toneFrequency, float sampleRate,
+                          double blockMillis, double initialWpm, MorseStreamDecoder.Sink sink) {
+        if (toneFrequency <= 0 || toneFrequency >= sampleRate / 2) {
+            throw new IllegalArgumentException("Frequência fora da faixa: " + toneFrequency + " Hz");
+        }
+        this.stream = new MorseStreamDecoder(decoder, sink);
+        this.sampleRate = sampleRate;
+        this.blockSize = Math.max(16, (int) Math.round(sampleRate * blockMillis / 1000.0));
+        this.blockMillis = blockSize * 1000.0 / sampleRate;
+
+        double omega = 2 * Math.PI * toneFrequency / sampleRate;
+        this.cosine = Math.cos(omega);
+        this.sine = Math.sin(omega);
+        this.coefficient = 2 * cosine;
+
+        this.timing = new TimingClassifier(stream, initialWpm);
+        this.initialUnitMillis = 1200.0 / initialWpm;
+        this.warmup = new double[Math.max(1, (int) Math.round(WARMUP_MILLIS / this.blockMillis))];
+    }
+
+    /**
+     * Processa amostras normalizadas entre -1 e 1
+     * @param samples Vetor de amostras (mono)
+     * @param offset Posição inicial
+     * @param count Quantidade de amostras
+     */
+    public void process(float[] samples, int offset, int count) {
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            processSample(samples[i]);
+        }
+    }
+
+    /**
+     * Processa quadros PCM inteiros (8 ou 16 bits, com ou sem sinal, qualquer
+     * número de canais). Apenas o primeiro canal é analisado.
+     * @param pcm Bytes de áudio
+     * @param offset Posição inicial (início de um quadro)
+     * @param length Quantidade de bytes (múltiplo do tamanho do quadro)
+     * @param format Formato do áudio
+     */
+    public void process(byte[] pcm, int offset, int length, AudioFormat format) {
+        int sampleBytes = format.getSampleSizeInBits() / 8;
+        int frameSize = format.getFrameSize();
+        boolean signed = format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED;
+        boolean bigEndian = format.isBigEndian();
+        int end = offset + length - frameSize + 1;
+
+        for (int i = offset; i < end; i += frameSize) {
+            double sample;
+            if (sampleBytes == 1) {
+                int value = signed ? pcm[i] : (pcm[i] & 0xFF) - 128;
+                sample = value / 128.0;
+            } else {
+                int high = bigEndian ? pcm[i] : pcm[i + 1];
+                int low = bigEndian ? pcm[i + 1] : pcm[i];
+                int value = (high << 8) | (low & 0xFF);
+                if (!signed) {
+                    value = (value & 0xFFFF) - 32768;
+                }
+                sample = value / 32768.0;
+            }
+            processSample(sample);
+        }
+    }
+
+    /**
+     * Processa todo o conteúdo de um AudioInputStream
+     * @param audio O áudio de entrada (convertido para PCM de 16 bits se necessário)
+     * @throws IOException Se a leitura falhar
+     */
+    public void process(AudioInputStream audio) throws IOException {
+        AudioInputStream pcm = toPcm(audio);
+        AudioFormat format = pcm.getFormat();
+        if (Math.abs(format.getSampleRate() - sampleRate) > 0.5f) {
+            throw new IllegalArgumentException("Taxa de amostragem " + format.getSampleRate()
+                    + " Hz diferente da configurada (" + sampleRate + " Hz)");
+        }
+
+        int frameSize = format.getFrameSize();
+        byte[] buffer = new byte[frameSize * 4096];
+        int pending = 0;
+        int read;
+        while ((read = pcm.read(buffer, pending, buffer.length - pending)) != -1) {
+            int available = pending + read;
+            int whole = available - available % frameSize;
+            process(buffer, 0, whole, format);
+            pending = available - whole;
+            System.arraycopy(buffer, whole, buffer, 0, pending);
+        }
+    }
+
+    /**
+     * Finaliza a entrada: fecha o trecho atual e emite a última letra
+     */
+    public void finish() {
+        if (!levelsInitialized) {
+            endWarmup();
+        }
+        if (toneOn) {
+            if (calibrated) {
+                timing.mark(runBlocks * blockMillis);
+            } else {
+                addCalibrationRun(runBlocks * blockMillis);
+            }
+            toneOn = false;
+        }
+        if (!calibrated) {
+            calibrate();
+        }
+        timing.endLetter();
+        stream.finish();
+        runBlocks = 0;
+    }
+
+    /**
+     * @return Velocidade estimada em palavras por minuto (PARIS)
+     */
+    public double getEstimatedWpm() {
+        return timing.getEstimatedWpm();
+    }
+
+    /**
+     * @return Duração estimada de um ponto em milissegundos
+     */
+    public double getUnitMillis() {
+        return timing.getUnitMillis();
+    }
+
+    private void processSample(double sample) {
+        double s0 = sample + coefficient * s1 - s2;
+        s2 = s1;
+        s1 = s0;
+
+        if (++samplesInBlock == blockSize) {
+            double real = s1 - s2 * cosine;
+            double imaginary = s2 * sine;
+            double magnitude = Math.sqrt(real * real + imaginary * imaginary) / blockSize;
+            s1 = 0;
+            s2 = 0;
+            samplesInBlock = 0;
+            processBlock(magnitude);
+        }
+    }
+
+    /**
+     * Guarda os blocos do aquecimento ou, depois dele, atualiza o tom
+     */
+    private void processBlock(double magnitude) {
+        if (levelsInitialized) {
+            updateTone(magnitude);
+            return;
+        }
+        warmup[warmupCount++] = magnitude;
+        if (warmupCount == warmup.length) {
+            endWarmup();
+        }
+    }
+
+    /**
+     * Mede o ruído de fundo pelos blocos do aquecimento e os processa
+     */
+    private void endWarmup() {
+        levelsInitialized = true;
+        if (warmupCount == 0) {
+            return;
+        }
+        double[] sorted = Arrays.copyOf(warmup, warmupCount);
+        Arrays.sort(sorted);
+        noiseLevel = sorted[(int) (NOISE_PERCENTILE * (warmupCount - 1))];
+        for (int i = 0; i < warmupCount; i++) {
+            updateTone(warmup[i]);
+        }
+    }
+
+    /**
+     * Atualiza o limiar adaptativo e o estado do tom a cada bloco
+     */
+    private void updateTone(double magnitude) {
+        // O nível do sinal sobe imediatamente e decai devagar; o ruído de
+        // fundo é a média dos blocos sem tom, descendo mais rápido que sobe
+        if (magnitude > signalLevel) {
+            signalLevel = magnitude;
+        } else {
+            signalLevel += (magnitude - signalLevel) * 0.002;
+        }
+        if (!toneOn) {
+            double rate = magnitude < noiseLevel ? 0.1 : 0.02;
+            noiseLevel += (magnitude - noiseLevel) * rate;
+        }
+
+        // Histerese evita oscilar perto do limiar; sem contraste suficiente
+        // entre sinal e ruído, tudo é tratado como silêncio
+        double range = signalLevel - noiseLevel;
+        boolean contrast = signalLevel > MIN_SIGNAL_LEVEL && signalLevel > noiseLevel * MIN_SIGNAL_TO_NOISE;
+        boolean on;
+        if (!contrast) {
+            on = false;
+        } else if (toneOn) {
+            on = magnitude > noiseLevel + range * 0.35;
+        } else {
+            on = magnitude > noiseLevel + range * 0.55;
+        }
+
+        if (on != toneOn) {
+            double millis = runBlocks * blockMillis;
+            if (!calibrated) {
+                // O silêncio antes do primeiro tom não é um intervalo
+                if (toneOn || calibrationCount > 0) {
+                    addCalibrationRun(millis);
+                }
+            } else if (toneOn) {
+                timing.mark(millis);
+            } else if (wordGapPending) {
+                // O "/" só é emitido quando outra palavra começa, para não
+                // deixar um espaço sobrando no fim da mensagem
+                stream.feed('/');
+                stream.feed(' ');
+            } else if (!letterGapEmitted && timing.hasMarks()) {
+                // Intervalo entre elementos da mesma letra
+                timing.elementGap(millis);
+            }
+            toneOn = on;
+            runBlocks = 0;
+            letterGapEmitted = false;
+            wordGapPending = false;
+            if (calibrationCount == calibration.length) {
+                calibrate();
+            }
+        }
+        runBlocks++;
+
+        // Um silêncio de 7 vezes o trecho mais curto já é o fim de uma
+        // palavra: com dois tons guardados, não vale esperar mais para
+        // estimar a unidade
+        if (!calibrated && !toneOn && calibrationCount > 1 && runBlocks * blockMillis >= 7 * shortestRun) {
+            calibrate();
+        }
+        if (!calibrated) {
+            return;
+        }
+
+        // Durante o silêncio, a letra é emitida assim que o intervalo entre
+        // letras é atingido, sem esperar o próximo tom
+        if (!toneOn && timing.hasMarks()) {
+            double silence = runBlocks * blockMillis;
+            double unitMillis = timing.getUnitMillis();
+            if (!letterGapEmitted && silence >= 2 * unitMillis) {
+                timing.endLetter();
+                stream.feed(' ');
+                letterGapEmitted = true;
+            }
+            if (silence >= 5 * unitMillis) {
+                wordGapPending = true;
+            }
+        }
+    }
+
+    private void addCalibrationRun(double millis) {
+        calibration[calibrationCount++] = millis;
+        shortestRun = Math.min(shortestRun, millis);
+    }
+
+    /**
+     * Estima a unidade pelos trechos guardados e os envia, já separados em
+     * letras e palavras, ao classificador.
+     *
+     * O limiar encurta todos os tons e alonga todos os silêncios pela mesma
+     * quantidade (em áudio rápido, até um terço de unidade), então tons e
+     * silêncios não são comparados diretamente. Com pontos e traços entre
+     * os tons, a diferença entre eles (2 unidades) não tem esse desvio. Com
+     * um único tipo de tom, a razão entre o menor silêncio e o tom diz quais
+     * são, e a soma dos dois não tem o desvio. Traços com intervalos entre
+     * letras têm a mesma razão que pontos com intervalos entre elementos
+     * ("T T" e "I" mais lento); vale a segunda, mais comum no começo.
+     */
+    private void calibrate() {
+        calibrated = true;
+        if (calibrationCount == 0) {
+            return;
+        }
+
+        double unit = initialUnitMillis;
+        if (calibrationCount > 1) {
+            // Trechos em posição par são tons; os ímpares, os silêncios entre eles
+            double shortestMark = Double.MAX_VALUE;
+            double longestMark = 0;
+            double shortestGap = Double.MAX_VALUE;
+            for (int i = 0; i < calibrationCount; i++) {
+                if (i % 2 == 0) {
+                    shortestMark = Math.min(shortestMark, calibration[i]);
+                    longestMark = Math.max(longestMark, calibration[i]);
+                } else {
+                    shortestGap = Math.min(shortestGap, calibration[i]);
+                }
+            }
+
+            // 2-means sobre os tons, como no TimingClassifier
+            double dots = shortestMark;
+            double dashes = longestMark;
+            double threshold = Math.sqrt(dots * dashes);
+            for (int iteration = 0; iteration < 4 && dashes >= 1.5 * dots; iteration++) {
+                double dotSum = 0;
+                double dashSum = 0;
+                int dotCount = 0;
+                int dashCount = 0;
+                for (int i = 0; i < calibrationCount; i += 2) {
+                    if (calibration[i] < threshold) {
+                        dotSum += calibration[i];
+                        dotCount++;
+                    } else {
+                        dashSum += calibration[i];
+                        dashCount++;
+                    }
+                }
+                if (dotCount == 0 || dashCount == 0) {
+                    break;
+                }
+                dots = dotSum / dotCount;
+                dashes = dashSum / dashCount;
+                threshold = Math.sqrt(dots * dashes);
+            }
+
+            if (dashes >= 2 * dots) {
+                unit = (dashes - dots) / 2;
+            } else {
+                double markSum = 0;
+                double gapSum = 0;
+                int gapCount = 0;
+                for (int i = 0; i < calibrationCount; i++) {
+                    if (i % 2 == 0) {
+                        markSum += calibration[i];
+                    } else if (calibration[i] < 2 * shortestGap) {
+                        gapSum += calibration[i];
+                        gapCount++;
+                    }
+                }
+                double mark = markSum / ((calibrationCount + 1) / 2);
+                double gap = gapSum / gapCount;
+                double ratio = gap / mark;
+                if (ratio < 0.75) {
+                    unit = (mark + gap) / 4;  // Traço + intervalo entre elementos
+                } else if (ratio < 2.5) {
+                    unit = (mark + gap) / 2;  // Ponto + intervalo entre elementos
+                } else if (ratio < 6) {
+                    unit = (mark + gap) / 4;  // Ponto + intervalo entre letras
+                } else {
+                    unit = (mark + gap) / 8;  // Ponto + intervalo entre palavras
+                }
+            }
+            timing.setUnitMillis(unit);
+        }
+
+        for (int i = 0; i < calibrationCount; i++) {
+            double millis = calibration[i];
+            if (i % 2 == 0) {
+                timing.mark(millis);
+            } else if (millis < 2 * unit) {
+                timing.elementGap(millis);
+            } else {
+                timing.endLetter();
+                stream.feed(' ');
+                if (millis >= 5 * unit) {
+                    stream.feed('/');
+                    stream.feed(' ');
+                }
+            }
+        }
+        calibrationCount = 0;
+    }
+
+    /**
+     * Converte o áudio para PCM linear de 16 bits, se necessário
+     */
+    private static AudioInputStream toPcm(AudioInputStream audio) {
+        AudioFormat format = audio.getFormat();
+        boolean linear = format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+                || format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED;
+        if (linear && (format.getSampleSizeInBits() == 8 || format.getSampleSizeInBits() == 16)) {
+            return audio;
+        }
+        AudioFormat target = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+        return AudioSystem.getAudioInputStream(target, audio);
+    }
+
+    /**
+     * Transcreve um arquivo de áudio (WAV, AIFF, AU) inteiro
+     * @param file O arquivo de áudio
+     * @param decoder Decodificador com a árvore morse
+     * @param toneFrequency Frequência da portadora em Hz
+     * @return O texto decodificado
+     * @throws IOException Se a leitura falhar
+     * @throws UnsupportedAudioFileException Se o formato do arquivo não for suportado
+     */
+    public static String transcribe(File file, MorseDecoder decoder, float toneFrequency)
+            throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream audio = AudioSystem.getAudioInputStream(file)) {
+            return transcribe(audio, decoder, toneFrequency);
+        }
+    }
+
+    /**
+     * Transcreve todo o conteúdo de um AudioInputStream
+     * @param audio O áudio de entrada
+     * @param decoder Decodificador com a árvore morse
+     * @param toneFrequency Frequência da portadora em Hz
+     * @return O texto decodificado
+     * @throws IOException Se a leitura falhar
+     */
+    public static String transcribe(AudioInputStream audio, MorseDecoder decoder, float toneFrequency)
+            throws IOException {
+        StringBuilder text = new StringBuilder();
+        CwAudioDecoder cw = new CwAudioDecoder(decoder, toneFrequency, audio.getFormat().getSampleRate(),
+                text::append);
+        cw.process(audio);
+        cw.finish();
+        return text.toString();
+    }
+}
@@ -0,0 +1,113 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Verificação de ida e volta do áudio CW, sem interface gráfica: cada
+ * mensagem é gerada pelo {@link MorseAudioRenderer} e transcrita de volta
+ * pelo {@link CwAudioDecoder}, passando por um AudioInputStream como um
+ * arquivo WAV passaria.
+ *
+ * Cada mensagem é conferida de 12 a 80 WPM, em duas taxas de amostragem,
+ * começando direto no primeiro tom e depois de 7 unidades de silêncio. A
+ * transcrição precisa ser idêntica ao texto e a velocidade estimada não
+ * pode se afastar mais de {@value #MAX_WPM_ERROR} da real.
+ *
+ * Uso: {@code java CwRoundTripCheck [tabela]} (padrão: tabela
+ * internacional). Termina com código 1 se houver qualquer divergência.
+ */
+public class CwRoundTripCheck {
+    private static final String[] MESSAGES = {
+            "THE QUICK BROWN FOX",
+            "PARIS PARIS",
+            "CQ CQ DE PY2ABC",
+            "SOS SOS",
+            "HELLO WORLD 73",
+            "I AM HERE",
+    };
+    private static final double[] SPEEDS = {12, 20, 30, 40, 60, 80};
+    private static final float[] SAMPLE_RATES = {8000f, 44100f};
+    private static final int[] LEAD_IN_UNITS = {0, 7};
+    private static final float FREQUENCY = 700f;
+    // Erro relativo máximo da velocidade estimada
+    private static final double MAX_WPM_ERROR = 0.1;
+
+    private final MorseDecoder decoder;
+    private final List<String> failures = new ArrayList<>();
+    private int checked;
+
+    /**
+     * @param tableName A tabela de códigos
+     */
+    public CwRoundTripCheck(String tableName) {
+        this.decoder = MorseDecoder.forTable(tableName);
+    }
+
+    /**
+     * Gera e transcreve uma mensagem, anotando qualquer diferença
+     */
+    void check(String message, double wpm, float sampleRate, int leadInUnits) throws IOException {
+        checked++;
+        String morse = decoder.encodeText(message);
+        String expected = decoder.decodeMorse(morse);
+        MorseAudioRenderer renderer = new MorseAudioRenderer(morse, wpm, FREQUENCY, sampleRate);
+        AudioFormat format = renderer.getFormat();
+
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+        long leadInFrames = Math.round(leadInUnits * 1.2 / wpm * sampleRate);
+        pcm.write(new byte[(int) leadInFrames * format.getFrameSize()]);
+        byte[] buffer = new byte[8192];
+        int rendered;
+        while ((rendered = renderer.render(buffer, 0, buffer.length)) != -1) {
+            pcm.write(buffer, 0, rendered);
+        }
+
+        byte[] bytes = pcm.toByteArray();
+        StringBuilder text = new StringBuilder();
+        CwAudioDecoder cw = new CwAudioDecoder(decoder, FREQUENCY, sampleRate, text::append);
+        try (AudioInputStream audio = new AudioInputStream(new ByteArrayInputStream(bytes), format,
+                bytes.length / format.getFrameSize())) {
+            cw.process(audio);
+        }
+        cw.finish();
+
+        String transcribed = text.toString().trim();
+        double wpmError = Math.abs(cw.getEstimatedWpm() - wpm) / wpm;
+        if (!transcribed.equals(expected) || wpmError > MAX_WPM_ERROR) {
+            failures.add(String.format(Locale.ROOT, "%.0f WPM, %.0f Hz, %d unidades de silêncio: esperado [%s], "
+                            + "obtido [%s], %.1f WPM estimados", wpm, sampleRate, leadInUnits, expected,
+                    transcribed.replace(MorseDecoder.UNKNOWN, '?'), cw.getEstimatedWpm()));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        String tableName = args.length > 0 ? args[0] : MorseCodeTable.DEFAULT;
+
+        CwRoundTripCheck check = new CwRoundTripCheck(tableName);
+        for (String message : MESSAGES) {
+            for (double wpm : SPEEDS) {
+                for (float sampleRate : SAMPLE_RATES) {
+                    for (int leadIn : LEAD_IN_UNITS) {
+                        check.check(message, wpm, sampleRate, leadIn);
+                    }
+                }
+            }
+        }
+
+        for (String failure : check.failures) {
+            System.out.println("Divergência: " + failure);
+        }
+        System.out.println("Tabela: " + tableName + " | Transcrições: " + check.checked
+                + " | Divergências: " + check.failures.size());
+        boolean ok = check.failures.isEmpty();
+        System.out.println(ok ? "OK: áudio gerado e transcrito de volta sem diferenças"
+                : "FALHA: a transcrição do áudio gerado diverge do texto");
+        System.exit(ok ? 0 : 1);
+    }
+}
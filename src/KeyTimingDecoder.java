@@ -0,0 +1,381 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Decodificador de manipulação em tempo real: transforma os instantes em que
+ * a chave (ou a barra de espaço) é pressionada e solta em texto.
+ *
+ * Cada toque vira um tom com a duração entre {@link #keyDown(long)} e
+ * {@link #keyUp(long)}; o {@link TimingClassifier} separa pontos de traços e
+ * acompanha a velocidade de quem manipula, que costuma variar ao longo da
+ * mensagem. As pausas são classificadas pela mesma unidade: separam
+ * elementos da letra (1 unidade), letras (3) ou palavras (7), com as
+ * fronteiras nas médias geométricas, que toleram melhor o erro relativo de
+ * quem manipula do que as médias simples.
+ *
+ * A letra é emitida por {@link #poll(long)} assim que a pausa passa de
+ * √3 ≈ 1,7 unidade, sem esperar o próximo toque: a latência fica abaixo do
+ * intervalo entre letras (3 unidades). Sem chamadas a {@code poll}, como na
+ * reprodução de um registro, as letras saem no toque seguinte e o texto é o
+ * mesmo.
+ *
+ * Os instantes são em nanossegundos ({@link System#nanoTime()}) e só as
+ * diferenças importam. Instâncias não são thread-safe: a interface chama
+ * tudo na thread de eventos.
+ */
+public class KeyTimingDecoder {
+    // Velocidade assumida antes da primeira estimativa
+    private static final double DEFAULT_INITIAL_WPM = 20.0;
+
+    // Pausas (em unidades) que encerram a letra e a palavra: √(1 × 3) e √(3 × 7)
+    private static final double LETTER_GAP_UNITS = Math.sqrt(3);
+    private static final double WORD_GAP_UNITS = Math.sqrt(21);
+
+    // Primeira linha dos registros gravados
+    static final String LOG_HEADER = "# morse: instantes (ns) em que a chave foi pressionada e solta";
+
+    private final MorseStreamDecoder stream;
+    private final TimingClassifier timing;
+
+    // Estado da chave
+    private boolean down;
+    private long downNanos;
+    private long upNanos;
+
+    // Intervalos já emitidos durante a pausa atual
+    private boolean letterGapEmitted;
+    private boolean wordGapPending;
+
+    /**
+     * Cria um decodificador com velocidade inicial de 20 WPM
+     * @param decoder Decodificador com a árvore morse
+     * @param sink Destino do texto decodificado
+     */
+    public KeyTimingDecoder(MorseDecoder decoder, MorseStreamDecoder.Sink sink) {
+        this(decoder, DEFAULT_INITIAL_WPM, sink);
+    }
+
+    /**
+     * Cria um decodificador
+     * @param decoder Decodificador com a árvore morse
+     * @param initialWpm Velocidade assumida até a primeira estimativa
+     * @param sink Destino do texto decodificado
+     */
+    public KeyTimingDecoder(MorseDecoder decoder, double initialWpm, MorseStreamDecoder.Sink sink) {
+        if (initialWpm <= 0) {
+            throw new IllegalArgumentException("Velocidade inválida: " + initialWpm + " WPM");
+        }
+        this.stream = new MorseStreamDecoder(decoder, sink);
+        this.timing = new TimingClassifier(stream, initialWpm);
+    }
+
+    /**
+     * A chave foi pressionada. Repetições sem {@link #keyUp(long)} entre elas
+     * (repetição automática do teclado) são ignoradas.
+     * @param nanos Instante do evento
+     */
+    public void keyDown(long nanos) {
+        if (down) {
+            return;
+        }
+        if (timing.hasMarks()) {
+            // Fecha a letra caso poll não tenha sido chamado durante a pausa
+            poll(nanos);
+            if (wordGapPending) {
+                // O "/" só é emitido quando outra palavra começa, para não
+                // deixar um espaço sobrando no fim da mensagem
+                stream.feed('/');
+                stream.feed(' ');
+            } else if (!letterGapEmitted) {
+                // Intervalo entre elementos da mesma letra
+                timing.elementGap(millis(nanos - upNanos));
+            }
+        }
+        down = true;
+        downNanos = nanos;
+        letterGapEmitted = false;
+        wordGapPending = false;
+    }
+
+    /**
+     * A chave foi solta
+     * @param nanos Instante do evento
+     */
+    public void keyUp(long nanos) {
+        if (!down) {
+            return;
+        }
+        down = false;
+        upNanos = nanos;
+        timing.mark(millis(nanos - downNanos));
+    }
+
+    /**
+     * Verifica a pausa até o instante informado e emite a letra se ela já
+     * terminou. Deve ser chamado periodicamente enquanto a chave está solta;
+     * a cada 10 ms a latência extra é desprezível.
+     * @param nanos Instante atual
+     */
+    public void poll(long nanos) {
+        if (down || !timing.hasMarks()) {
+            return;
+        }
+        double silence = millis(nanos - upNanos);
+        double unitMillis = timing.getUnitMillis();
+        if (!letterGapEmitted && silence >= LETTER_GAP_UNITS * unitMillis) {
+            timing.endLetter();
+            stream.feed(' ');
+            letterGapEmitted = true;
+        }
+        if (silence >= WORD_GAP_UNITS * unitMillis) {
+            wordGapPending = true;
+        }
+    }
+
+    /**
+     * Finaliza a entrada, emitindo a letra pendente. Um toque ainda em
+     * andamento é descartado.
+     */
+    public void finish() {
+        down = false;
+        timing.endLetter();
+        stream.finish();
+        letterGapEmitted = true;
+        wordGapPending = false;
+    }
+
+    /**
+     * @return Se a chave está pressionada
+     */
+    public boolean isKeyDown() {
+        return down;
+    }
+
+    /**
+     * @return Velocidade estimada em palavras por minuto (PARIS)
+     */
+    public double getEstimatedWpm() {
+        return timing.getEstimatedWpm();
+    }
+
+    /**
+     * @return Duração estimada de um ponto em milissegundos
+     */
+    public double getUnitMillis() {
+        return timing.getUnitMillis();
+    }
+
+    /**
+     * Reproduz um registro gravado (uma linha "pressionada solta" por toque,
+     * em nanossegundos; linhas vazias e iniciadas por # são ignoradas) e
+     * finaliza a entrada
+     * @param log O registro
+     * @throws IOException Se a leitura falhar
+     */
+    public void replay(BufferedReader log) throws IOException {
+        String line;
+        int lineNumber = 0;
+        long lastReleased = Long.MIN_VALUE;
+        while ((line = log.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            long pressed;
+            long released;
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException();
+                }
+                pressed = Long.parseLong(parts[0]);
+                released = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Linha " + lineNumber + ": esperado '<pressionada> <solta>'");
+            }
+            if (released <= pressed) {
+                throw new IllegalArgumentException("Linha " + lineNumber
+                        + (released == pressed ? ": toque sem duração" : ": chave solta antes de pressionada"));
+            }
+            if (lastReleased != Long.MIN_VALUE && pressed < lastReleased) {
+                throw new IllegalArgumentException("Linha " + lineNumber + ": toque começa antes do fim do anterior");
+            }
+            lastReleased = released;
+            keyDown(pressed);
+            keyUp(released);
+        }
+        finish();
+    }
+
+    /**
+     * Grava um toque no formato lido por {@link #replay(BufferedReader)}
+     * @param log Destino
+     * @param pressed Instante em que a chave foi pressionada
+     * @param released Instante em que a chave foi solta
+     * @throws IOException Se a escrita falhar
+     */
+    static void writeEvent(Writer log, long pressed, long released) throws IOException {
+        log.write(pressed + " " + released + "\n");
+    }
+
+    /**
+     * Gera os toques de uma mensagem morse como uma pessoa manipulando: a
+     * velocidade muda aos poucos de {@code wpm} para {@code endWpm} e cada
+     * duração recebe um erro aleatório
+     * @param morse A mensagem (pontos, traços, espaço entre letras e "/" entre palavras)
+     * @param wpm Velocidade no início
+     * @param endWpm Velocidade no fim
+     * @param jitter Desvio padrão relativo de cada duração (0,1 = 10%)
+     * @param seed Semente do gerador
+     * @return Instantes em pares: pressionada, solta, pressionada, solta...
+     */
+    public static long[] synthesize(CharSequence morse, double wpm, double endWpm, double jitter, long seed) {
+        Random random = new Random(seed);
+        int marks = 0;
+        for (int i = 0; i < morse.length(); i++) {
+            char c = morse.charAt(i);
+            if (c == '.' || c == '-') {
+                marks++;
+            }
+        }
+
+        long[] events = new long[2 * marks];
+        double now = 1e9;  // Começa em 1 s para os instantes ficarem positivos
+        int pendingGap = 0;
+        int mark = 0;
+        for (int i = 0; i < morse.length(); i++) {
+            char c = morse.charAt(i);
+            if (c == ' ') {
+                pendingGap = Math.max(pendingGap, 3);
+            } else if (c == '/') {
+                pendingGap = 7;
+            } else if (c == '.' || c == '-') {
+                double progress = marks > 1 ? (double) mark / (marks - 1) : 0;
+                double unitNanos = 1.2e9 / (wpm + (endWpm - wpm) * progress);
+                if (mark > 0) {
+                    now += vary(random, Math.max(pendingGap, 1) * unitNanos, jitter);
+                }
+                events[2 * mark] = (long) now;
+                now += vary(random, (c == '.' ? 1 : 3) * unitNanos, jitter);
+                events[2 * mark + 1] = (long) now;
+                mark++;
+                pendingGap = 0;
+            }
+        }
+        return events;
+    }
+
+    private static double vary(Random random, double nanos, double jitter) {
+        return nanos * Math.max(0.2, 1 + jitter * random.nextGaussian());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Decodifica um registro gravado, ou uma mensagem sintética com
+     * variação de tempo, sem interface gráfica.
+     *
+     * Uso:
+     * <pre>
+     * KeyTimingDecoder &lt;registro&gt; [tabela]
+     * KeyTimingDecoder --synthetic &lt;texto&gt; [wpm] [wpm final] [variação]
+     * </pre>
+     * No modo sintético a pausa é verificada a cada 5 ms, como na
+     * interface, e a saída mostra a latência das letras. O código de saída
+     * é 1 se o texto decodificado for diferente do esperado.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length >= 2 && args[0].equals("--synthetic")) {
+            synthetic(args);
+            return;
+        }
+        if (args.length < 1 || args.length > 2 || args[0].startsWith("--")) {
+            System.err.println("Uso: KeyTimingDecoder <registro> [tabela]");
+            System.err.println("     KeyTimingDecoder --synthetic <texto> [wpm] [wpm final] [variação]");
+            System.exit(2);
+            return;
+        }
+
+        Path log = Paths.get(args[0]);
+        MorseDecoder decoder = MorseDecoder.forTable(args.length > 1 ? args[1] : MorseCodeTable.DEFAULT);
+        StringBuilder text = new StringBuilder();
+        KeyTimingDecoder keys = new KeyTimingDecoder(decoder, text::append);
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            keys.replay(reader);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler " + log + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (IllegalArgumentException e) {
+            System.err.println(log + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        System.out.println(text);
+        System.out.printf(Locale.ROOT, "Velocidade estimada: %.1f WPM%n", keys.getEstimatedWpm());
+    }
+
+    private static void synthetic(String[] args) {
+        String message = args[1];
+        double wpm = args.length > 2 ? Double.parseDouble(args[2]) : 18;
+        double endWpm = args.length > 3 ? Double.parseDouble(args[3]) : wpm;
+        double jitter = args.length > 4 ? Double.parseDouble(args[4]) : 0.1;
+
+        MorseDecoder decoder = MorseDecoder.forTable(MorseCodeTable.DEFAULT);
+        String morse = decoder.encodeText(message);
+        String expected = decoder.decodeMorse(morse);
+        long[] events = synthesize(morse, wpm, endWpm, jitter, 42);
+
+        // Relógio simulado: a pausa é verificada a cada 5 ms
+        long pollNanos = 5_000_000;
+        long[] clock = new long[1];
+        long[] lastRelease = new long[1];
+        double[] worstLatency = new double[1];
+        StringBuilder text = new StringBuilder();
+        KeyTimingDecoder keys = new KeyTimingDecoder(decoder, c -> {
+            text.append(c);
+            if (c != ' ') {
+                worstLatency[0] = Math.max(worstLatency[0], millis(clock[0] - lastRelease[0]));
+            }
+        });
+        for (int i = 0; i < events.length; i += 2) {
+            for (long t = lastRelease[0] + pollNanos; i > 0 && t < events[i]; t += pollNanos) {
+                clock[0] = t;
+                keys.poll(t);
+            }
+            clock[0] = events[i];
+            keys.keyDown(events[i]);
+            clock[0] = events[i + 1];
+            keys.keyUp(events[i + 1]);
+            lastRelease[0] = events[i + 1];
+        }
+        // Pausa final de 3 unidades, o bastante para a última letra sair por poll
+        long tail = (long) (3 * 1.2e9 / Math.min(wpm, endWpm));
+        for (long t = lastRelease[0] + pollNanos; t <= lastRelease[0] + tail; t += pollNanos) {
+            clock[0] = t;
+            keys.poll(t);
+        }
+        keys.finish();
+
+        String decoded = text.toString().trim();
+        double unitMillis = 1200 / endWpm;
+        System.out.println("Esperado:     " + expected);
+        System.out.println("Decodificado: " + decoded);
+        System.out.printf(Locale.ROOT, "Velocidade: %.1f → %.1f WPM, estimada no fim: %.1f WPM%n",
+                wpm, endWpm, keys.getEstimatedWpm());
+        System.out.printf(Locale.ROOT, "Maior latência de letra: %.0f ms (intervalo entre letras: %.0f ms no fim)%n",
+                worstLatency[0], 3 * unitMillis);
+        System.exit(decoded.equals(expected) ? 0 : 1);
+    }
+}
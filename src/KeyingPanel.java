@@ -0,0 +1,320 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Painel para manipular morse na barra de espaço: cada toque vai para um
+ * {@link KeyTimingDecoder} e o texto aparece enquanto se manipula.
+ *
+ * Os toques da sessão ficam guardados e podem ser salvos em um registro,
+ * que depois é reproduzido (aqui ou com {@code KeyTimingDecoder <registro>}).
+ *
+ * Com "Tom lateral" marcado, um {@link SidetoneKeyer} toca o tom enquanto a
+ * barra está pressionada; ele só fica aberto com o painel na tela.
+ */
+public class KeyingPanel extends JPanel {
+    // Intervalo de verificação da pausa: a letra sai no máximo 10 ms depois do limiar
+    private static final int POLL_MILLIS = 10;
+    // Espera antes de tratar uma soltura: a repetição automática do teclado em
+    // alguns sistemas gera pares soltar/pressionar quase simultâneos
+    private static final int RELEASE_DELAY_MILLIS = 15;
+
+    private static final Color KEY_UP = new Color(230, 230, 230);
+    private static final Color KEY_DOWN = new Color(60, 120, 200);
+
+    private MorseDecoder decoder;
+    private KeyTimingDecoder keys;
+
+    private final JLabel keyPad = new JLabel("Clique aqui e manipule com a barra de espaço", SwingConstants.CENTER);
+    private final JTextArea outputArea = new JTextArea(6, 20);
+    private final JLabel speedLabel = new JLabel(" ");
+    private final JSpinner initialWpmSpinner = new JSpinner(new SpinnerNumberModel(20, 5, 60, 1));
+    private final JCheckBox sidetoneCheckBox = new JCheckBox("Tom lateral");
+    private final JLabel sidetoneLabel = new JLabel(" ");
+    private SidetoneKeyer sidetone;
+
+    // Toques da sessão atual, em pares pressionada/solta
+    private long[] events = new long[256];
+    private int eventCount;
+    private long pressedNanos;
+    private long releasedNanos;
+
+    private final Timer pollTimer = new Timer(POLL_MILLIS, e -> poll());
+    private final Timer releaseTimer = new Timer(RELEASE_DELAY_MILLIS, e -> release());
+
+    /**
+     * @param decoder Decodificador com a árvore morse
+     */
+    public KeyingPanel(MorseDecoder decoder) {
+        super(new BorderLayout(5, 5));
+        setBorder(new EmptyBorder(5, 5, 5, 5));
+        this.decoder = decoder;
+        releaseTimer.setRepeats(false);
+
+        keyPad.setOpaque(true);
+        keyPad.setBackground(KEY_UP);
+        keyPad.setFocusable(true);
+        keyPad.setPreferredSize(new Dimension(200, 60));
+        keyPad.setBorder(new LineBorder(Color.GRAY));
+        keyPad.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                keyPad.requestFocusInWindow();
+            }
+        });
+        keyPad.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                keyPad.setBorder(new LineBorder(KEY_DOWN, 2));
+            }
+
+            @Override
+            public void focusLost(FocusEvent e) {
+                keyPad.setBorder(new LineBorder(Color.GRAY));
+                // Soltar fora do painel não gera evento: considera a chave solta
+                if (sidetone != null) {
+                    sidetone.setKeyDown(false);
+                }
+                if (keys.isKeyDown() || releaseTimer.isRunning()) {
+                    releaseTimer.stop();
+                    releasedNanos = System.nanoTime();
+                    release();
+                }
+            }
+        });
+        keyPad.getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke("pressed SPACE"), "keyDown");
+        keyPad.getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke("released SPACE"), "keyUp");
+        keyPad.getActionMap().put("keyDown", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                press();
+            }
+        });
+        keyPad.getActionMap().put("keyUp", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                releasedNanos = System.nanoTime();
+                // O tom para na hora; só a decodificação espera a repetição automática
+                if (sidetone != null) {
+                    sidetone.setKeyDown(false, releasedNanos);
+                }
+                releaseTimer.restart();
+            }
+        });
+        add(keyPad, BorderLayout.NORTH);
+
+        outputArea.setEditable(false);
+        outputArea.setLineWrap(true);
+        add(new JScrollPane(outputArea), BorderLayout.CENTER);
+
+        JButton clearButton = new JButton("Limpar");
+        clearButton.addActionListener(e -> reset());
+        JButton saveButton = new JButton("Salvar registro");
+        saveButton.addActionListener(e -> saveLog());
+        JButton replayButton = new JButton("Reproduzir registro");
+        replayButton.addActionListener(e -> replayLog());
+
+        JPanel speedPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        speedPanel.add(new JLabel("Velocidade inicial (WPM):"));
+        speedPanel.add(initialWpmSpinner);
+        speedPanel.add(speedLabel);
+        sidetoneCheckBox.addActionListener(e -> updateSidetone());
+        speedPanel.add(sidetoneCheckBox);
+        speedPanel.add(sidetoneLabel);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        buttonPanel.add(clearButton);
+        buttonPanel.add(saveButton);
+        buttonPanel.add(replayButton);
+        JPanel southPanel = new JPanel(new GridLayout(2, 1, 0, 5));
+        southPanel.add(speedPanel);
+        southPanel.add(buttonPanel);
+        add(southPanel, BorderLayout.SOUTH);
+
+        reset();
+    }
+
+    /**
+     * Troca a tabela usada e recomeça a sessão
+     * @param decoder Decodificador com a nova árvore morse
+     */
+    public void setDecoder(MorseDecoder decoder) {
+        this.decoder = decoder;
+        reset();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        pollTimer.start();
+        updateSidetone();
+    }
+
+    @Override
+    public void removeNotify() {
+        pollTimer.stop();
+        releaseTimer.stop();
+        closeSidetone();
+        super.removeNotify();
+    }
+
+    /**
+     * Recomeça a sessão: limpa o texto e os toques guardados
+     */
+    private void reset() {
+        releaseTimer.stop();
+        keys = newKeyTimingDecoder();
+        eventCount = 0;
+        outputArea.setText("");
+        keyPad.setBackground(KEY_UP);
+        updateSpeed();
+    }
+
+    private KeyTimingDecoder newKeyTimingDecoder() {
+        int initialWpm = (Integer) initialWpmSpinner.getValue();
+        return new KeyTimingDecoder(decoder, initialWpm, this::append);
+    }
+
+    private void press() {
+        long now = System.nanoTime();
+        if (sidetone != null) {
+            sidetone.setKeyDown(true, now);
+        }
+        if (releaseTimer.isRunning()) {
+            // Soltura seguida de novo toque imediato: repetição automática, a chave continua pressionada
+            releaseTimer.stop();
+            return;
+        }
+        if (keys.isKeyDown()) {
+            return;
+        }
+        pressedNanos = now;
+        keys.keyDown(pressedNanos);
+        keyPad.setBackground(KEY_DOWN);
+    }
+
+    private void release() {
+        if (!keys.isKeyDown()) {
+            return;
+        }
+        keys.keyUp(releasedNanos);
+        keyPad.setBackground(KEY_UP);
+        if (eventCount == events.length) {
+            events = Arrays.copyOf(events, 2 * events.length);
+        }
+        events[eventCount++] = pressedNanos;
+        events[eventCount++] = releasedNanos;
+        updateSpeed();
+    }
+
+    private void poll() {
+        if (isShowing()) {
+            keys.poll(System.nanoTime());
+        }
+    }
+
+    private void append(char c) {
+        if (MorseCodeTable.isProsign(c)) {
+            outputArea.append(MorseCodeTable.label(c));
+        } else if (c == MorseDecoder.UNKNOWN) {
+            outputArea.append(String.valueOf(TolerantDecoder.REPLACEMENT));
+        } else {
+            outputArea.append(String.valueOf(c));
+        }
+    }
+
+    private void updateSpeed() {
+        speedLabel.setText(eventCount == 0 ? " "
+                : String.format(Locale.ROOT, "estimada: %.1f WPM", keys.getEstimatedWpm()));
+        if (sidetone != null && sidetone.getLatencyCount() > 0) {
+            sidetoneLabel.setText(String.format(Locale.ROOT, "atraso %.0f ms (máx %.0f), %d underruns",
+                    sidetone.getLastLatencyMillis(), sidetone.getMaxLatencyMillis(), sidetone.getUnderrunCount()));
+        }
+    }
+
+    /**
+     * Abre ou fecha o tom lateral conforme a caixa e a presença na tela
+     */
+    private void updateSidetone() {
+        if (!sidetoneCheckBox.isSelected() || !isDisplayable()) {
+            closeSidetone();
+            return;
+        }
+        if (sidetone == null) {
+            sidetone = SidetoneKeyer.startDefault(SidetoneKeyer.DEFAULT_FREQUENCY, SidetoneKeyer.DEFAULT_BUFFER_MILLIS);
+            sidetoneLabel.setText(String.format(Locale.ROOT, "%s, buffer de %.0f ms",
+                    sidetone.getSinkName(), sidetone.getBufferMillis()));
+        }
+    }
+
+    private void closeSidetone() {
+        if (sidetone == null) {
+            return;
+        }
+        try {
+            sidetone.close();
+        } catch (IOException e) {
+            // A saída da placa de som não grava nada ao fechar
+        }
+        sidetone = null;
+        sidetoneLabel.setText(" ");
+    }
+
+    private void saveLog() {
+        if (eventCount == 0) {
+            JOptionPane.showMessageDialog(this, "Nenhum toque registrado nesta sessão.",
+                    "Registro vazio", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        Path path = chooser.getSelectedFile().toPath();
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(KeyTimingDecoder.LOG_HEADER + "\n");
+            for (int i = 0; i < eventCount; i += 2) {
+                KeyTimingDecoder.writeEvent(writer, events[i], events[i + 1]);
+            }
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Não foi possível gravar o registro: " + e.getMessage(),
+                    "Erro de Gravação", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void replayLog() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        Path path = chooser.getSelectedFile().toPath();
+        reset();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            keys.replay(reader);
+            speedLabel.setText(String.format(Locale.ROOT, "estimada: %.1f WPM", keys.getEstimatedWpm()));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Não foi possível ler o registro: " + e.getMessage(),
+                    "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Registro inválido. " + e.getMessage(),
+                    "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
+        }
+        // A reprodução já finalizou a entrada; novos toques começam outra sessão
+        keys = newKeyTimingDecoder();
+    }
+}
@@ -1,10 +1,38 @@
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
+import java.util.Arrays;
 
 
 public class Main {
 
     public static void main(String[] args) {
+        // Métricas via JMX em todos os modos (ver MorseMetrics)
+        MorseMetrics.register();
+
+        // Modo em lote: processa diretórios sem abrir a interface gráfica
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchProcessor.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Modo servidor: serviço HTTP de codificação/decodificação, sem interface gráfica
+        if (args.length > 0 && args[0].equals("--server")) {
+            MorseHttpServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Reprodução de um registro de manipulação (ver KeyTimingDecoder)
+        if (args.length > 0 && args[0].equals("--keys")) {
+            KeyTimingDecoder.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Tom lateral com toques sintéticos, sem interface gráfica (ver SidetoneKeyer)
+        if (args.length > 0 && args[0].equals("--sidetone")) {
+            SidetoneKeyer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
@@ -0,0 +1,119 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.util.Locale;
+
+/**
+ * Painel com as {@link MorseMetrics} do processo, atualizado duas vezes por
+ * segundo enquanto estiver visível (o Timer só roda com o painel na tela).
+ */
+public class MetricsPanel extends JPanel {
+    private static final int REFRESH_MILLIS = 500;
+
+    private final MorseMetrics metrics = MorseMetrics.getInstance();
+    // Em uma aba escondida o painel continua na hierarquia, mas não é atualizado
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> {
+        if (isShowing()) {
+            refresh();
+        }
+    });
+
+    private final JLabel encodedLabel = new JLabel();
+    private final JLabel decodedLabel = new JLabel();
+    private final JLabel unknownLabel = new JLabel();
+    private final JLabel inputLabel = new JLabel();
+    private final JLabel encodeLatencyLabel = new JLabel();
+    private final JLabel decodeLatencyLabel = new JLabel();
+    private final JLabel frameLabel = new JLabel();
+    private final JLabel sidetoneLabel = new JLabel();
+    private final JLabel underrunLabel = new JLabel();
+
+    // Para calcular a vazão entre duas atualizações
+    private long lastInput;
+    private long lastNanos = System.nanoTime();
+
+    public MetricsPanel() {
+        super(new BorderLayout());
+        setBorder(new EmptyBorder(5, 5, 5, 5));
+
+        if (!MorseMetrics.ENABLED) {
+            add(new JLabel("Métricas desligadas (-Dmorse.metrics=false)"), BorderLayout.NORTH);
+            return;
+        }
+
+        JPanel rows = new JPanel(new GridBagLayout());
+        addRow(rows, "Codificados:", encodedLabel);
+        addRow(rows, "Decodificados:", decodedLabel);
+        addRow(rows, "Desconhecidos:", unknownLabel);
+        addRow(rows, "Entrada:", inputLabel);
+        addRow(rows, "Codificação:", encodeLatencyLabel);
+        addRow(rows, "Decodificação:", decodeLatencyLabel);
+        addRow(rows, "Quadros:", frameLabel);
+        addRow(rows, "Tom lateral:", sidetoneLabel);
+        addRow(rows, "Áudio:", underrunLabel);
+        add(rows, BorderLayout.NORTH);
+
+        JButton resetButton = new JButton("Zerar");
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            lastInput = 0;
+            refresh();
+        });
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(new JLabel("JMX: " + MorseMetrics.OBJECT_NAME));
+        buttonPanel.add(resetButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        refresh();
+    }
+
+    private static void addRow(JPanel rows, String name, JLabel value) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridy = rows.getComponentCount() / 2;
+        c.anchor = GridBagConstraints.WEST;
+        c.insets = new Insets(2, 0, 2, 10);
+        rows.add(new JLabel(name), c);
+
+        c.gridx = 1;
+        c.weightx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.insets = new Insets(2, 0, 2, 0);
+        rows.add(value, c);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (MorseMetrics.ENABLED) {
+            refreshTimer.start();
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Lê os contadores e atualiza os rótulos (na thread de eventos)
+     */
+    private void refresh() {
+        long now = System.nanoTime();
+        long input = metrics.getInputProcessed();
+        double rate = (input - lastInput) / ((now - lastNanos) / 1e9);
+        lastInput = input;
+        lastNanos = now;
+
+        encodedLabel.setText(String.format(Locale.ROOT, "%,d caracteres (%,d sem código)",
+                metrics.getCharactersEncoded(), metrics.getUnencodableCharacters()));
+        decodedLabel.setText(String.format(Locale.ROOT, "%,d caracteres", metrics.getCharactersDecoded()));
+        unknownLabel.setText(String.format(Locale.ROOT, "%,d sequências", metrics.getUnknownSequences()));
+        inputLabel.setText(String.format(Locale.ROOT, "%,d caracteres (%,.0f/s)", input, Math.max(0, rate)));
+        encodeLatencyLabel.setText(metrics.getEncodeLatency().toString());
+        decodeLatencyLabel.setText(metrics.getDecodeLatency().toString());
+        frameLabel.setText(metrics.getFrameTime().toString());
+        sidetoneLabel.setText(metrics.getSidetoneLatency().toString());
+        underrunLabel.setText(String.format(Locale.ROOT, "%,d underruns", metrics.getAudioUnderruns()));
+    }
+}
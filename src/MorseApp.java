@@ -16,7 +16,7 @@ public class MorseApp extends JFrame {
 
     // Construtor da aplicação
     public MorseApp() {
-        decoder = new MorseDecoder();
+        decoder = MorseDecoder.forTable(MorseCodeTable.DEFAULT);
 
         // Configuração da janela principal
         setTitle("Decodificador de Código Morse");
@@ -2,6 +2,14 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.border.EmptyBorder;
+import javax.sound.sampled.LineUnavailableException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Interface gráfica aprimorada para a aplicação de código morse
@@ -10,37 +18,52 @@ import javax.swing.border.EmptyBorder;
 public class MorseAppEnhanced extends JFrame {
     private MorseDecoder decoder;
     private JTextArea inputTextArea;
-    private JTextArea outputTextArea;
+    private ChunkedTextView outputView;
     private JRadioButton encodeOption;
     private JRadioButton decodeOption;
     private JButton processButton;
     private JButton viewTreeButton;
     private JButton visualizeDecodingButton;
+    private JButton playButton;
+    private JButton loadFileButton;
+    private JButton cancelButton;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private MorseProcessingWorker worker;
+    private MorsePlayer player;
     private JFrame treeFrame;
     private AnimatedTreeVisualizer visualizer;
     private TreeVisualizer visualizer2;
+    private KeyingPanel keyingPanel;
 
+    private JComboBox<MorseCodeTable> tableComboBox;
     private JSlider speedSlider;
     private JCheckBox loopCheckBox;
+    private JCheckBox tolerantCheckBox;
+    private JCheckBox runTogetherCheckBox;
+    private JComboBox<WordModel> modelComboBox;
 
     /**
      * Construtor da aplicação
      */
     public MorseAppEnhanced() {
-        decoder = new MorseDecoder();
+        decoder = MorseDecoder.forTable(MorseCodeTable.DEFAULT);
+        MorseMetrics.register();
 
         // Configuração da janela principal
         setTitle("Decodificador de Código Morse");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(800, 615);
+        setSize(800, 650);
         setLocationRelativeTo(null); // Centraliza na tela
 
         // Painel principal com layout de borda
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        // Painel superior para opções
-        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        // Painel superior para opções: modo na primeira linha, tabela na segunda
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 1));
+        JPanel modePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JPanel tablePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         encodeOption = new JRadioButton("Texto para Morse");
         decodeOption = new JRadioButton("Morse para Texto");
         ButtonGroup options = new ButtonGroup();
@@ -48,9 +71,41 @@ public class MorseAppEnhanced extends JFrame {
         options.add(decodeOption);
         encodeOption.setSelected(true); // Opção padrão
 
-        optionsPanel.add(new JLabel("Modo de operação:"));
-        optionsPanel.add(encodeOption);
-        optionsPanel.add(decodeOption);
+        modePanel.add(new JLabel("Modo de operação:"));
+        modePanel.add(encodeOption);
+        modePanel.add(decodeOption);
+
+        // Decodificação tolerante: troca sequências inválidas pelo código mais próximo
+        tolerantCheckBox = new JCheckBox("Corrigir erros");
+        tolerantCheckBox.setToolTipText("Troca sequências inválidas pelo código mais próximo (até "
+                + TolerantDecoder.MAX_DISTANCE + " pontos ou traços errados)");
+        modePanel.add(Box.createHorizontalStrut(20));
+        modePanel.add(tolerantCheckBox);
+
+        // Tabela de códigos escolhida em tempo de execução
+        tableComboBox = new JComboBox<>();
+        for (String name : MorseCodeTable.availableTables()) {
+            tableComboBox.addItem(MorseCodeTable.get(name));
+        }
+        tableComboBox.setSelectedItem(decoder.getTable());
+        tableComboBox.addActionListener(e -> selectTable((MorseCodeTable) tableComboBox.getSelectedItem()));
+        tablePanel.add(new JLabel("Tabela:"));
+        tablePanel.add(tableComboBox);
+
+        // Decodificação sem separadores, pontuada pelo dicionário escolhido
+        runTogetherCheckBox = new JCheckBox("Sem separadores");
+        runTogetherCheckBox.setToolTipText("Divide em letras e palavras um morse sem espaços (ex.: ......-...-..---)");
+        modelComboBox = new JComboBox<>();
+        for (String name : WordModel.availableModels()) {
+            modelComboBox.addItem(WordModel.get(name));
+        }
+        tablePanel.add(Box.createHorizontalStrut(20));
+        tablePanel.add(runTogetherCheckBox);
+        tablePanel.add(new JLabel("Dicionário:"));
+        tablePanel.add(modelComboBox);
+
+        optionsPanel.add(modePanel);
+        optionsPanel.add(tablePanel);
         mainPanel.add(optionsPanel, BorderLayout.NORTH);
 
         // Painel central para entrada e saída
@@ -68,11 +123,9 @@ public class MorseAppEnhanced extends JFrame {
         // Painel de saída
         JPanel outputPanel = new JPanel(new BorderLayout(5, 5));
         outputPanel.add(new JLabel("Saída:"), BorderLayout.NORTH);
-        outputTextArea = new JTextArea(5, 20);
-        outputTextArea.setLineWrap(true);
-        outputTextArea.setWrapStyleWord(true);
-        outputTextArea.setEditable(false);
-        JScrollPane outputScroll = new JScrollPane(outputTextArea);
+        // Saída virtualizada: suporta resultados de centenas de megabytes
+        outputView = new ChunkedTextView();
+        JScrollPane outputScroll = new JScrollPane(outputView);
         outputPanel.add(outputScroll, BorderLayout.CENTER);
 
         centerPanel.add(inputPanel);
@@ -82,13 +135,32 @@ public class MorseAppEnhanced extends JFrame {
         // Painel de botões
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
         processButton = new JButton("Processar");
+        loadFileButton = new JButton("Carregar Arquivo");
         viewTreeButton = new JButton("Visualizar Árvore");
         visualizeDecodingButton = new JButton("Visualizar Decodificação");
+        playButton = new JButton("Tocar Morse");
 
         buttonPanel.add(processButton);
+        buttonPanel.add(loadFileButton);
         buttonPanel.add(viewTreeButton);
         buttonPanel.add(visualizeDecodingButton);
-        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        buttonPanel.add(playButton);
+
+        // Painel de andamento do processamento em segundo plano
+        JPanel progressPanel = new JPanel(new BorderLayout(10, 0));
+        statusLabel = new JLabel(" ");
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        cancelButton = new JButton("Cancelar");
+        cancelButton.setEnabled(false);
+        progressPanel.add(statusLabel, BorderLayout.CENTER);
+        progressPanel.add(progressBar, BorderLayout.EAST);
+        progressPanel.add(cancelButton, BorderLayout.WEST);
+
+        JPanel southPanel = new JPanel(new BorderLayout(0, 10));
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(progressPanel, BorderLayout.SOUTH);
+        mainPanel.add(southPanel, BorderLayout.SOUTH);
 
         // Adiciona ação ao botão de processamento
         processButton.addActionListener(new ActionListener() {
@@ -98,6 +170,16 @@ public class MorseAppEnhanced extends JFrame {
             }
         });
 
+        // Lê o arquivo direto do disco, sem passar pela área de entrada
+        loadFileButton.addActionListener(e -> loadFile());
+
+        // Interrompe o processamento em andamento
+        cancelButton.addActionListener(e -> {
+            if (worker != null) {
+                worker.cancel(false);
+            }
+        });
+
         // Adiciona ação ao botão de visualização da árvore
         viewTreeButton.addActionListener(new ActionListener() {
             @Override
@@ -114,6 +196,9 @@ public class MorseAppEnhanced extends JFrame {
             }
         });
 
+        // Adiciona ação ao botão de reprodução (clicar de novo interrompe)
+        playButton.addActionListener(e -> playMorse());
+
         // Dicas de uso
         JPanel helpPanel = new JPanel(new BorderLayout());
         helpPanel.setPreferredSize(new Dimension(415, 400));
@@ -146,11 +231,15 @@ public class MorseAppEnhanced extends JFrame {
         );
         helpText.setEditable(false);
         helpText.setBackground(new Color(240, 240, 240));
-        helpText.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createTitledBorder("Ajuda"),
-                new EmptyBorder(5, 5, 5, 5)
-        ));
-        helpPanel.add(helpText, BorderLayout.CENTER);
+        helpText.setBorder(new EmptyBorder(5, 5, 5, 5));
+
+        // Ajuda, manipulação na barra de espaço e métricas ao vivo em abas
+        keyingPanel = new KeyingPanel(decoder);
+        JTabbedPane sideTabs = new JTabbedPane();
+        sideTabs.addTab("Ajuda", helpText);
+        sideTabs.addTab("Manipulador", keyingPanel);
+        sideTabs.addTab("Estatísticas", new MetricsPanel());
+        helpPanel.add(sideTabs, BorderLayout.CENTER);
         mainPanel.add(helpPanel, BorderLayout.EAST);
 
         // Adiciona o painel principal à janela
@@ -170,14 +259,142 @@ public class MorseAppEnhanced extends JFrame {
             return;
         }
 
-        if (encodeOption.isSelected()) {
-            // Converte texto para código morse
-            String morseCode = decoder.encodeText(input);
-            outputTextArea.setText(morseCode);
-        } else {
-            // Converte código morse para texto
-            String text = decoder.decodeMorse(input);
-            outputTextArea.setText(text);
+        startProcessing(new StringReader(input), input.length());
+    }
+
+    /**
+     * Escolhe um arquivo e o processa lendo-o aos poucos do disco
+     */
+    private void loadFile() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        Path path = chooser.getSelectedFile().toPath();
+        try {
+            Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+            // O tamanho em bytes serve de estimativa do total de caracteres
+            startProcessing(reader, Files.size(path));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Não foi possível ler o arquivo: " + e.getMessage(),
+                    "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Inicia o processamento em segundo plano, trocando a saída pelo resultado parcial
+     * @param reader A entrada
+     * @param totalChars Tamanho aproximado da entrada, ou -1 se desconhecido
+     */
+    private void startProcessing(Reader reader, long totalChars) {
+        if (worker != null && !worker.isDone()) {
+            worker.cancel(false);
+        }
+
+        outputView.clear();
+        progressBar.setValue(0);
+        statusLabel.setText("Processando...");
+        setProcessing(true);
+
+        MorseProcessingWorker current = new MorseProcessingWorker(
+                decoder, encodeOption.isSelected(), tolerantCheckBox.isSelected(),
+                runTogetherCheckBox.isSelected()
+                        ? new RunTogetherDecoder(decoder, (WordModel) modelComboBox.getSelectedItem()) : null,
+                reader, totalChars, outputView::append);
+        current.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                progressBar.setValue((Integer) event.getNewValue());
+                statusLabel.setText(current.getResult().toString());
+            } else if ("state".equals(event.getPropertyName())
+                    && event.getNewValue() == SwingWorker.StateValue.DONE) {
+                finishProcessing(current);
+            }
+        });
+        worker = current;
+        current.execute();
+    }
+
+    /**
+     * Atualiza a interface quando um processamento termina, é cancelado ou falha
+     */
+    private void finishProcessing(MorseProcessingWorker finished) {
+        if (finished != worker) {
+            return;  // Já substituído por um processamento mais novo
+        }
+        setProcessing(false);
+
+        if (finished.isCancelled()) {
+            statusLabel.setText("Cancelado. " + finished.getResult());
+            return;
+        }
+        try {
+            statusLabel.setText(finished.get().toString());
+        } catch (ExecutionException e) {
+            statusLabel.setText("Erro no processamento.");
+            JOptionPane.showMessageDialog(this, "Erro no processamento: " + e.getCause().getMessage(),
+                    "Erro", JOptionPane.ERROR_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Habilita ou desabilita os controles durante o processamento
+     */
+    private void setProcessing(boolean processing) {
+        processButton.setEnabled(!processing);
+        loadFileButton.setEnabled(!processing);
+        cancelButton.setEnabled(processing);
+    }
+
+    /**
+     * Troca a tabela de códigos usada pela conversão e pelos visualizadores abertos
+     * @param table A tabela escolhida
+     */
+    private void selectTable(MorseCodeTable table) {
+        if (table == null || table == decoder.getTable()) {
+            return;
+        }
+        decoder = MorseDecoder.forTable(table.getName());
+        statusLabel.setText(String.format("Tabela \"%s\": %d códigos, lida em %d µs, compilada em %d µs",
+                table.getTitle(), table.size(), table.getLoadNanos() / 1000, decoder.getBuildNanos() / 1000));
+
+        if (visualizer2 != null) {
+            visualizer2.setRoot(decoder.getRoot());
+        }
+        if (visualizer != null) {
+            visualizer.setRoot(decoder.getRoot());
+        }
+        keyingPanel.setDecoder(decoder);
+    }
+
+    /**
+     * Reproduz a entrada em código morse, ou interrompe a reprodução em andamento
+     */
+    private void playMorse() {
+        if (player == null) {
+            player = new MorsePlayer(20, 20, 700);
+        }
+        if (player.isPlaying()) {
+            player.stop();
+            return;
+        }
+
+        String input = inputTextArea.getText().trim();
+        if (input.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Por favor, insira um texto para reproduzir.",
+                    "Entrada vazia", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        String morse = encodeOption.isSelected() ? decoder.encodeText(input) : input;
+        try {
+            player.play(morse);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // IllegalArgumentException: nenhum mixer oferece o formato (máquina sem áudio)
+            JOptionPane.showMessageDialog(this, "Não foi possível abrir a saída de áudio: " + e.getMessage(),
+                    "Erro de Áudio", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -215,9 +432,11 @@ public class MorseAppEnhanced extends JFrame {
         }
 
         // Verifica se a entrada contém apenas pontos e traços (código morse simples)
-        if (!input.matches("^[.-]+$")) {
+        int invalid = MorseScanner.get().indexOfNonSymbol(input);
+        if (invalid >= 0) {
             JOptionPane.showMessageDialog(this,
                     "Para visualizar a decodificação, insira apenas um código Morse simples (apenas pontos e traços).\n" +
+                            "Caractere \"" + input.charAt(invalid) + "\" na posição " + (invalid + 1) + ".\n" +
                             "Exemplo: .- (A), ... (S), etc.",
                     "Formato inválido",
                     JOptionPane.WARNING_MESSAGE);
@@ -251,10 +470,12 @@ public class MorseAppEnhanced extends JFrame {
         JPanel sliderPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
 
         JLabel speedLabel = new JLabel("Velocidade de Animação: ");
-        speedSlider = new JSlider(JSlider.HORIZONTAL, 100, 500, 100);
+        // O Timer da animação roda na thread de eventos e repinta só os nós alterados,
+        // então passos bem curtos (20 ms) continuam suaves
+        speedSlider = new JSlider(JSlider.HORIZONTAL, 20, 500, 100);
         speedSlider.setInverted(true); // Inverte para que valores menores sejam mais rápidos
-        speedSlider.setMajorTickSpacing(200);
-        speedSlider.setMinorTickSpacing(100);
+        speedSlider.setMajorTickSpacing(80);
+        speedSlider.setMinorTickSpacing(40);
         speedSlider.setPaintTicks(true);
         speedSlider.setPaintLabels(true);
 
@@ -289,9 +510,10 @@ public class MorseAppEnhanced extends JFrame {
         SwingUtilities.invokeLater(() -> {
             JViewport vp   = scrollPane.getViewport();
             Dimension vsz  = vp.getExtentSize();                 // tamanho visível
-            int xRoot      = visualizer.getPreferredSize().width / 2;  // 1200
+            int xRoot      = visualizer.getRootX();              // a raiz fica entre as subárvores, não no meio
+            int maxX       = Math.max(0, visualizer.getPreferredSize().width - vsz.width);
             int targetX    = xRoot - vsz.width / 2;              // raiz no centro
-            targetX        = Math.max(0, targetX);               // evita negativo
+            targetX        = Math.max(0, Math.min(targetX, maxX));  // dentro da área rolável
             vp.setViewPosition(new Point(targetX, 0));           // rola até lá
         });
         // Inicia a animação com o código morse da entrada (com loop ativado)
@@ -0,0 +1,223 @@
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Converte uma mensagem morse (pontos, traços, espaços e "/") em áudio PCM
+ * de 16 bits, mono, little-endian, com precisão de amostra.
+ *
+ * O início de cada elemento é calculado a partir do tempo acumulado desde o
+ * começo da mensagem, então o arredondamento para amostras nunca se acumula.
+ * A velocidade dos caracteres segue o WPM informado; com o espaçamento
+ * Farnsworth, apenas os intervalos entre letras e palavras são esticados até
+ * a velocidade efetiva desejada (fórmula da ARRL). Cada tom recebe rampas de
+ * subida e descida em cosseno para não estalar.
+ *
+ * O áudio é gerado sob demanda, em blocos, por {@link #render(byte[], int, int)}.
+ * Instâncias não são thread-safe.
+ */
+public class MorseAudioRenderer {
+    // Duração das rampas de subida e descida de cada tom
+    private static final double RAMP_SECONDS = 0.005;
+    private static final float AMPLITUDE = 0.7f;
+
+    private final CharSequence morse;
+    private final AudioFormat format;
+    private final ToneOscillator oscillator;
+
+    // Durações em segundos
+    private final double unit;
+    private final double letterGap;
+    private final double wordGap;
+
+    // Rampa pré-calculada (meio cosseno de 0 a 1)
+    private final float[] ramp;
+
+    // Posição na mensagem e no tempo
+    private int index = 0;
+    private double elapsed = 0;         // Segundos até o fim do elemento atual
+    private long samplePosition = 0;    // Amostra atual desde o início
+    private long elementEnd = 0;        // Amostra em que o elemento atual termina
+    private long elementStart = 0;
+    private boolean elementOn = false;
+    private boolean pendingElementGap = false;
+    private boolean finished = false;
+
+    /**
+     * Cria um renderizador sem espaçamento Farnsworth
+     * @param morse A mensagem morse
+     * @param wpm Velocidade em palavras por minuto
+     * @param frequency Frequência do tom em Hz
+     * @param sampleRate Taxa de amostragem em Hz
+     */
+    public MorseAudioRenderer(CharSequence morse, double wpm, float frequency, float sampleRate) {
+        this(morse, wpm, wpm, frequency, sampleRate);
+    }
+
+    /**
+     * Cria um renderizador
+     * @param morse A mensagem morse
+     * @param wpm Velocidade dos caracteres em palavras por minuto
+     * @param effectiveWpm Velocidade efetiva (Farnsworth), menor ou igual a {@code wpm}
+     * @param frequency Frequência do tom em Hz
+     * @param sampleRate Taxa de amostragem em Hz
+     */
+    public MorseAudioRenderer(CharSequence morse, double wpm, double effectiveWpm,
+                              float frequency, float sampleRate) {
+        if (wpm <= 0 || effectiveWpm <= 0 || effectiveWpm > wpm) {
+            throw new IllegalArgumentException("Velocidades inválidas: " + wpm + " / " + effectiveWpm + " WPM");
+        }
+        this.morse = morse;
+        this.format = new AudioFormat(sampleRate, 16, 1, true, false);
+        this.oscillator = new ToneOscillator(frequency, sampleRate);
+
+        this.unit = 1.2 / wpm;
+        if (effectiveWpm < wpm) {
+            // Atraso total distribuído em 19 unidades de espaçamento (ARRL)
+            double delay = (60 * wpm - 37.2 * effectiveWpm) / (wpm * effectiveWpm);
+            this.letterGap = 3 * delay / 19;
+            this.wordGap = 7 * delay / 19;
+        } else {
+            this.letterGap = 3 * unit;
+            this.wordGap = 7 * unit;
+        }
+
+        int rampSamples = Math.max(1, (int) Math.round(RAMP_SECONDS * sampleRate));
+        this.ramp = new float[rampSamples];
+        for (int i = 0; i < rampSamples; i++) {
+            ramp[i] = (float) (0.5 - 0.5 * Math.cos(Math.PI * i / rampSamples));
+        }
+    }
+
+    /**
+     * @return O formato do áudio gerado
+     */
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Gera o próximo trecho de áudio
+     * @param buffer Vetor de destino
+     * @param offset Posição inicial
+     * @param length Espaço disponível em bytes (usado em múltiplos de 2)
+     * @return A quantidade de bytes gerados, ou -1 se a mensagem terminou
+     */
+    public int render(byte[] buffer, int offset, int length) {
+        if (finished) {
+            return -1;
+        }
+
+        int out = offset;
+        int end = offset + (length & ~1);
+        while (out < end) {
+            if (samplePosition >= elementEnd && !nextElement()) {
+                finished = true;
+                break;
+            }
+
+            int count = (int) Math.min((end - out) / 2, elementEnd - samplePosition);
+            if (elementOn) {
+                for (int i = 0; i < count; i++) {
+                    short sample = (short) (oscillator.next() * envelope(samplePosition + i) * AMPLITUDE * Short.MAX_VALUE);
+                    buffer[out++] = (byte) sample;
+                    buffer[out++] = (byte) (sample >> 8);
+                }
+            } else {
+                // Silêncio: mantém a fase do oscilador sem calcular amostras
+                oscillator.skip(count);
+                for (int i = 0; i < count * 2; i++) {
+                    buffer[out++] = 0;
+                }
+            }
+            samplePosition += count;
+        }
+
+        int written = out - offset;
+        return written == 0 && finished ? -1 : written;
+    }
+
+    /**
+     * @return true se toda a mensagem já foi gerada
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return Duração total da mensagem em segundos
+     */
+    public double getDurationSeconds() {
+        double total = 0;
+        boolean afterElement = false;
+        int i = 0;
+        while (i < morse.length()) {
+            char symbol = morse.charAt(i);
+            if (symbol == '.' || symbol == '-') {
+                total += (afterElement ? unit : 0) + (symbol == '-' ? 3 * unit : unit);
+                afterElement = true;
+                i++;
+            } else {
+                boolean word = false;
+                while (i < morse.length() && morse.charAt(i) != '.' && morse.charAt(i) != '-') {
+                    word |= morse.charAt(i) == '/';
+                    i++;
+                }
+                total += word ? wordGap : letterGap;
+                afterElement = false;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Avança para o próximo elemento (tom ou silêncio) da mensagem
+     * @return false se a mensagem terminou
+     */
+    private boolean nextElement() {
+        if (index >= morse.length()) {
+            return false;
+        }
+
+        char symbol = morse.charAt(index);
+        if (symbol == '.' || symbol == '-') {
+            // Dois tons seguidos da mesma letra são separados por uma unidade
+            if (pendingElementGap) {
+                pendingElementGap = false;
+                return schedule(unit, false);
+            }
+            index++;
+            pendingElementGap = true;
+            return schedule(symbol == '-' ? 3 * unit : unit, true);
+        }
+
+        // Uma sequência de separadores vira um único intervalo: entre
+        // palavras se contiver "/", senão entre letras
+        boolean word = false;
+        while (index < morse.length() && (symbol = morse.charAt(index)) != '.' && symbol != '-') {
+            word |= symbol == '/';
+            index++;
+        }
+        pendingElementGap = false;
+        return schedule(word ? wordGap : letterGap, false);
+    }
+
+    /**
+     * Agenda um elemento a partir do tempo acumulado, convertendo para amostras
+     */
+    private boolean schedule(double seconds, boolean on) {
+        elapsed += seconds;
+        elementStart = samplePosition;
+        elementEnd = Math.round(elapsed * format.getSampleRate());
+        elementOn = on;
+        return true;
+    }
+
+    /**
+     * Ganho do tom na amostra informada (rampas no início e no fim)
+     */
+    private float envelope(long position) {
+        long fromStart = position - elementStart;
+        long toEnd = elementEnd - 1 - position;
+        long edge = Math.min(fromStart, toEnd);
+        return edge < ramp.length ? ramp[(int) edge] : 1.0f;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Codificador/decodificador entre texto, código morse em String e o formato
+ * compactado em bits de {@link PackedMorse}, com a temporização ITU:
+ * ponto = 1, traço = 111, intervalo entre elementos = 0, entre letras = 000
+ * e entre palavras = 0000000.
+ *
+ * Cada símbolo ocupa de 1 a 4 bits, contra 8-16 bits por caractere da
+ * representação em String, e os bits descrevem exatamente o manipulador.
+ */
+public class MorseBinaryCodec {
+    // Intervalos em unidades ITU
+    private static final int ELEMENT_GAP = 1;
+    private static final int LETTER_GAP = 3;
+    private static final int WORD_GAP = 7;
+
+    private final MorseDecoder decoder;
+
+    /**
+     * @param decoder Decodificador com as tabelas morse
+     */
+    public MorseBinaryCodec(MorseDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * Codifica texto normal diretamente em bits. Caracteres sem código
+     * morse são ignorados, como em {@link MorseDecoder#encodeText(String)}.
+     * @param text O texto a ser codificado
+     * @return A mensagem compactada
+     */
+    public PackedMorse encodeText(String text) {
+        GapWriter writer = new GapWriter();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                writer.wordGap();
+                continue;
+            }
+            String code = decoder.getMorseCode(c);
+            if (code != null) {
+                writer.letter(code, 0, code.length());
+            }
+        }
+        return writer.builder.build();
+    }
+
+    /**
+     * Codifica uma String de pontos e traços (sequências separadas por
+     * espaço, "/" entre palavras) em bits
+     * @param morseString O código morse
+     * @return A mensagem compactada
+     * @throws IllegalArgumentException Se houver símbolos além de '.', '-', ' ' e '/'
+     */
+    public PackedMorse encodeMorse(String morseString) {
+        GapWriter writer = new GapWriter();
+        int length = morseString.length();
+        int start = 0;
+
+        while (start < length) {
+            int end = morseString.indexOf(' ', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end - start == 1 && morseString.charAt(start) == '/') {
+                writer.wordGap();
+            } else if (end > start) {
+                for (int i = start; i < end; i++) {
+                    char symbol = morseString.charAt(i);
+                    if (symbol != '.' && symbol != '-') {
+                        throw new IllegalArgumentException(
+                                "Símbolo inválido '" + symbol + "' na posição " + i);
+                    }
+                }
+                writer.letter(morseString, start, end);
+            }
+            start = end + 1;
+        }
+        return writer.builder.build();
+    }
+
+    /**
+     * Decodifica a mensagem compactada em texto, percorrendo os bits e a
+     * tabela do decodificador sem passar por uma String intermediária
+     * @param packed A mensagem compactada
+     * @return O texto decodificado
+     */
+    public String decodeText(PackedMorse packed) {
+        StringBuilder text = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, packed.getUnitCount() / 8 + 1));
+        MorseStreamDecoder stream = new MorseStreamDecoder(decoder, text::append);
+        walk(packed, stream::feed);
+        stream.finish();
+        return text.toString();
+    }
+
+    /**
+     * Converte a mensagem compactada de volta para pontos e traços
+     * @param packed A mensagem compactada
+     * @return O código morse no formato de {@link MorseDecoder#encodeText(String)}
+     */
+    public String toMorseString(PackedMorse packed) {
+        StringBuilder morse = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, packed.getUnitCount() / 2 + 1));
+        walk(packed, morse::append);
+        return morse.toString();
+    }
+
+    /**
+     * Percorre os trechos de tom ligado/desligado e emite os símbolos
+     * correspondentes ('.', '-', ' ' e "/" entre palavras). As durações são
+     * classificadas com tolerância: tons com 2 ou mais unidades são traços,
+     * silêncios de 2 a 5 unidades separam letras e de 6 ou mais, palavras.
+     */
+    private void walk(PackedMorse packed, MorseStreamDecoder.Sink symbols) {
+        long length = packed.getUnitCount();
+        long position = 0;
+        boolean started = false;
+
+        while (position < length) {
+            boolean on = packed.isOn(position);
+            long next = packed.nextTransition(position);
+            long run = next - position;
+
+            if (on) {
+                symbols.accept(run >= 2 ? '-' : '.');
+                started = true;
+            } else if (started && next < length) {
+                // Silêncios no início ou no fim da mensagem não separam nada
+                if (run >= 6) {
+                    symbols.accept(' ');
+                    symbols.accept('/');
+                    symbols.accept(' ');
+                } else if (run >= 2) {
+                    symbols.accept(' ');
+                }
+            }
+            position = next;
+        }
+    }
+
+    /**
+     * Escreve letras e intervalos, garantindo que apenas o maior intervalo
+     * pendente seja emitido entre duas letras
+     */
+    private static final class GapWriter {
+        final PackedMorse.Builder builder = new PackedMorse.Builder();
+        private int pendingGap = 0;
+
+        void wordGap() {
+            pendingGap = WORD_GAP;
+        }
+
+        void letter(CharSequence code, int start, int end) {
+            if (builder.length() > 0) {
+                builder.append(false, Math.max(pendingGap, LETTER_GAP));
+            }
+            pendingGap = 0;
+
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    builder.append(false, ELEMENT_GAP);
+                }
+                builder.append(true, code.charAt(i) == '-' ? 3 : 1);
+            }
+        }
+    }
+}
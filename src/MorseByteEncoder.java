@@ -0,0 +1,455 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificador de texto para código morse orientado a bytes.
+ *
+ * Lê bytes ASCII/UTF-8 e consulta os códigos pré-computados na tabela de
+ * 128 posições do {@link MorseDecoder}, escrevendo o resultado diretamente
+ * em um ByteBuffer, vetor ou OutputStream fornecido pelo chamador. Nenhuma
+ * memória é alocada por chamada: os buffers internos são criados uma única
+ * vez, junto com o codificador.
+ *
+ * A saída segue o formato de {@link MorseDecoder#encodeText(String)}: os
+ * códigos são separados por um espaço, o espaço vira "/", prosinais da
+ * tabela escritos entre < e > (ex.: {@code <SK>}) viram um único código e
+ * bytes sem código (incluindo sequências UTF-8 fora do ASCII) são ignorados.
+ * O estado do separador e de um prosinal ainda incompleto é mantido entre
+ * chamadas, então a entrada pode chegar em blocos; no fim da entrada,
+ * {@link #finish} escreve o que tiver ficado guardado.
+ *
+ * Cada chamada soma às {@link MorseMetrics} os bytes consumidos e quantos
+ * deles tinham código.
+ *
+ * Instâncias não são thread-safe; use uma por fluxo de saída.
+ */
+public class MorseByteEncoder {
+    // Tamanho dos buffers internos usados com streams
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] NO_INPUT = new byte[0];
+
+    // Passos da codificação (ver step): o que fazer com o próximo byte
+    private static final int DONE = 0;          // Nada mais a fazer com a entrada disponível
+    private static final int RETRY = 1;         // O estado mudou; decide de novo sem consumir
+    private static final int HOLD = 2;          // Consome o byte guardando-o no possível prosinal
+    private static final int SKIP = 3;          // Consome um byte sem código
+    private static final int SKIP_HELD = 4;     // Descarta um byte guardado sem código
+    private static final int EMIT = 5;          // Escreve o código do byte e o consome
+    private static final int EMIT_HELD = 6;     // Escreve o código de um byte guardado
+    private static final int EMIT_PROSIGN = 7;  // Escreve o código do prosinal e consome o '>'
+
+    private final byte[][] codes;
+    private final int maxCodeLength;
+
+    // Prosinais da tabela: nomes sem < e > (em maiúsculas) e os códigos
+    private final byte[][] prosignLabels;
+    private final byte[][] prosignCodes;
+
+    // Há um código anterior, então o próximo precisa de um espaço antes
+    private boolean needsSeparator = false;
+
+    // Possível prosinal: o '<' e as letras lidas até agora. Se não fechar um
+    // prosinal da tabela, os bytes guardados são codificados um a um
+    private final byte[] held;
+    private int heldLength;
+    private int replayPosition;
+    private int replayLength;
+
+    // Código escolhido pelo último step
+    private byte[] stepCode;
+
+    // Entrada vazia para finish
+    private final ByteBuffer noInput = ByteBuffer.allocate(0);
+
+    // Bytes consumidos e produzidos pela última chamada
+    private int lastConsumed;
+    private int lastProduced;
+
+    private byte[] inputBuffer;
+    private byte[] outputBuffer;
+
+    /**
+     * Cria um codificador que utiliza as tabelas do decodificador informado
+     * @param decoder Decodificador com a tabela de codificação compilada
+     */
+    public MorseByteEncoder(MorseDecoder decoder) {
+        this.codes = decoder.copyAsciiEncodeTable();
+
+        int max = 0;
+        for (byte[] code : codes) {
+            if (code != null) {
+                max = Math.max(max, code.length);
+            }
+        }
+        this.maxCodeLength = max;
+
+        List<byte[]> labels = new ArrayList<>();
+        List<byte[]> prosigns = new ArrayList<>();
+        int longest = 0;
+        MorseCodeTable table = decoder.getTable();
+        for (int i = 0; i < table.size(); i++) {
+            char c = table.character(i);
+            if (MorseCodeTable.isProsign(c)) {
+                String label = MorseCodeTable.label(c);
+                labels.add(label.substring(1, label.length() - 1).getBytes(StandardCharsets.US_ASCII));
+                prosigns.add(decoder.getMorseCode(c).getBytes(StandardCharsets.US_ASCII));
+                longest = Math.max(longest, label.length() - 1);
+            }
+        }
+        this.prosignLabels = labels.toArray(new byte[0][]);
+        this.prosignCodes = prosigns.toArray(new byte[0][]);
+        this.held = new byte[longest];
+    }
+
+    /**
+     * Número máximo de bytes que a codificação de {@code inputLength} bytes pode produzir
+     * @param inputLength Quantidade de bytes de entrada
+     * @return O limite superior do tamanho da saída
+     */
+    public long maxEncodedLength(long inputLength) {
+        return inputLength * (maxCodeLength + 1);
+    }
+
+    /**
+     * Codifica o vetor de entrada no vetor de saída. Para quando a entrada
+     * acaba ou quando o próximo código não cabe inteiro na saída.
+     *
+     * @param src Vetor de entrada
+     * @param srcOffset Posição inicial da entrada
+     * @param srcLength Quantidade de bytes de entrada
+     * @param dst Vetor de saída
+     * @param dstOffset Posição inicial da saída
+     * @param dstLength Espaço disponível na saída
+     * @return A quantidade de bytes produzidos (igual a {@link #getLastProduced()})
+     */
+    public int encode(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) {
+        return encode(src, srcOffset, srcLength, dst, dstOffset, dstLength, false);
+    }
+
+    /**
+     * Escreve o que tiver ficado guardado de um prosinal incompleto no fim da
+     * entrada, codificando os bytes um a um
+     *
+     * @param dst Vetor de saída
+     * @param dstOffset Posição inicial da saída
+     * @param dstLength Espaço disponível na saída
+     * @return A quantidade de bytes produzidos; se a saída encher, chame de novo
+     */
+    public int finish(byte[] dst, int dstOffset, int dstLength) {
+        return encode(NO_INPUT, 0, 0, dst, dstOffset, dstLength, true);
+    }
+
+    private int encode(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength,
+                       boolean finishing) {
+        int in = srcOffset;
+        int inEnd = srcOffset + srcLength;
+        int out = dstOffset;
+        int outEnd = dstOffset + dstLength;
+        int skipped = 0;
+
+        int step;
+        while ((step = step(in < inEnd ? src[in] & 0xFF : -1, finishing)) != DONE) {
+            if (step >= EMIT) {
+                byte[] code = stepCode;
+                int needed = needsSeparator ? code.length + 1 : code.length;
+                if (outEnd - out < needed) {
+                    break;  // Saída cheia: o byte fica para a próxima chamada
+                }
+                if (needsSeparator) {
+                    dst[out++] = ' ';
+                }
+                System.arraycopy(code, 0, dst, out, code.length);
+                out += code.length;
+                needsSeparator = true;
+            }
+            if (step == SKIP || step == SKIP_HELD) {
+                skipped++;
+            }
+            if (advance(step)) {
+                in++;
+            }
+        }
+
+        lastConsumed = in - srcOffset;
+        lastProduced = out - dstOffset;
+        MorseMetrics.recordEncode(lastConsumed, Math.max(0, lastConsumed - skipped), 0);
+        return lastProduced;
+    }
+
+    /**
+     * Codifica os bytes restantes de {@code in} em {@code out}, avançando a
+     * posição de ambos. Para quando a entrada acaba ou a saída enche.
+     *
+     * @param in Buffer de entrada
+     * @param out Buffer de saída
+     * @return true se toda a entrada foi consumida, false se a saída encheu antes
+     */
+    public boolean encode(ByteBuffer in, ByteBuffer out) {
+        return encode(in, out, false);
+    }
+
+    /**
+     * Escreve em {@code out} o que tiver ficado guardado de um prosinal
+     * incompleto no fim da entrada, codificando os bytes um a um
+     *
+     * @param out Buffer de saída
+     * @return true se tudo foi escrito, false se a saída encheu antes
+     */
+    public boolean finish(ByteBuffer out) {
+        return encode(noInput, out, true);
+    }
+
+    /**
+     * @return true se a saída não encheu
+     */
+    private boolean encode(ByteBuffer in, ByteBuffer out, boolean finishing) {
+        if (in.hasArray() && out.hasArray()) {
+            int produced = encode(in.array(), in.arrayOffset() + in.position(), in.remaining(),
+                    out.array(), out.arrayOffset() + out.position(), out.remaining(), finishing);
+            in.position(in.position() + lastConsumed);
+            out.position(out.position() + produced);
+            return !pending(finishing, in.hasRemaining());
+        }
+
+        // Buffers diretos: acesso absoluto, sem cópia intermediária
+        int inPos = in.position();
+        int inEnd = in.limit();
+        int outPos = out.position();
+        int outEnd = out.limit();
+        int skipped = 0;
+
+        int step;
+        while ((step = step(inPos < inEnd ? in.get(inPos) & 0xFF : -1, finishing)) != DONE) {
+            if (step >= EMIT) {
+                byte[] code = stepCode;
+                int needed = needsSeparator ? code.length + 1 : code.length;
+                if (outEnd - outPos < needed) {
+                    break;
+                }
+                if (needsSeparator) {
+                    out.put(outPos++, (byte) ' ');
+                }
+                for (byte symbol : code) {
+                    out.put(outPos++, symbol);
+                }
+                needsSeparator = true;
+            }
+            if (step == SKIP || step == SKIP_HELD) {
+                skipped++;
+            }
+            if (advance(step)) {
+                inPos++;
+            }
+        }
+
+        lastConsumed = inPos - in.position();
+        lastProduced = outPos - out.position();
+        MorseMetrics.recordEncode(lastConsumed, Math.max(0, lastConsumed - skipped), 0);
+        in.position(inPos);
+        out.position(outPos);
+        return !pending(finishing, in.hasRemaining());
+    }
+
+    /**
+     * @return true se ainda há algo a escrever: entrada restante ou bytes guardados
+     */
+    private boolean pending(boolean finishing, boolean inputRemaining) {
+        return inputRemaining || replayPosition < replayLength || (finishing && heldLength > 0);
+    }
+
+    /**
+     * Decide o próximo passo sem escrever nada. Só HOLD e RETRY mudam o
+     * estado aqui; os demais são aplicados por {@link #advance} depois que o
+     * código couber na saída.
+     *
+     * @param b O próximo byte de entrada (0 a 255), ou -1 se a entrada acabou
+     * @param finishing true se não virá mais entrada
+     * @return Um dos passos DONE, RETRY, HOLD, SKIP, SKIP_HELD, EMIT, EMIT_HELD ou EMIT_PROSIGN
+     */
+    private int step(int b, boolean finishing) {
+        if (replayPosition < replayLength) {
+            stepCode = codes[held[replayPosition] & 0x7F];
+            return stepCode == null ? SKIP_HELD : EMIT_HELD;
+        }
+        if (heldLength > 0) {
+            if (b == '>') {
+                stepCode = prosignCode();
+                if (stepCode != null) {
+                    return EMIT_PROSIGN;
+                }
+            } else if (b >= 0 && isLabelByte(b) && heldLength < held.length) {
+                held[heldLength++] = (byte) b;
+                return HOLD;
+            } else if (b < 0 && !finishing) {
+                return DONE;  // O prosinal pode continuar no próximo bloco
+            }
+            // Não é um prosinal: codifica os bytes guardados um a um
+            replayPosition = 0;
+            replayLength = heldLength;
+            heldLength = 0;
+            return RETRY;
+        }
+        if (b < 0) {
+            return DONE;
+        }
+        if (b == '<' && prosignLabels.length > 0) {
+            held[0] = (byte) b;
+            heldLength = 1;
+            return HOLD;
+        }
+        stepCode = b < 0x80 ? codes[b] : null;
+        return stepCode == null ? SKIP : EMIT;
+    }
+
+    /**
+     * Aplica um passo depois que o código foi escrito
+     * @return true se o passo consome o byte de entrada
+     */
+    private boolean advance(int step) {
+        switch (step) {
+            case SKIP_HELD:
+            case EMIT_HELD:
+                replayPosition++;
+                return false;
+            case EMIT_PROSIGN:
+                heldLength = 0;
+                return true;
+            case HOLD:
+            case SKIP:
+            case EMIT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return O código do prosinal guardado, ou null se a tabela não tiver um com esse nome
+     */
+    private byte[] prosignCode() {
+        for (int i = 0; i < prosignLabels.length; i++) {
+            byte[] label = prosignLabels[i];
+            if (label.length != heldLength - 1) {
+                continue;
+            }
+            int j = 0;
+            while (j < label.length && Character.toUpperCase((char) held[j + 1]) == label[j]) {
+                j++;
+            }
+            if (j == label.length) {
+                return prosignCodes[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLabelByte(int b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9');
+    }
+
+    /**
+     * Codifica um vetor de bytes inteiro e escreve o resultado no stream
+     *
+     * @param src Vetor de entrada
+     * @param offset Posição inicial
+     * @param length Quantidade de bytes
+     * @param out Stream de saída
+     * @return A quantidade de bytes escritos
+     * @throws IOException Se a escrita falhar
+     */
+    public long encode(byte[] src, int offset, int length, OutputStream out) throws IOException {
+        byte[] buffer = outputBuffer();
+        int position = offset;
+        int end = offset + length;
+        long produced = 0;
+
+        while (position < end || replayPosition < replayLength) {
+            int written = encode(src, position, end - position, buffer, 0, buffer.length);
+            out.write(buffer, 0, written);
+            position += lastConsumed;
+            produced += written;
+        }
+
+        lastConsumed = length;
+        lastProduced = (int) Math.min(produced, Integer.MAX_VALUE);
+        return produced;
+    }
+
+    /**
+     * Codifica todo o conteúdo de um InputStream para um OutputStream
+     *
+     * @param in Stream de entrada (ASCII/UTF-8)
+     * @param out Stream de saída
+     * @return A quantidade de bytes escritos
+     * @throws IOException Se a leitura ou a escrita falhar
+     */
+    public long encode(InputStream in, OutputStream out) throws IOException {
+        if (inputBuffer == null) {
+            inputBuffer = new byte[BUFFER_SIZE];
+        }
+
+        long produced = 0;
+        int read;
+        while ((read = in.read(inputBuffer)) != -1) {
+            produced += encode(inputBuffer, 0, read, out);
+        }
+        return produced + finish(out);
+    }
+
+    /**
+     * Escreve no stream o que tiver ficado guardado de um prosinal incompleto
+     * no fim da entrada
+     *
+     * @param out Stream de saída
+     * @return A quantidade de bytes escritos
+     * @throws IOException Se a escrita falhar
+     */
+    public long finish(OutputStream out) throws IOException {
+        byte[] buffer = outputBuffer();
+        long produced = 0;
+        int written;
+        while ((written = finish(buffer, 0, buffer.length)) > 0) {
+            out.write(buffer, 0, written);
+            produced += written;
+        }
+        return produced;
+    }
+
+    /**
+     * Reinicia o estado, como se nenhum byte tivesse sido codificado
+     */
+    public void reset() {
+        needsSeparator = false;
+        heldLength = 0;
+        replayPosition = 0;
+        replayLength = 0;
+        lastConsumed = 0;
+        lastProduced = 0;
+    }
+
+    /**
+     * @return Quantidade de bytes de entrada consumidos pela última chamada
+     */
+    public int getLastConsumed() {
+        return lastConsumed;
+    }
+
+    /**
+     * @return Quantidade de bytes de saída produzidos pela última chamada
+     */
+    public int getLastProduced() {
+        return lastProduced;
+    }
+
+    private byte[] outputBuffer() {
+        if (outputBuffer == null) {
+            outputBuffer = new byte[Math.max(BUFFER_SIZE, maxCodeLength + 1)];
+        }
+        return outputBuffer;
+    }
+}
@@ -0,0 +1,278 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabela de códigos morse carregada de um recurso em {@code tables/}.
+ *
+ * O formato é texto UTF-8, uma entrada por linha: o caractere, espaço e o
+ * código ({@code A .-}). Linhas vazias e iniciadas por {@code #} são
+ * ignoradas. Diretivas:
+ * <ul>
+ *   <li>{@code @title Nome} — nome exibido na interface;</li>
+ *   <li>{@code @include outra} — insere, naquele ponto, as entradas de outra tabela.</li>
+ * </ul>
+ * Prosinais são escritos entre sinais de menor e maior ({@code <SK> ...-.-})
+ * e recebem um caractere da área de uso privado do Unicode, o mesmo em todas
+ * as tabelas; {@link #label(char)} devolve o nome legível.
+ *
+ * Quando dois caracteres têm o mesmo código, ambos são codificados, mas a
+ * decodificação devolve o declarado por último.
+ *
+ * Tabelas são imutáveis e carregadas uma única vez por nome.
+ */
+public final class MorseCodeTable {
+    // Nome da tabela usada por new MorseDecoder()
+    public static final String DEFAULT = "international";
+
+    private static final String RESOURCE_DIR = "/tables/";
+    private static final String EXTENSION = ".morse";
+    // Códigos mais longos deixariam a tabela de decodificação grande demais
+    private static final int MAX_CODE_LENGTH = 16;
+
+    private static final Map<String, MorseCodeTable> CACHE = new ConcurrentHashMap<>();
+
+    // Prosinais: nome <-> caractere de uso privado, compartilhados por todas as tabelas
+    private static final char FIRST_PROSIGN = '\uE000';
+    private static final char LAST_PROSIGN = '\uF8FF';
+    private static final Map<String, Character> PROSIGNS = new LinkedHashMap<>();
+    private static final Map<Character, String> PROSIGN_LABELS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final String title;
+    private final char[] characters;
+    private final String[] codes;
+    private final long loadNanos;
+
+    private MorseCodeTable(String name, String title, List<Character> characters, List<String> codes, long loadNanos) {
+        this.name = name;
+        this.title = title;
+        this.characters = new char[characters.size()];
+        for (int i = 0; i < this.characters.length; i++) {
+            this.characters[i] = characters.get(i);
+        }
+        this.codes = codes.toArray(new String[0]);
+        this.loadNanos = loadNanos;
+    }
+
+    /**
+     * Obtém uma tabela, carregando-a do recurso na primeira vez
+     * @param name O nome da tabela (arquivo {@code tables/<nome>.morse})
+     * @return A tabela
+     * @throws IllegalArgumentException Se a tabela não existir ou tiver erros
+     */
+    public static MorseCodeTable get(String name) {
+        MorseCodeTable table = CACHE.get(name);
+        if (table != null) {
+            return table;
+        }
+        // Fora de computeIfAbsent: o carregamento busca as tabelas incluídas
+        table = load(name, new ArrayDeque<>());
+        MorseCodeTable previous = CACHE.putIfAbsent(name, table);
+        return previous != null ? previous : table;
+    }
+
+    /**
+     * @return Os nomes das tabelas listadas em {@code tables/index}, na ordem do arquivo
+     */
+    public static List<String> availableTables() {
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = open("index")) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    names.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Obtém o caractere que representa um prosinal, atribuindo um novo se preciso
+     * @param label O nome do prosinal, com os sinais de menor e maior (ex.: {@code <SK>})
+     * @return O caractere de uso privado do prosinal
+     */
+    public static char prosign(String label) {
+        synchronized (PROSIGNS) {
+            Character c = PROSIGNS.get(label);
+            if (c == null) {
+                int next = FIRST_PROSIGN + PROSIGNS.size();
+                if (next > LAST_PROSIGN) {
+                    throw new IllegalStateException("Prosinais demais");
+                }
+                c = (char) next;
+                PROSIGNS.put(label, c);
+                PROSIGN_LABELS.put(c, label);
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Procura o caractere de um prosinal já declarado, sem atribuir um novo
+     * @param label O nome do prosinal, com os sinais de menor e maior (ex.: {@code <SK>})
+     * @return O caractere de uso privado do prosinal, ou {@link MorseDecoder#UNKNOWN} se nenhuma tabela o declarou
+     */
+    public static char findProsign(String label) {
+        synchronized (PROSIGNS) {
+            Character c = PROSIGNS.get(label);
+            return c != null ? c : MorseDecoder.UNKNOWN;
+        }
+    }
+
+    /**
+     * @return O nome legível do caractere: o do prosinal, ou o próprio caractere
+     */
+    public static String label(char c) {
+        if (c >= FIRST_PROSIGN && c <= LAST_PROSIGN) {
+            String label = PROSIGN_LABELS.get(c);
+            if (label != null) {
+                return label;
+            }
+        }
+        return String.valueOf(c);
+    }
+
+    /**
+     * @return true se o caractere representa um prosinal
+     */
+    public static boolean isProsign(char c) {
+        return c >= FIRST_PROSIGN && c <= LAST_PROSIGN && PROSIGN_LABELS.containsKey(c);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return A quantidade de entradas (incluindo as de tabelas incluídas)
+     */
+    public int size() {
+        return characters.length;
+    }
+
+    public char character(int index) {
+        return characters[index];
+    }
+
+    public String code(int index) {
+        return codes[index];
+    }
+
+    /**
+     * @return Tempo gasto lendo e validando o recurso, em nanossegundos
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+
+    private static MorseCodeTable load(String name, Deque<String> including) {
+        if (including.contains(name)) {
+            throw new IllegalArgumentException("Inclusão circular de tabelas: " + including + " -> " + name);
+        }
+        including.push(name);
+        long start = System.nanoTime();
+
+        String title = name;
+        List<Character> characters = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+
+        try (BufferedReader reader = open(name + EXTENSION)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String where = name + EXTENSION + ":" + lineNumber;
+
+                if (line.startsWith("@title ")) {
+                    title = line.substring(7).trim();
+                } else if (line.startsWith("@include ")) {
+                    String included = line.substring(9).trim();
+                    MorseCodeTable table = CACHE.containsKey(included)
+                            ? CACHE.get(included) : load(included, including);
+                    CACHE.putIfAbsent(included, table);
+                    for (int i = 0; i < table.size(); i++) {
+                        characters.add(table.character(i));
+                        codes.add(table.code(i));
+                    }
+                } else {
+                    String[] parts = line.split("\\s+");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException(where + ": esperado '<caractere> <código>'");
+                    }
+                    characters.add(parseCharacter(parts[0], where));
+                    codes.add(validateCode(parts[1], where));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            including.pop();
+        }
+
+        return new MorseCodeTable(name, title, characters, codes, System.nanoTime() - start);
+    }
+
+    private static char parseCharacter(String key, String where) {
+        if (key.length() > 2 && key.startsWith("<") && key.endsWith(">")) {
+            return prosign(key);
+        }
+        if (key.length() != 1) {
+            throw new IllegalArgumentException(where + ": caractere inválido '" + key + "'");
+        }
+        char c = key.charAt(0);
+        if (c == ' ' || c == MorseDecoder.UNKNOWN) {
+            throw new IllegalArgumentException(where + ": caractere reservado");
+        }
+        return c;
+    }
+
+    private static String validateCode(String code, String where) {
+        if (code.length() > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException(where + ": código com mais de " + MAX_CODE_LENGTH + " símbolos");
+        }
+        for (int i = 0; i < code.length(); i++) {
+            char symbol = code.charAt(i);
+            if (symbol != '.' && symbol != '-') {
+                throw new IllegalArgumentException(where + ": código inválido '" + code + "'");
+            }
+        }
+        return code;
+    }
+
+    private static BufferedReader open(String resource) {
+        InputStream in = MorseCodeTable.class.getResourceAsStream(RESOURCE_DIR + resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Tabela não encontrada no classpath: " + RESOURCE_DIR + resource);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}
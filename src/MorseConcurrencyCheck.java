@@ -0,0 +1,280 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de concorrência de um {@link MorseDecoder} compartilhado, sem
+ * interface gráfica.
+ *
+ * Gera mensagens determinísticas (texto com minúsculas e caracteres sem
+ * código, morse com sequências inválidas) e calcula o resultado esperado de
+ * cada uma em uma única thread, com um decodificador próprio. Depois
+ * dispara 1, 2, 4... até N threads que codificam e decodificam as mesmas
+ * mensagens com a instância compartilhada de {@link MorseDecoder#forTable},
+ * comparando cada resposta com a esperada. Para cada quantidade de threads
+ * mostra a vazão, o ganho sobre uma thread e o número de divergências.
+ *
+ * Uma última fase verifica a publicação: uma thread cria decodificadores
+ * novos e os entrega às outras por um campo comum (nem volatile nem
+ * sincronizado); como tudo o que o construtor monta fica em campos finais,
+ * as leitoras nunca podem ver um decodificador incompleto (o índice
+ * tolerante, volátil, é montado por quem o usar primeiro).
+ *
+ * Uso: {@code java MorseConcurrencyCheck [máximo de threads] [segundos por etapa] [tabela]}
+ * (padrão: 2 × núcleos, 2 s, tabela internacional). Termina com código 1 se
+ * houver qualquer divergência.
+ */
+public class MorseConcurrencyCheck {
+    // Semente fixa para que todas as execuções usem as mesmas mensagens
+    private static final long SEED = 0x5EED_0F_C0DEL;
+    private static final int MESSAGES = 256;
+    private static final int MESSAGE_LENGTH = 2048;
+    // Fração de caracteres sem código e de sequências inválidas
+    private static final double INVALID_RATIO = 0.02;
+
+    private final MorseDecoder shared;
+    private final String[] texts;
+    private final String[] morse;
+    private final String[] expectedEncoded;
+    private final String[] expectedDecoded;
+    private final String[] expectedTolerant;
+
+    /**
+     * Gera as mensagens e os resultados de referência
+     * @param tableName A tabela de códigos
+     */
+    public MorseConcurrencyCheck(String tableName) {
+        this.shared = MorseDecoder.forTable(tableName);
+        // Referência: instância própria, usada só por esta thread
+        MorseDecoder reference = new MorseDecoder(MorseCodeTable.get(tableName));
+        MorseCodeTable table = reference.getTable();
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        texts = new String[MESSAGES];
+        morse = new String[MESSAGES];
+        expectedEncoded = new String[MESSAGES];
+        expectedDecoded = new String[MESSAGES];
+        expectedTolerant = new String[MESSAGES];
+        for (int m = 0; m < MESSAGES; m++) {
+            StringBuilder text = new StringBuilder(MESSAGE_LENGTH);
+            StringBuilder code = new StringBuilder(MESSAGE_LENGTH * 4);
+            for (int i = 0; i < MESSAGE_LENGTH; i++) {
+                if (random.nextDouble() < INVALID_RATIO) {
+                    text.append('#');
+                    code.append(random.nextBoolean() ? "........-" : ".x-");
+                } else if (random.nextInt(6) == 0) {
+                    text.append(' ');
+                    code.append('/');
+                } else {
+                    int entry = random.nextInt(table.size());
+                    char c = table.character(entry);
+                    text.append(random.nextBoolean() ? Character.toLowerCase(c) : c);
+                    code.append(table.code(entry));
+                }
+                code.append(' ');
+            }
+            texts[m] = text.toString();
+            morse[m] = code.toString();
+            expectedEncoded[m] = reference.encodeText(texts[m]);
+            expectedDecoded[m] = reference.decodeMorse(morse[m]);
+            expectedTolerant[m] = new TolerantDecoder(reference).decodeMorse(morse[m]);
+        }
+    }
+
+    /**
+     * Resultado de uma etapa com uma quantidade de threads
+     */
+    public static final class Round {
+        final int threads;
+        final long operations;
+        final long chars;
+        final long mismatches;
+        final long elapsedNanos;
+
+        Round(int threads, long operations, long chars, long mismatches, long elapsedNanos) {
+            this.threads = threads;
+            this.operations = operations;
+            this.chars = chars;
+            this.mismatches = mismatches;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double operationsPerSecond() {
+            return operations / (elapsedNanos / 1e9);
+        }
+
+        double megacharsPerSecond() {
+            return chars / 1e6 / (elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Codifica e decodifica com várias threads durante um tempo fixo
+     * @param threads Quantidade de threads
+     * @param millis Duração da etapa
+     * @return Vazão e divergências da etapa
+     */
+    public Round run(int threads, long millis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        LongAdder chars = new LongAdder();
+        LongAdder mismatches = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicLong deadline = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int first = t * 31;  // Cada thread começa em uma mensagem diferente
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long ops = 0;
+                long processed = 0;
+                long wrong = 0;
+                int m = first;
+                while (System.nanoTime() < deadline.get()) {
+                    m = (m + 1) % MESSAGES;
+                    switch (m % 3) {
+                        case 0:
+                            wrong += shared.encodeText(texts[m]).equals(expectedEncoded[m]) ? 0 : 1;
+                            processed += texts[m].length();
+                            break;
+                        case 1:
+                            wrong += shared.decodeMorse(morse[m]).equals(expectedDecoded[m]) ? 0 : 1;
+                            processed += morse[m].length();
+                            break;
+                        default:
+                            wrong += shared.tolerant().decodeMorse(morse[m]).equals(expectedTolerant[m]) ? 0 : 1;
+                            processed += morse[m].length();
+                            break;
+                    }
+                    ops++;
+                }
+                operations.add(ops);
+                chars.add(processed);
+                mismatches.add(wrong);
+            }, "morse-check-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        deadline.set(start + millis * 1_000_000L);
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return new Round(threads, operations.sum(), chars.sum(), mismatches.sum(), System.nanoTime() - start);
+    }
+
+    // Decodificador publicado sem sincronização na verificação de publicação
+    private MorseDecoder racy;
+
+    /**
+     * Uma thread cria decodificadores novos e os publica em um campo comum
+     * enquanto as outras os usam assim que aparecem
+     * @param readers Quantidade de threads leitoras
+     * @param millis Duração da verificação
+     * @return Quantidade de leituras que viram um decodificador incompleto ou com resultado errado
+     */
+    public long checkPublication(int readers, long millis) throws InterruptedException {
+        MorseCodeTable table = shared.getTable();
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        LongAdder failures = new LongAdder();
+        racy = shared;
+
+        Thread writer = new Thread(() -> {
+            while (System.nanoTime() < deadline) {
+                racy = new MorseDecoder(table);
+            }
+        }, "morse-check-writer");
+        List<Thread> threads = new ArrayList<>();
+        threads.add(writer);
+        for (int r = 0; r < readers; r++) {
+            int m = r % MESSAGES;
+            threads.add(new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        MorseDecoder seen = racy;
+                        if (!seen.decodeMorse(morse[m]).equals(expectedDecoded[m])
+                                || !seen.encodeText(texts[m]).equals(expectedEncoded[m])) {
+                            failures.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                }
+            }, "morse-check-reader-" + r));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return failures.sum();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = 2 * cores;
+        long millis = 2000;
+        String tableName = MorseCodeTable.DEFAULT;
+        try {
+            if (args.length > 0) {
+                maxThreads = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                millis = Math.round(Double.parseDouble(args[1]) * 1000);
+            }
+            if (args.length > 2) {
+                tableName = args[2];
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Uso: MorseConcurrencyCheck [máximo de threads] [segundos por etapa] [tabela]");
+            System.exit(2);
+            return;
+        }
+
+        MorseConcurrencyCheck check = new MorseConcurrencyCheck(tableName);
+        System.out.printf(Locale.ROOT, "Tabela: %s | Núcleos: %d | %d mensagens de %d caracteres%n",
+                tableName, cores, MESSAGES, MESSAGE_LENGTH);
+
+        // Aquecimento: deixa o JIT compilar antes das medições
+        check.run(1, Math.min(millis, 1000));
+
+        System.out.println("Threads |     Ops/s |  M car/s | Ganho | Eficiência | Divergências");
+        long totalMismatches = 0;
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            Round round = check.run(threads, millis);
+            if (threads == 1) {
+                baseline = round.operationsPerSecond();
+            }
+            double speedup = round.operationsPerSecond() / baseline;
+            System.out.printf(Locale.ROOT, "%7d | %9.0f | %8.2f | %5.2f | %9.0f%% | %d%n",
+                    threads, round.operationsPerSecond(), round.megacharsPerSecond(),
+                    speedup, 100 * speedup / Math.min(threads, cores), round.mismatches);
+            totalMismatches += round.mismatches;
+        }
+
+        long publicationFailures = check.checkPublication(Math.max(1, cores - 1), millis);
+        System.out.println("Publicação sem sincronização: " + publicationFailures + " falhas");
+
+        boolean ok = totalMismatches == 0 && publicationFailures == 0;
+        System.out.println(ok ? "OK: nenhuma divergência do resultado de uma thread"
+                : "FALHA: resultados divergentes entre threads");
+        System.exit(ok ? 0 : 1);
+    }
+}
@@ -1,151 +1,348 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 // Classe principal para o codificador/decodificador de código morse
+//
+// Instâncias são garantidamente imutáveis: a árvore, o mapa (somente
+// leitura) e as tabelas compiladas ficam em campos finais, são montados no
+// construtor e nunca mais alterados, e nenhum array sai da classe. As
+// classes do pacote que montam índices próprios recebem cópias
+// (copyDecodeTable, copyAsciiEncodeTable), e decodeMorse entrega a tabela
+// ao seu MorseStreamDecoder, que a guarda em um campo privado e só a lê. A
+// única parte montada depois é o índice tolerante, criado no primeiro uso e
+// publicado por um campo volátil. Por isso um mesmo decodificador pode ser
+// usado por várias threads ao mesmo tempo sem sincronização; forTable
+// devolve uma instância compartilhada por tabela.
 public class MorseDecoder {
-    private MorseNode root;
-    private Map<Character, String> charToMorseMap;
+    // Marcador devolvido quando uma sequência não corresponde a nenhum caractere
+    public static final char UNKNOWN = '\0';
 
-    // Construtor que inicializa a árvore de morse
+    // Tamanho mínimo da entrada (em caracteres) para decodificar em paralelo
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+    private final MorseNode root;
+    private final Map<Character, String> charToMorseMap;
+
+    // Tabela de decodificação indexada como um heap binário: raiz = 1,
+    // ponto = 2i, traço = 2i + 1. Posições vazias guardam UNKNOWN.
+    private final char[] decodeTable;
+
+    // Códigos morse pré-computados em bytes ASCII, indexados pelo próprio
+    // byte de entrada (0-127). Minúsculas apontam para o código da maiúscula.
+    private final byte[][] asciiEncodeTable;
+
+    // Os mesmos códigos como Strings, para encodeText com entrada só ASCII
+    private final String[] asciiCodes;
+
+    // Maior nome de prosinal da tabela, com < e >; 0 se a tabela não tem prosinais
+    private final int maxProsignLength;
+
+    // Tabela de códigos usada para montar a árvore
+    private final MorseCodeTable table;
+
+    // Tempo gasto montando a árvore e compilando as tabelas de consulta
+    private final long buildNanos;
+
+    // Índice de vizinhos para a decodificação tolerante, montado no primeiro uso.
+    // Volátil para publicação segura; duas threads podem montá-lo ao mesmo
+    // tempo, mas os dois resultados são iguais.
+    private volatile TolerantDecoder tolerant;
+
+    // Decodificadores compartilhados, um por tabela (ver forTable)
+    private static final Map<String, MorseDecoder> SHARED = new ConcurrentHashMap<>();
+
+    // Construtor que inicializa a árvore de morse com a tabela padrão
+    // (letras e algarismos internacionais)
     public MorseDecoder() {
-        // Inicializa a árvore com um nó raiz vazio
-        root = new MorseNode();
-
-        // Inicializa o mapa para codificação rápida
-        charToMorseMap = new HashMap<>();
-
-        // Popula a árvore com o padrão de código morse
-        insertMorseCode('A', ".-");
-        insertMorseCode('B', "-...");
-        insertMorseCode('C', "-.-.");
-        insertMorseCode('D', "-..");
-        insertMorseCode('E', ".");
-        insertMorseCode('F', "..-.");
-        insertMorseCode('G', "--.");
-        insertMorseCode('H', "....");
-        insertMorseCode('I', "..");
-        insertMorseCode('J', ".---");
-        insertMorseCode('K', "-.-");
-        insertMorseCode('L', ".-..");
-        insertMorseCode('M', "--");
-        insertMorseCode('N', "-.");
-        insertMorseCode('O', "---");
-        insertMorseCode('P', ".--.");
-        insertMorseCode('Q', "--.-");
-        insertMorseCode('R', ".-.");
-        insertMorseCode('S', "...");
-        insertMorseCode('T', "-");
-        insertMorseCode('U', "..-");
-        insertMorseCode('V', "...-");
-        insertMorseCode('W', ".--");
-        insertMorseCode('X', "-..-");
-        insertMorseCode('Y', "-.--");
-        insertMorseCode('Z', "--..");
-        insertMorseCode('1', ".----");
-        insertMorseCode('2', "..---");
-        insertMorseCode('3', "...--");
-        insertMorseCode('4', "....-");
-        insertMorseCode('5', ".....");
-        insertMorseCode('6', "-....");
-        insertMorseCode('7', "--...");
-        insertMorseCode('8', "---..");
-        insertMorseCode('9', "----.");
-        insertMorseCode('0', "-----");
-        insertMorseCode(' ', "/");   // Espaço é codificado como "/"
-    }
-
-    // Insere um caractere na árvore com sua sequência morse
+        this(MorseCodeTable.get(MorseCodeTable.DEFAULT));
+    }
+
+    // Construtor que inicializa a árvore de morse a partir de uma tabela
+    // @param table A tabela de códigos
+    public MorseDecoder(MorseCodeTable table) {
+        long start = System.nanoTime();
+        this.table = table;
+
+        // A tabela de decodificação é dimensionada pelo maior código
+        int maxLength = 0;
+        for (int i = 0; i < table.size(); i++) {
+            maxLength = Math.max(maxLength, table.code(i).length());
+        }
+        int size = 1 << (maxLength + 2);
+        char[] characters = new char[size];
+        String[] codes = new String[size];
+        boolean[] present = new boolean[size];
+        present[1] = true;
+
+        // Mapa para codificação rápida e posições no heap; o último declarado vence
+        Map<Character, String> map = new HashMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            insertMorseCode(map, characters, codes, present, table.character(i), table.code(i));
+        }
+        insertMorseCode(map, characters, codes, present, ' ', "/");   // Espaço é codificado como "/"
+
+        // Congela a árvore (das folhas para a raiz) e o mapa
+        root = buildNode(characters, codes, present, 1);
+        charToMorseMap = Collections.unmodifiableMap(map);
+        decodeTable = characters;
+        asciiEncodeTable = compileAsciiEncodeTable(charToMorseMap);
+        asciiCodes = compileAsciiCodes(charToMorseMap);
+        int longestProsign = 0;
+        for (int i = 0; i < table.size(); i++) {
+            if (MorseCodeTable.isProsign(table.character(i))) {
+                longestProsign = Math.max(longestProsign, MorseCodeTable.label(table.character(i)).length());
+            }
+        }
+        maxProsignLength = longestProsign;
+        buildNanos = System.nanoTime() - start;
+    }
+
+    // Obtém o decodificador compartilhado de uma tabela, montando-o na primeira vez
+    // @param tableName O nome da tabela (ver MorseCodeTable.availableTables)
+    // @return O decodificador da tabela
+    public static MorseDecoder forTable(String tableName) {
+        MorseDecoder decoder = SHARED.get(tableName);
+        if (decoder == null) {
+            decoder = new MorseDecoder(MorseCodeTable.get(tableName));
+            MorseDecoder previous = SHARED.putIfAbsent(tableName, decoder);
+            if (previous != null) {
+                decoder = previous;
+            }
+        }
+        return decoder;
+    }
+
+    // Obtém o decodificador tolerante a erros desta tabela, montando-o na primeira vez
+    // @return O decodificador que troca sequências inválidas pelo código mais próximo
+    public TolerantDecoder tolerant() {
+        TolerantDecoder result = tolerant;
+        if (result == null) {
+            result = new TolerantDecoder(this);
+            tolerant = result;
+        }
+        return result;
+    }
+
+    // Copia a tabela de decodificação indexada como heap (raiz = 1, ponto = 2i,
+    // traço = 2i + 1), para as classes do pacote que montam seus índices uma vez
+    // @return Uma cópia só de quem a recebe
+    char[] copyDecodeTable() {
+        return decodeTable.clone();
+    }
+
+    // Copia os códigos morse em bytes ASCII indexados pelo byte de entrada,
+    // para o MorseByteEncoder
+    // @return Uma cópia (dos códigos também) só de quem a recebe
+    byte[][] copyAsciiEncodeTable() {
+        byte[][] copy = new byte[asciiEncodeTable.length][];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = asciiEncodeTable[i] != null ? asciiEncodeTable[i].clone() : null;
+        }
+        return copy;
+    }
+
+    // Obtém a tabela de códigos do decodificador
+    // @return A tabela usada na construção
+    public MorseCodeTable getTable() {
+        return table;
+    }
+
+    // Obtém o tempo gasto montando a árvore e as tabelas de consulta
+    // @return O tempo em nanossegundos (sem contar a leitura do recurso)
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    // Registra um caractere no mapa e na sua posição do heap
+    // (raiz = 1, ponto = 2i, traço = 2i + 1), marcando os nós do caminho
     // @param character O caractere a ser inserido
     // @param morseCode A sequência morse correspondente
-    private void insertMorseCode(char character, String morseCode) {
+    private static void insertMorseCode(Map<Character, String> map, char[] characters, String[] codes,
+                                        boolean[] present, char character, String morseCode) {
         // Adiciona ao mapa para codificação rápida
-        charToMorseMap.put(character, morseCode);
+        map.put(character, morseCode);
 
-        MorseNode current = root;
+        int index = 1;
 
-        // Percorre a sequência morse para inserir o caractere no local correto
+        // Percorre a sequência morse para achar a posição do caractere
         for (int i = 0; i < morseCode.length(); i++) {
             char symbol = morseCode.charAt(i);
 
             if (symbol == '.') {  // Ponto vai para a esquerda
-                if (current.left == null) {
-                    current.left = new MorseNode();
-                }
-                current = current.left;
+                index = index << 1;
             } else if (symbol == '-') {  // Traço vai para a direita
-                if (current.right == null) {
-                    current.right = new MorseNode();
-                }
-                current = current.right;
+                index = (index << 1) | 1;
+            } else {
+                continue;
             }
+            present[index] = true;
         }
 
         // Define o caractere no nó final
-        current.character = character;
-        current.morseCode = morseCode;
+        characters[index] = character;
+        codes[index] = morseCode;
     }
 
-    // Converte uma sequência morse em um caractere utilizando a árvore
-    // @param sequence A sequência morse a ser convertida
-    // @return O caractere correspondente à sequência morse
-    public char morseToChar(String sequence) {
-        return morseToChar(root, sequence, 0);
+    // Monta o nó de uma posição do heap e, recursivamente, seus filhos
+    // @return O nó, ou null se nenhum código passa por essa posição
+    private static MorseNode buildNode(char[] characters, String[] codes, boolean[] present, int index) {
+        if (index >= present.length || !present[index]) {
+            return null;
+        }
+        return new MorseNode(characters[index], codes[index] != null ? codes[index] : "",
+                buildNode(characters, codes, present, index << 1),
+                buildNode(characters, codes, present, (index << 1) | 1));
     }
 
-    // Metodo recursivo auxiliar para converter morse em caractere
-    // @param node O nó atual na árvore
-    // @param sequence A sequência morse completa
-    // @param i O índice atual na sequência
-    // @return O caractere encontrado
-    private char morseToChar(MorseNode node, String sequence, int i) {
-        // Caso base: chegou ao final da sequência
-        if (i == sequence.length()) {
-            return node.character;
+    // Compila o mapa de codificação em uma tabela de 128 posições com os
+    // códigos já convertidos para bytes ASCII
+    // @param map O mapa caractere -> código morse
+    // @return A tabela indexada pelo byte ASCII de entrada
+    private static byte[][] compileAsciiEncodeTable(Map<Character, String> map) {
+        byte[][] table = new byte[128][];
+        for (char c = 0; c < table.length; c++) {
+            String morse = map.get(Character.toUpperCase(c));
+            if (morse != null) {
+                table[c] = morse.getBytes(StandardCharsets.US_ASCII);
+            }
         }
+        return table;
+    }
 
-        // Navega à esquerda para '.' (ponto)
-        if (sequence.charAt(i) == '.') {
-            return morseToChar(node.left, sequence, i + 1);
-        } else if (sequence.charAt(i) == '-') {
-        // Navega à direita para '-' (traço)
-            return morseToChar(node.right, sequence, i + 1);
+    private static String[] compileAsciiCodes(Map<Character, String> map) {
+        String[] codes = new String[128];
+        for (char c = 0; c < codes.length; c++) {
+            codes[c] = map.get(Character.toUpperCase(c));
         }
-        else {
-            return '\0';
+        return codes;
+    }
+
+    // Obtém o código morse de um caractere (maiúsculas e minúsculas são equivalentes)
+    // @param character O caractere a ser consultado
+    // @return O código morse, ou null se o caractere não tiver código
+    public String getMorseCode(char character) {
+        return charToMorseMap.get(Character.toUpperCase(character));
+    }
+
+    // Converte uma sequência morse em um caractere utilizando a tabela compilada
+    // @param sequence A sequência morse a ser convertida
+    // @return O caractere correspondente, ou UNKNOWN se a sequência for inválida
+    public char morseToChar(String sequence) {
+        return morseToChar(sequence, 0, sequence.length());
+    }
+
+    // Converte o trecho [start, end) de uma sequência morse em um caractere.
+    // Não aloca memória: cada símbolo apenas desloca o índice no heap.
+    // @param sequence A sequência que contém o código morse
+    // @param start Índice inicial (inclusivo)
+    // @param end Índice final (exclusivo)
+    // @return O caractere correspondente, ou UNKNOWN se a sequência for inválida
+    public char morseToChar(CharSequence sequence, int start, int end) {
+        char[] table = decodeTable;
+        int index = 1;
+
+        for (int i = start; i < end; i++) {
+            char symbol = sequence.charAt(i);
+            if (symbol == '.') {         // Ponto: filho esquerdo
+                index = index << 1;
+            } else if (symbol == '-') {  // Traço: filho direito
+                index = (index << 1) | 1;
+            } else {
+                return UNKNOWN;
+            }
+            // Saiu da árvore: nenhuma sequência mais longa é válida
+            if (index >= table.length) {
+                return UNKNOWN;
+            }
         }
+
+        return table[index];
     }
 
     // Decodifica uma string de código morse em texto
     // @param morseString A string de código morse com sequências separadas por espaço
     // @return O texto decodificado
     public String decodeMorse(String morseString) {
-        StringBuilder decoded = new StringBuilder();
-        String[] sequences = morseString.split(" ");
-
-        for (String sequence : sequences) {
-            if (sequence.equals("/")) {
-                decoded.append(' ');  // '/' representa um espaço
-            } else if (!sequence.isEmpty()) {
-                decoded.append(morseToChar(sequence));
-            }
-        }
+        MorseEvents.Decode event = new MorseEvents.Decode();
+        event.begin();
+        long start = MorseMetrics.startTimer();
+        StringBuilder decoded = new StringBuilder(morseString.length() / 3 + 1);
+        // A própria tabela, sem cópia: o stream a guarda em um campo privado e só a lê
+        MorseStreamDecoder stream = new MorseStreamDecoder(decodeTable, UNKNOWN, decoded::append);
 
+        stream.feed(morseString, 0, morseString.length());
+        stream.finish();
+
+        MorseMetrics.recordDecodeLatency(start);
+        if (event.shouldCommit()) {
+            event.table = table.getName();
+            event.inputLength = morseString.length();
+            event.outputLength = decoded.length();
+            event.commit();
+        }
         return decoded.toString();
     }
 
-    // Codifica texto normal em código morse
+    // Decodifica uma string de código morse em paralelo, no pool comum,
+    // dividindo-a em blocos de DEFAULT_PARALLEL_THRESHOLD caracteres
+    // @param morseString A string de código morse com sequências separadas por espaço
+    // @return O texto decodificado, idêntico ao de decodeMorse
+    public String decodeMorseParallel(String morseString) {
+        return decodeMorseParallel(morseString, DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    // Decodifica uma string de código morse em paralelo
+    // @param morseString A string de código morse com sequências separadas por espaço
+    // @param threshold Tamanho aproximado de cada bloco; entradas menores são decodificadas sem dividir
+    // @param pool O pool que executará os blocos
+    // @return O texto decodificado, idêntico ao de decodeMorse
+    public String decodeMorseParallel(String morseString, int threshold, ForkJoinPool pool) {
+        return new ParallelMorseDecoder(this, threshold).decode(morseString, pool);
+    }
+
+    // Codifica texto normal em código morse. Prosinais da tabela são escritos
+    // pelo nome entre < e > (ex.: "CQ <SK>") e viram um único código
     // @param text O texto a ser codificado
     // @return A sequência morse correspondente
     public String encodeText(String text) {
+        MorseEvents.Encode event = new MorseEvents.Encode();
+        event.begin();
+        long start = MorseMetrics.startTimer();
         StringBuilder encoded = new StringBuilder();
-        text = text.toUpperCase();  // Converte para maiúsculas para simplificar
+        // Texto só ASCII (o caso comum) dispensa toUpperCase e o mapa: a
+        // tabela asciiCodes já leva minúsculas ao código da maiúscula
+        boolean ascii = MorseScanner.get().indexOfNonAscii(text) < 0;
+        if (!ascii) {
+            text = text.toUpperCase();  // Converte para maiúsculas para simplificar
+        }
+        int codes = 0;
+        int encodedChars = 0;
 
         for (int i = 0; i < text.length(); i++) {
             char c = text.charAt(i);
-            String morse = charToMorseMap.get(c);
+            String morse = ascii ? asciiCodes[c] : charToMorseMap.get(c);
+            int consumed = 1;
+
+            if (c == '<' && maxProsignLength > 0) {
+                int end = text.indexOf('>', i + 1);
+                String prosign = end > 0 && end - i < maxProsignLength
+                        ? prosignCode(text.substring(i, end + 1)) : null;
+                if (prosign != null) {
+                    morse = prosign;
+                    consumed = end - i + 1;
+                    i = end;
+                }
+            }
 
             if (morse != null) {
                 encoded.append(morse);
+                codes++;
+                encodedChars += consumed;
                 // Adiciona espaço entre caracteres
                 if (i < text.length() - 1) {
                     encoded.append(" ");
@@ -153,9 +350,25 @@ public class MorseDecoder {
             }
         }
 
+        MorseMetrics.recordEncode(text.length(), encodedChars, start);
+        if (event.shouldCommit()) {
+            event.table = table.getName();
+            event.inputLength = text.length();
+            event.outputLength = encoded.length();
+            event.unencodable = text.length() - encodedChars;
+            event.commit();
+        }
         return encoded.toString();
     }
 
+    // Obtém o código de um prosinal desta tabela
+    // @param label O nome do prosinal com < e >, em qualquer caixa
+    // @return O código morse, ou null se a tabela não tiver o prosinal
+    private String prosignCode(String label) {
+        char prosign = MorseCodeTable.findProsign(label.toUpperCase(Locale.ROOT));
+        return prosign == UNKNOWN ? null : charToMorseMap.get(prosign);
+    }
+
     // Codifica texto normal em código morse
     // @param text O texto a ser codificado
     // @return A sequência morse correspondente
@@ -0,0 +1,138 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Eventos do JDK Flight Recorder emitidos pela conversão, pela animação e
+ * pelo áudio, para que uma gravação mostre lado a lado o tempo gasto
+ * decodificando, pintando, gerando tons e em GC.
+ *
+ * Todos vêm desligados e são ativados pelo perfil {@code src/morse.jfc}:
+ * <pre>
+ * java -XX:StartFlightRecording:settings=default,settings=src/morse.jfc,filename=morse.jfr -cp out Main
+ * </pre>
+ * Os pontos de medição seguem o padrão do JFR: {@code begin()} antes do
+ * trabalho e {@code commit()} só se {@code shouldCommit()}. Sem gravação
+ * ativa, o JIT elimina a criação do evento e o custo fica em um teste.
+ */
+final class MorseEvents {
+
+    private MorseEvents() {
+    }
+
+    @Name("morse.Encode")
+    @Label("Codificação")
+    @Description("Uma chamada de MorseDecoder.encodeText")
+    @Category({"Morse", "Conversão"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Encode extends Event {
+        @Label("Tabela")
+        String table;
+
+        @Label("Entrada")
+        @DataAmount(DataAmount.BYTES)
+        long inputLength;
+
+        @Label("Saída")
+        @DataAmount(DataAmount.BYTES)
+        long outputLength;
+
+        @Label("Caracteres sem código")
+        long unencodable;
+    }
+
+    @Name("morse.Decode")
+    @Label("Decodificação")
+    @Description("Uma chamada de decodeMorse (exata ou tolerante a erros)")
+    @Category({"Morse", "Conversão"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Decode extends Event {
+        @Label("Tabela")
+        String table;
+
+        @Label("Tolerante")
+        boolean tolerant;
+
+        @Label("Entrada")
+        @DataAmount(DataAmount.BYTES)
+        long inputLength;
+
+        @Label("Saída")
+        @DataAmount(DataAmount.BYTES)
+        long outputLength;
+    }
+
+    @Name("morse.AnimationTick")
+    @Label("Passo da animação")
+    @Description("Um disparo do Timer de AnimatedTreeVisualizer")
+    @Category({"Morse", "Interface"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class AnimationTick extends Event {
+        @Label("Passo")
+        int step;
+
+        @Label("Tamanho do caminho")
+        int pathLength;
+
+        @Label("Atraso configurado")
+        @Timespan(Timespan.MILLISECONDS)
+        long delay;
+    }
+
+    @Name("morse.Paint")
+    @Label("Pintura")
+    @Description("Uma passada de paintComponent de AnimatedTreeVisualizer")
+    @Category({"Morse", "Interface"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Paint extends Event {
+        @Label("Animando")
+        boolean animating;
+
+        @Label("Largura do recorte")
+        int clipWidth;
+
+        @Label("Altura do recorte")
+        int clipHeight;
+    }
+
+    @Name("morse.ToneGenerated")
+    @Label("Geração de tom")
+    @Description("Obtenção de um Clip do ToneBank (gera o PCM e abre a linha se não estiver em cache)")
+    @Category({"Morse", "Áudio"})
+    @Enabled(false)
+    static final class ToneGenerated extends Event {
+        @Label("Frequência (Hz)")
+        float frequency;
+
+        @Label("Duração do tom")
+        @Timespan(Timespan.MILLISECONDS)
+        long toneDuration;
+    }
+
+    @Name("morse.Clip")
+    @Label("Clip de áudio")
+    @Description("Início ou parada de um Clip de ponto ou traço")
+    @Category({"Morse", "Áudio"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Clip extends Event {
+        @Label("Ação")
+        String action;
+
+        @Label("Símbolo")
+        char symbol;
+
+        @Label("Interrompeu o anterior")
+        boolean restarted;
+    }
+}
@@ -0,0 +1,530 @@
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serviço HTTP de codificação e decodificação, sem interface gráfica.
+ *
+ * Usa o servidor embutido do JDK ({@code com.sun.net.httpserver}) e atende
+ * cada requisição em uma thread virtual quando a JVM oferece
+ * ({@code Executors.newVirtualThreadPerTaskExecutor}, Java 21+); em versões
+ * anteriores usa um pool de threads comuns que cresce conforme a demanda.
+ * Todas as requisições compartilham os decodificadores de
+ * {@link MorseDecoder#forTable(String)}, um por tabela.
+ *
+ * Rotas:
+ * <ul>
+ *   <li>{@code POST /encode} — texto → morse;</li>
+ *   <li>{@code POST /decode} — morse → texto ({@code ?tolerant=true} corrige erros);</li>
+ *   <li>{@code POST /batch?mode=encode|decode} — converte cada linha do corpo separadamente;</li>
+ *   <li>{@code GET /health} — estado e contadores em JSON.</li>
+ * </ul>
+ * Só o caminho exato é atendido: {@code /encodefoo} ou {@code /decode/x}
+ * respondem 404, e um método errado 405. Esses erros também entram na
+ * contagem de erros, junto com os 400 e 500.
+ * Todas as conversões aceitam {@code ?table=<nome>} (padrão: a tabela
+ * internacional). Corpos pequenos são convertidos de uma vez e respondidos
+ * com tamanho fixo; corpos grandes ou sem tamanho (chunked) são lidos e
+ * respondidos aos poucos, com memória constante.
+ *
+ * Uso: {@code java Main --server [porta] [endereço]} (padrão: 8080 em 127.0.0.1)
+ */
+public class MorseHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+
+    // Corpos até este tamanho são lidos inteiros e respondidos com Content-Length
+    private static final int SMALL_BODY = 64 * 1024;
+    // Caracteres lidos por vez nas conversões em fluxo
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final String TEXT_PLAIN = "text/plain; charset=utf-8";
+    private static final String JSON = "application/json";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final long startNanos = System.nanoTime();
+
+    // Contadores atualizados pelas threads das requisições
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    // Contadores do processo inteiro, também publicados via JMX
+    private final MorseMetrics metrics = MorseMetrics.getInstance();
+
+    /**
+     * Cria o servidor (ainda parado)
+     * @param address Endereço e porta; porta 0 escolhe uma livre
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public MorseHttpServer(InetSocketAddress address) throws IOException {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor();
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        // Os contextos casam por prefixo; handle confere o caminho exato
+        route("/encode", "POST", TEXT_PLAIN, this::encode);
+        route("/decode", "POST", TEXT_PLAIN, this::decode);
+        route("/batch", "POST", TEXT_PLAIN, this::batch);
+        route("/health", "GET", JSON, this::health);
+        server.createContext("/", exchange -> handle(exchange, null, null, TEXT_PLAIN, this::notFound));
+    }
+
+    private void route(String path, String method, String contentType, Conversion conversion) {
+        server.createContext(path, exchange -> handle(exchange, path, method, contentType, conversion));
+    }
+
+    /**
+     * Começa a aceitar conexões
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Para de aceitar conexões e encerra as threads
+     * @param delaySeconds Tempo máximo de espera pelas requisições em andamento
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * @return A porta em que o servidor escuta (útil quando criado com porta 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return true se as requisições rodam em threads virtuais
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Cria um executor com uma thread virtual por tarefa, se a JVM tiver
+     * (chamado por reflexão para compilar com --release 17)
+     * @return O executor, ou null se threads virtuais não estiverem disponíveis
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 17-20, ou Java 19/20 sem --enable-preview
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "morse-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Corpo de uma rota: lê a entrada e escreve a resposta
+     */
+    private interface Conversion {
+        void convert(Map<String, String> query, Reader in, Writer out) throws IOException;
+    }
+
+    /**
+     * Parâmetro inválido na requisição, respondido com 400
+     */
+    private static final class BadRequestException extends IllegalArgumentException {
+        BadRequestException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Rota inexistente, respondida com 404
+     */
+    private static final class NotFoundException extends RuntimeException {
+        NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Parte comum das rotas: caminho, método, parâmetros, erros e contadores
+     * @param path O caminho exato da rota, ou null para responder 404 a qualquer um
+     */
+    private void handle(HttpExchange exchange, String path, String method, String contentType,
+                        Conversion conversion) {
+        long start = System.nanoTime();
+        requests.increment();
+        try {
+            if (path == null || !path.equals(exchange.getRequestURI().getPath())) {
+                conversion = this::notFound;  // /encodefoo, /decode/x, /healthz...
+            } else if (!method.equals(exchange.getRequestMethod())) {
+                countError();
+                exchange.getResponseHeaders().set("Allow", method);
+                sendText(exchange, 405, "Método não permitido; use " + method + "\n");
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            respond(exchange, query, contentType, conversion);
+        } catch (BadRequestException e) {
+            countError();
+            sendError(exchange, 400, e.getMessage());
+        } catch (NotFoundException e) {
+            countError();
+            sendError(exchange, 404, e.getMessage());
+        } catch (IOException e) {
+            // Cliente desconectou ou corpo truncado: não há como responder
+            countError();
+        } catch (RuntimeException e) {
+            // Os detalhes ficam no log do servidor, não na resposta
+            countError();
+            System.err.println("Erro em " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Erro interno");
+        } finally {
+            exchange.close();
+            busyNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Conta uma requisição com erro aqui (/health) e nas métricas do processo (JMX)
+     */
+    private void countError() {
+        errors.increment();
+        MorseMetrics.recordRequestError();
+    }
+
+    /**
+     * Converte o corpo da requisição. Corpos pequenos com tamanho conhecido
+     * são convertidos em memória e respondidos com Content-Length; os demais
+     * são respondidos em blocos (Transfer-Encoding: chunked) enquanto são lidos.
+     */
+    private void respond(HttpExchange exchange, Map<String, String> query, String contentType,
+                         Conversion conversion) throws IOException {
+        Headers headers = exchange.getRequestHeaders();
+        String lengthHeader = headers.getFirst("Content-Length");
+        // Sem Content-Length nem Transfer-Encoding, a requisição não tem corpo
+        long length = lengthHeader != null ? parseContentLength(lengthHeader)
+                : headers.containsKey("Transfer-Encoding") ? -1 : 0;
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+
+        if (length >= 0 && length <= SMALL_BODY) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            bytesIn.add(body.length);
+            StringWriter out = new StringWriter();
+            conversion.convert(query, new StringReader(new String(body, StandardCharsets.UTF_8)), out);
+            byte[] response = out.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+            if (response.length > 0) {
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(response);
+                }
+            }
+            bytesOut.add(response.length);
+            return;
+        }
+
+        // Valida os parâmetros (com uma entrada vazia) antes de enviar o cabeçalho 200
+        conversion.convert(query, new StringReader(""), Writer.nullWriter());
+        exchange.sendResponseHeaders(200, 0);
+        CountingInputStream in = new CountingInputStream(exchange.getRequestBody());
+        CountingOutputStream os = new CountingOutputStream(exchange.getResponseBody());
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), CHUNK_SIZE)) {
+            conversion.convert(query, reader, writer);
+        } finally {
+            bytesIn.add(in.count);
+            bytesOut.add(os.count);
+        }
+    }
+
+    private static long parseContentLength(String header) {
+        try {
+            long length = Long.parseLong(header.trim());
+            if (length >= 0) {
+                return length;
+            }
+        } catch (NumberFormatException e) {
+            // Tratado abaixo
+        }
+        throw new BadRequestException("Content-Length inválido: " + header);
+    }
+
+    /**
+     * Responde com um erro, se a resposta ainda não tiver começado
+     */
+    private void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;  // Cabeçalho 200 já enviado em uma resposta em fluxo
+        }
+        try {
+            sendText(exchange, status, message + "\n");
+        } catch (IOException ignored) {
+            // Cliente já desconectou
+        }
+    }
+
+    private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] response = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", TEXT_PLAIN);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+        bytesOut.add(response.length);
+    }
+
+    // ---- Rotas ----
+
+    private void encode(Map<String, String> query, Reader in, Writer out) throws IOException {
+        MorseDecoder decoder = decoder(query);
+        char[] chunk = new char[CHUNK_SIZE];
+        boolean first = true;
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            first = encode(decoder, chunk, read, out, first);
+        }
+    }
+
+    private void decode(Map<String, String> query, Reader in, Writer out) throws IOException {
+        StringBuilder decoded = new StringBuilder();
+        MorseStreamDecoder stream = streamDecoder(query, decoded);
+        char[] chunk = new char[CHUNK_SIZE];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            stream.feed(chunk, 0, read);
+            out.append(decoded);
+            decoded.setLength(0);
+        }
+        stream.finish();
+        out.append(decoded);
+    }
+
+    private void batch(Map<String, String> query, Reader in, Writer out) throws IOException {
+        String mode = query.getOrDefault("mode", "decode");
+        boolean encode;
+        if (mode.equals("encode")) {
+            encode = true;
+        } else if (mode.equals("decode")) {
+            encode = false;
+        } else {
+            throw new BadRequestException("mode inválido: " + mode + " (use encode ou decode)");
+        }
+
+        MorseDecoder decoder = decoder(query);
+        StringBuilder decoded = new StringBuilder();
+        MorseStreamDecoder stream = encode ? null : streamDecoder(query, decoded);
+        BufferedReader lines = new BufferedReader(in, CHUNK_SIZE);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (encode) {
+                encode(decoder, line.toCharArray(), line.length(), out, true);
+            } else {
+                stream.feed(line, 0, line.length());
+                stream.finish();
+                out.append(decoded);
+                decoded.setLength(0);
+            }
+            out.write('\n');
+        }
+    }
+
+    private void health(Map<String, String> query, Reader in, Writer out) throws IOException {
+        long requestCount = requests.sum();
+        out.append(String.format(Locale.ROOT,
+                "{\"status\":\"UP\",\"uptimeSeconds\":%.1f,\"threads\":\"%s\",\"requests\":%d,\"errors\":%d,"
+                        + "\"bytesIn\":%d,\"bytesOut\":%d,\"averageMillis\":%.3f,"
+                        + "\"charactersEncoded\":%d,\"charactersDecoded\":%d,\"unknownSequences\":%d}\n",
+                (System.nanoTime() - startNanos) / 1e9, virtualThreads ? "virtual" : "platform",
+                requestCount, errors.sum(), bytesIn.sum(), bytesOut.sum(),
+                requestCount == 0 ? 0.0 : busyNanos.sum() / 1e6 / requestCount,
+                metrics.getCharactersEncoded(), metrics.getCharactersDecoded(), metrics.getUnknownSequences()));
+    }
+
+    private void notFound(Map<String, String> query, Reader in, Writer out) {
+        throw new NotFoundException("Rota desconhecida; use /encode, /decode, /batch ou /health");
+    }
+
+    // ---- Auxiliares ----
+
+    private static MorseDecoder decoder(Map<String, String> query) {
+        String table = query.getOrDefault("table", MorseCodeTable.DEFAULT);
+        try {
+            return MorseDecoder.forTable(table);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Tabela inválida: " + table);
+        }
+    }
+
+    /**
+     * Cria o decodificador incremental da requisição, que escreve em {@code sink}
+     * com os prosinais pelo nome
+     */
+    private static MorseStreamDecoder streamDecoder(Map<String, String> query, StringBuilder sink) {
+        MorseDecoder decoder = decoder(query);
+        MorseStreamDecoder.Sink append = c -> {
+            if (MorseCodeTable.isProsign(c)) {
+                sink.append(MorseCodeTable.label(c));
+            } else {
+                sink.append(c);
+            }
+        };
+        return Boolean.parseBoolean(query.get("tolerant"))
+                ? decoder.tolerant().streamDecoder(append)
+                : new MorseStreamDecoder(decoder, append);
+    }
+
+    /**
+     * Codifica um bloco, separando os códigos por espaço (como MorseProcessingWorker)
+     * @return Se ainda nenhum código foi escrito
+     */
+    private static boolean encode(MorseDecoder decoder, char[] chunk, int count, Writer out, boolean first)
+            throws IOException {
+        int codes = 0;
+        for (int i = 0; i < count; i++) {
+            String morse = decoder.getMorseCode(chunk[i]);
+            if (morse != null) {
+                if (!first) {
+                    out.write(' ');
+                }
+                out.write(morse);
+                first = false;
+                codes++;
+            }
+        }
+        MorseMetrics.recordEncode(count, codes, 0);
+        return first;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * Conta os bytes lidos do corpo da requisição
+     */
+    private static final class CountingInputStream extends java.io.FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Conta os bytes escritos no corpo da resposta
+     */
+    private static final class CountingOutputStream extends java.io.FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        // Respostas pequenas saem sem esperar o algoritmo de Nagle
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        MorseMetrics.register();
+
+        int port = DEFAULT_PORT;
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        try {
+            if (args.length > 0) {
+                port = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                host = args[1];
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Uso: MorseHttpServer [porta] [endereço]");
+            System.exit(2);
+            return;
+        }
+
+        try {
+            MorseHttpServer server = new MorseHttpServer(new InetSocketAddress(host, port));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            System.out.println("Servidor morse em http://" + host + ":" + server.getPort()
+                    + " (threads " + (server.usesVirtualThreads() ? "virtuais" : "comuns") + ")");
+        } catch (IOException e) {
+            System.err.println("Não foi possível abrir a porta " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
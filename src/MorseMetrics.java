@@ -0,0 +1,389 @@
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do processo: quanto foi codificado e decodificado, quantas
+ * sequências eram desconhecidas, quanto tempo as conversões e os quadros da
+ * animação levaram, quanto o tom lateral demorou a soar, quantas vezes o
+ * áudio ficou sem dados e quantas requisições do {@link MorseHttpServer}
+ * terminaram em erro.
+ *
+ * Os contadores são {@link LongAdder}s, que espalham as atualizações de
+ * threads diferentes em células separadas, e os tempos vão para histogramas
+ * com faixas em potências de 2 de nanossegundos. Os laços internos
+ * ({@link MorseStreamDecoder}, {@link MorseByteEncoder}) contam em campos
+ * próprios e publicam aqui só a cada bloco, nunca por caractere.
+ *
+ * Tudo é controlado pela constante {@link #ENABLED}, lida uma única vez de
+ * {@code -Dmorse.metrics=false}: desligada, cada chamada de registro é um
+ * teste de constante que o JIT elimina, e {@link #startTimer()} nem consulta
+ * o relógio.
+ *
+ * As mesmas métricas são publicadas via JMX como {@value #OBJECT_NAME}
+ * (ver {@link MorseMetricsMXBean}) e exibidas pelo {@link MetricsPanel}.
+ */
+public final class MorseMetrics implements MorseMetricsMXBean {
+    // Falso apenas com -Dmorse.metrics=false
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("morse.metrics"));
+
+    public static final String OBJECT_NAME = "morse:type=Metrics";
+
+    private static final MorseMetrics INSTANCE = new MorseMetrics();
+
+    private final LongAdder charactersEncoded = new LongAdder();
+    private final LongAdder charactersDecoded = new LongAdder();
+    private final LongAdder unknownSequences = new LongAdder();
+    private final LongAdder unencodableCharacters = new LongAdder();
+    private final LongAdder inputProcessed = new LongAdder();
+    private final LongAdder audioUnderruns = new LongAdder();
+    private final LongAdder requestErrors = new LongAdder();
+
+    private final Histogram encodeLatency = new Histogram();
+    private final Histogram decodeLatency = new Histogram();
+    private final Histogram frameTime = new Histogram();
+    private final Histogram sidetoneLatency = new Histogram();
+
+    private MorseMetrics() {
+    }
+
+    public static MorseMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registra as métricas no servidor de MBeans da plataforma. Chamadas
+     * repetidas não têm efeito, e nada é registrado com as métricas desligadas.
+     */
+    public static void register() {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Já registrado
+        } catch (JMException e) {
+            System.err.println("Não foi possível registrar as métricas via JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return O instante atual para medir uma operação, ou 0 com as métricas desligadas
+     */
+    public static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Registra uma codificação
+     * @param input Caracteres (ou bytes) de entrada consumidos
+     * @param encoded Quantos deles tinham código
+     * @param startNanos Valor de {@link #startTimer()} no início, ou 0 para não medir o tempo
+     */
+    public static void recordEncode(long input, long encoded, long startNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        MorseMetrics m = INSTANCE;
+        m.inputProcessed.add(input);
+        m.charactersEncoded.add(encoded);
+        if (input > encoded) {
+            m.unencodableCharacters.add(input - encoded);
+        }
+        if (startNanos != 0) {
+            m.encodeLatency.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Registra uma decodificação
+     * @param input Símbolos de entrada consumidos
+     * @param decoded Caracteres produzidos, incluindo os desconhecidos
+     * @param unknown Quantos deles eram sequências desconhecidas
+     */
+    public static void recordDecode(long input, long decoded, long unknown) {
+        if (!ENABLED) {
+            return;
+        }
+        MorseMetrics m = INSTANCE;
+        m.inputProcessed.add(input);
+        m.charactersDecoded.add(decoded);
+        if (unknown > 0) {
+            m.unknownSequences.add(unknown);
+        }
+    }
+
+    /**
+     * Registra o tempo de uma decodificação completa
+     * @param startNanos Valor de {@link #startTimer()} no início
+     */
+    public static void recordDecodeLatency(long startNanos) {
+        if (ENABLED && startNanos != 0) {
+            INSTANCE.decodeLatency.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Registra um quadro da animação da árvore
+     * @param startNanos Valor de {@link #startTimer()} no início da pintura
+     */
+    public static void recordFrame(long startNanos) {
+        if (ENABLED && startNanos != 0) {
+            INSTANCE.frameTime.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Registra que o buffer da saída de áudio esvaziou durante a reprodução
+     */
+    public static void recordAudioUnderrun() {
+        if (ENABLED) {
+            INSTANCE.audioUnderruns.increment();
+        }
+    }
+
+    /**
+     * Registra uma requisição HTTP respondida com erro (4xx ou 5xx) ou
+     * interrompida antes da resposta
+     */
+    public static void recordRequestError() {
+        if (ENABLED) {
+            INSTANCE.requestErrors.increment();
+        }
+    }
+
+    /**
+     * Registra a latência de um toque do tom lateral ({@link SidetoneKeyer})
+     * @param nanos Tempo entre pressionar a chave e o tom sair da saída de áudio
+     */
+    public static void recordSidetoneLatency(long nanos) {
+        if (ENABLED) {
+            INSTANCE.sidetoneLatency.record(nanos);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getCharactersEncoded() {
+        return charactersEncoded.sum();
+    }
+
+    @Override
+    public long getCharactersDecoded() {
+        return charactersDecoded.sum();
+    }
+
+    @Override
+    public long getUnknownSequences() {
+        return unknownSequences.sum();
+    }
+
+    @Override
+    public long getUnencodableCharacters() {
+        return unencodableCharacters.sum();
+    }
+
+    @Override
+    public long getInputProcessed() {
+        return inputProcessed.sum();
+    }
+
+    @Override
+    public long getAudioUnderruns() {
+        return audioUnderruns.sum();
+    }
+
+    @Override
+    public long getRequestErrors() {
+        return requestErrors.sum();
+    }
+
+    @Override
+    public long getAnimationFrames() {
+        return frameTime.count();
+    }
+
+    @Override
+    public HistogramSnapshot getEncodeLatency() {
+        return encodeLatency.snapshot();
+    }
+
+    @Override
+    public HistogramSnapshot getDecodeLatency() {
+        return decodeLatency.snapshot();
+    }
+
+    @Override
+    public HistogramSnapshot getFrameTime() {
+        return frameTime.snapshot();
+    }
+
+    @Override
+    public HistogramSnapshot getSidetoneLatency() {
+        return sidetoneLatency.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        charactersEncoded.reset();
+        charactersDecoded.reset();
+        unknownSequences.reset();
+        unencodableCharacters.reset();
+        inputProcessed.reset();
+        audioUnderruns.reset();
+        requestErrors.reset();
+        encodeLatency.reset();
+        decodeLatency.reset();
+        frameTime.reset();
+        sidetoneLatency.reset();
+    }
+
+    /**
+     * Histograma de durações com faixas em potências de 2: a faixa b guarda
+     * valores em [2^(b-1), 2^b) nanossegundos. Os percentis são aproximados
+     * pelo limite superior da faixa, com erro de no máximo 2×.
+     */
+    static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        // A contagem total é a soma das faixas: um contador a menos por registro
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        long count() {
+            long n = 0;
+            for (LongAdder bucket : buckets) {
+                n += bucket.sum();
+            }
+            return n;
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            total.reset();
+            max.reset();
+        }
+
+        HistogramSnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                n += counts[i];
+            }
+            long maxNanos = max.get();
+            return new HistogramSnapshot(n, n > 0 ? total.sum() / 1000.0 / n : 0,
+                    percentile(counts, n, 0.50, maxNanos) / 1000.0,
+                    percentile(counts, n, 0.90, maxNanos) / 1000.0,
+                    percentile(counts, n, 0.99, maxNanos) / 1000.0,
+                    maxNanos / 1000.0);
+        }
+
+        private static long percentile(long[] counts, long n, double quantile, long maxNanos) {
+            if (n == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(quantile * n);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts[b];
+                if (seen >= target) {
+                    long upper = b == 0 ? 0 : (1L << b) - 1;
+                    return Math.min(upper, maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+    /**
+     * Resumo de um histograma em microssegundos (exposto via JMX como CompositeData)
+     */
+    public static final class HistogramSnapshot {
+        private final long count;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p90Micros;
+        private final double p99Micros;
+        private final double maxMicros;
+
+        @ConstructorProperties({"count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "maxMicros"})
+        public HistogramSnapshot(long count, double meanMicros, double p50Micros, double p90Micros,
+                                 double p99Micros, double maxMicros) {
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP90Micros() {
+            return p90Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            if (count == 0) {
+                return "—";
+            }
+            return String.format(Locale.ROOT, "%d × | p50 %s | p99 %s | máx %s",
+                    count, micros(p50Micros), micros(p99Micros), micros(maxMicros));
+        }
+
+        private static String micros(double value) {
+            return value >= 1000 ? String.format(Locale.ROOT, "%.1f ms", value / 1000)
+                    : String.format(Locale.ROOT, "%.0f µs", value);
+        }
+    }
+}
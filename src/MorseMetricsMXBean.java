@@ -0,0 +1,57 @@
+/**
+ * Interface de gerenciamento (JMX) das métricas de {@link MorseMetrics},
+ * registrada como {@value MorseMetrics#OBJECT_NAME} no servidor de MBeans
+ * da plataforma. Pode ser consultada pelo JConsole, VisualVM ou qualquer
+ * cliente JMX.
+ */
+public interface MorseMetricsMXBean {
+
+    /**
+     * @return false se a JVM foi iniciada com {@code -Dmorse.metrics=false}
+     */
+    boolean isEnabled();
+
+    long getCharactersEncoded();
+
+    long getCharactersDecoded();
+
+    /**
+     * @return Sequências morse decodificadas como {@link MorseDecoder#UNKNOWN} (ou corrigidas sem sucesso)
+     */
+    long getUnknownSequences();
+
+    /**
+     * @return Caracteres de entrada ignorados na codificação por não terem código
+     */
+    long getUnencodableCharacters();
+
+    /**
+     * @return Caracteres (ou bytes) de entrada consumidos pela codificação e pela decodificação
+     */
+    long getInputProcessed();
+
+    long getAudioUnderruns();
+
+    /**
+     * @return Requisições HTTP respondidas com erro, incluindo rotas inexistentes (404) e métodos errados (405)
+     */
+    long getRequestErrors();
+
+    long getAnimationFrames();
+
+    MorseMetrics.HistogramSnapshot getEncodeLatency();
+
+    MorseMetrics.HistogramSnapshot getDecodeLatency();
+
+    MorseMetrics.HistogramSnapshot getFrameTime();
+
+    /**
+     * @return Tempo entre pressionar a chave e o tom lateral sair da saída de áudio
+     */
+    MorseMetrics.HistogramSnapshot getSidetoneLatency();
+
+    /**
+     * Zera todos os contadores e histogramas
+     */
+    void reset();
+}
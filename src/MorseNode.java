@@ -1,34 +1,39 @@
 // Nó da árvore binária para o código morse
+// Os nós são imutáveis: a árvore é montada das folhas para a raiz e pode ser
+// compartilhada entre threads sem sincronização.
 public class MorseNode {
-    char character;
-    MorseNode left;  // Representa o ponto (.)
-    MorseNode right; // Representa o traço (-)
-    String morseCode; // Código morse associado ao caractere
+    final char character;
+    final MorseNode left;  // Representa o ponto (.)
+    final MorseNode right; // Representa o traço (-)
+    final String morseCode; // Código morse associado ao caractere
 
     // Construtor para criar um nó folha com um caractere
     // @param character O caractere armazenado no nó
     public MorseNode(char character) {
-        this.character = character;
-        this.left = null;
-        this.right = null;
-        this.morseCode = "";
+        this(character, "", null, null);
     }
 
     // Construtor para criar um nó folha com um caractere e seu código morse
     // @param character O caractere armazenado no nó
     // @param morseCode O código morse associado ao caractere
     public MorseNode(char character, String morseCode) {
-        this.character = character;
-        this.left = null;
-        this.right = null;
-        this.morseCode = morseCode;
+        this(character, morseCode, null, null);
     }
 
     // Construtor para criar um nó interno (sem caractere definido)
     public MorseNode() {
-        this.character = '\0';
-        this.left = null;
-        this.right = null;
-        this.morseCode = "";
+        this('\0', "", null, null);
+    }
+
+    // Construtor para criar um nó com seus filhos
+    // @param character O caractere armazenado no nó, ou '\0' se não houver
+    // @param morseCode O código morse associado ao caractere
+    // @param left O filho do ponto, ou null
+    // @param right O filho do traço, ou null
+    public MorseNode(char character, String morseCode, MorseNode left, MorseNode right) {
+        this.character = character;
+        this.left = left;
+        this.right = right;
+        this.morseCode = morseCode;
     }
-}
\ No newline at end of file
+}
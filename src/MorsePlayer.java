@@ -0,0 +1,165 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Reproduz mensagens morse inteiras por uma única SourceDataLine.
+ *
+ * Um {@link MorseAudioRenderer} gera o áudio com precisão de amostra e uma
+ * thread dedicada o escreve na linha em blocos pequenos, mantendo o buffer
+ * da placa de som sempre abastecido. Como os intervalos fazem parte do
+ * próprio áudio, não dependem de timers e o ritmo fica exato mesmo acima
+ * de 60 WPM. A reprodução pode ser interrompida a qualquer momento.
+ */
+public class MorsePlayer {
+    private static final float SAMPLE_RATE = 44100f;
+    // Buffer da linha: ~100 ms absorvem pausas do escalonador sem atrasar o stop
+    private static final int LINE_BUFFER_MILLIS = 100;
+    // Cada escrita cobre ~10 ms de áudio
+    private static final int CHUNK_MILLIS = 10;
+
+    private final float frequency;
+    private volatile double wpm;
+    private volatile double effectiveWpm;
+
+    private SourceDataLine line;
+    private Thread playbackThread;
+    private volatile boolean cancelled;
+    private volatile long underruns;
+
+    /**
+     * @param wpm Velocidade dos caracteres em palavras por minuto
+     * @param effectiveWpm Velocidade efetiva (Farnsworth), menor ou igual a {@code wpm}
+     * @param frequency Frequência do tom em Hz
+     */
+    public MorsePlayer(double wpm, double effectiveWpm, float frequency) {
+        this.wpm = wpm;
+        this.effectiveWpm = effectiveWpm;
+        this.frequency = frequency;
+    }
+
+    /**
+     * Inicia a reprodução de uma mensagem, interrompendo a anterior se houver
+     * @param morse A mensagem morse (pontos, traços, espaços e "/")
+     * @throws LineUnavailableException Se não houver saída de áudio disponível
+     * @throws IllegalArgumentException Se nenhum mixer oferecer o formato (máquina sem áudio)
+     */
+    public synchronized void play(String morse) throws LineUnavailableException {
+        stop();
+
+        MorseAudioRenderer renderer = new MorseAudioRenderer(morse, wpm, effectiveWpm, frequency, SAMPLE_RATE);
+        AudioFormat format = renderer.getFormat();
+        int frameRate = (int) format.getFrameRate();
+        int bufferBytes = frameRate * format.getFrameSize() * LINE_BUFFER_MILLIS / 1000;
+
+        // Só guarda a linha depois de aberta, para stop não mexer em uma linha que falhou
+        SourceDataLine playbackLine = AudioSystem.getSourceDataLine(format);
+        playbackLine.open(format, bufferBytes);
+        line = playbackLine;
+        cancelled = false;
+        underruns = 0;
+
+        playbackThread = new Thread(() -> playLoop(renderer, playbackLine), "morse-player");
+        playbackThread.setDaemon(true);
+        playbackThread.setPriority(Thread.MAX_PRIORITY);
+        playbackThread.start();
+    }
+
+    /**
+     * Interrompe a reprodução imediatamente, descartando o áudio pendente
+     */
+    public synchronized void stop() {
+        cancelled = true;
+        if (line != null) {
+            line.stop();
+            line.flush();
+        }
+        if (playbackThread != null) {
+            try {
+                playbackThread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            playbackThread = null;
+        }
+        if (line != null) {
+            line.close();
+            line = null;
+        }
+    }
+
+    /**
+     * @return true se há uma mensagem sendo reproduzida
+     */
+    public boolean isPlaying() {
+        Thread thread = playbackThread;
+        return thread != null && thread.isAlive();
+    }
+
+    /**
+     * Aguarda o fim da reprodução atual
+     * @throws InterruptedException Se a espera for interrompida
+     */
+    public void awaitCompletion() throws InterruptedException {
+        Thread thread = playbackThread;
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * @return Ocupação do buffer da linha, de 0 (vazio) a 1 (cheio)
+     */
+    public double getBufferFillLevel() {
+        SourceDataLine current = line;
+        if (current == null || !current.isOpen()) {
+            return 0;
+        }
+        int size = current.getBufferSize();
+        return size > 0 ? (size - current.available()) / (double) size : 0;
+    }
+
+    /**
+     * @return Quantas vezes o buffer da linha esvaziou durante a reprodução atual
+     */
+    public long getUnderrunCount() {
+        return underruns;
+    }
+
+    /**
+     * Altera a velocidade usada nas próximas mensagens
+     * @param wpm Velocidade dos caracteres
+     * @param effectiveWpm Velocidade efetiva (Farnsworth)
+     */
+    public void setSpeed(double wpm, double effectiveWpm) {
+        this.wpm = wpm;
+        this.effectiveWpm = effectiveWpm;
+    }
+
+    private void playLoop(MorseAudioRenderer renderer, SourceDataLine playbackLine) {
+        AudioFormat format = renderer.getFormat();
+        byte[] chunk = new byte[(int) format.getFrameRate() * format.getFrameSize() * CHUNK_MILLIS / 1000];
+        boolean started = false;
+
+        int rendered;
+        while (!cancelled && (rendered = renderer.render(chunk, 0, chunk.length)) > 0) {
+            // Buffer vazio depois do início significa que a placa ficou sem áudio
+            if (started && playbackLine.available() >= playbackLine.getBufferSize()) {
+                underruns++;
+                MorseMetrics.recordAudioUnderrun();
+            }
+            playbackLine.write(chunk, 0, rendered);
+            if (!started) {
+                playbackLine.start();
+                started = true;
+            }
+        }
+
+        if (!cancelled) {
+            // Fim natural: espera o áudio sair e libera a linha
+            playbackLine.drain();
+            playbackLine.close();
+        }
+    }
+}
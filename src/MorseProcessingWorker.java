@@ -0,0 +1,262 @@
+import javax.swing.SwingWorker;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Codifica ou decodifica um texto em segundo plano, fora da thread de eventos.
+ *
+ * A entrada é lida de um {@link Reader} em blocos; o resultado de cada bloco
+ * é publicado assim que fica pronto e entregue à {@link Output} na thread de
+ * eventos, de modo que a saída cresce aos poucos e a interface continua
+ * respondendo. O progresso (0 a 100) é informado pela propriedade
+ * {@code "progress"} quando o tamanho total é conhecido, e o trabalho pode
+ * ser interrompido com {@link #cancel(boolean)} entre um bloco e outro.
+ *
+ * A codificação separa os códigos por um espaço, como {@link MorseDecoder#encodeText(String)};
+ * a decodificação usa um {@link MorseStreamDecoder} e produz o mesmo texto que
+ * {@link MorseDecoder#decodeMorse(String)}, com os prosinais escritos pelo nome.
+ * No modo tolerante, sequências inválidas são trocadas pelo código mais
+ * próximo (ver {@link TolerantDecoder}). Com um {@link RunTogetherDecoder},
+ * a entrada é lida inteira e dividida em letras e palavras ao final; a saída
+ * traz o texto mais provável seguido das alternativas.
+ */
+public class MorseProcessingWorker extends SwingWorker<MorseProcessingWorker.Result, String> {
+    // Caracteres lidos da entrada por bloco
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // Divisões mostradas na decodificação sem separadores
+    private static final int SEGMENTATIONS = 3;
+
+    /**
+     * Destino da saída parcial, chamado sempre na thread de eventos
+     */
+    public interface Output {
+        void append(String text);
+    }
+
+    private final MorseDecoder decoder;
+    private final boolean encode;
+    private final boolean tolerant;
+    private final RunTogetherDecoder segmenter;
+    private final Reader source;
+    private final long totalChars;
+    private final Output output;
+
+    private volatile long processedChars;
+    private volatile long producedChars;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param decoder O decodificador com as tabelas morse
+     * @param encode true para texto → morse, false para morse → texto
+     * @param source A entrada; é fechada ao final
+     * @param totalChars Tamanho aproximado da entrada em caracteres, ou -1 se desconhecido
+     * @param output Destino da saída parcial
+     */
+    public MorseProcessingWorker(MorseDecoder decoder, boolean encode, Reader source,
+                                 long totalChars, Output output) {
+        this(decoder, encode, false, source, totalChars, output);
+    }
+
+    /**
+     * @param decoder O decodificador com as tabelas morse
+     * @param encode true para texto → morse, false para morse → texto
+     * @param tolerant Na decodificação, corrige sequências inválidas em vez de marcá-las
+     * @param source A entrada; é fechada ao final
+     * @param totalChars Tamanho aproximado da entrada em caracteres, ou -1 se desconhecido
+     * @param output Destino da saída parcial
+     */
+    public MorseProcessingWorker(MorseDecoder decoder, boolean encode, boolean tolerant, Reader source,
+                                 long totalChars, Output output) {
+        this(decoder, encode, tolerant, null, source, totalChars, output);
+    }
+
+    /**
+     * @param decoder O decodificador com as tabelas morse
+     * @param encode true para texto → morse, false para morse → texto
+     * @param tolerant Na decodificação, corrige sequências inválidas em vez de marcá-las
+     * @param segmenter Na decodificação, divide a entrada sem separadores com este decodificador, ou null
+     * @param source A entrada; é fechada ao final
+     * @param totalChars Tamanho aproximado da entrada em caracteres, ou -1 se desconhecido
+     * @param output Destino da saída parcial
+     */
+    public MorseProcessingWorker(MorseDecoder decoder, boolean encode, boolean tolerant,
+                                 RunTogetherDecoder segmenter, Reader source,
+                                 long totalChars, Output output) {
+        this.decoder = decoder;
+        this.encode = encode;
+        this.tolerant = tolerant;
+        this.segmenter = encode ? null : segmenter;
+        this.source = source;
+        this.totalChars = totalChars;
+        this.output = output;
+    }
+
+    @Override
+    protected Result doInBackground() throws IOException {
+        char[] chunk = new char[CHUNK_SIZE];
+        StringBuilder result = new StringBuilder();
+        MorseStreamDecoder.Sink sink = c -> {
+            // Prosinais aparecem pelo nome (ex.: <SK>) em vez do caractere de uso privado
+            if (MorseCodeTable.isProsign(c)) {
+                result.append(MorseCodeTable.label(c));
+            } else {
+                result.append(c);
+            }
+        };
+        MorseStreamDecoder streamDecoder = encode || segmenter != null ? null
+                : tolerant ? decoder.tolerant().streamDecoder(sink)
+                : new MorseStreamDecoder(decoder, sink);
+        boolean first = true;
+        // Decodificação sem separadores: a divisão só é decidida com a entrada inteira
+        StringBuilder unseparated = segmenter != null ? new StringBuilder() : null;
+
+        try (Reader reader = source) {
+            int read;
+            while (!isCancelled() && (read = reader.read(chunk)) != -1) {
+                if (encode) {
+                    first = encodeChunk(chunk, read, result, first);
+                } else if (unseparated != null) {
+                    unseparated.append(chunk, 0, read);
+                } else {
+                    streamDecoder.feed(chunk, 0, read);
+                }
+                processedChars += read;
+                flush(result);
+            }
+        }
+
+        if (!isCancelled()) {
+            if (unseparated != null) {
+                segment(unseparated, result);
+                flush(result);
+            }
+            if (streamDecoder != null) {
+                streamDecoder.finish();
+                flush(result);
+            }
+            setProgress(100);
+        }
+        return getResult();
+    }
+
+    @Override
+    protected void process(List<String> chunks) {
+        if (isCancelled()) {
+            return;
+        }
+        // Junta os blocos pendentes em uma única atualização da saída
+        if (chunks.size() == 1) {
+            output.append(chunks.get(0));
+        } else {
+            StringBuilder joined = new StringBuilder();
+            for (String chunk : chunks) {
+                joined.append(chunk);
+            }
+            output.append(joined.toString());
+        }
+    }
+
+    /**
+     * @return O andamento atual (pode ser chamado de qualquer thread)
+     */
+    public Result getResult() {
+        return new Result(processedChars, producedChars, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Codifica um bloco, separando os códigos por espaço
+     * @return Se ainda nenhum código foi escrito
+     */
+    private boolean encodeChunk(char[] chunk, int count, StringBuilder result, boolean first) {
+        int codes = 0;
+        for (int i = 0; i < count; i++) {
+            String morse = decoder.getMorseCode(chunk[i]);
+            if (morse != null) {
+                if (!first) {
+                    result.append(' ');
+                }
+                result.append(morse);
+                first = false;
+                codes++;
+            }
+        }
+        MorseMetrics.recordEncode(count, codes, 0);
+        return first;
+    }
+
+    /**
+     * Divide a entrada sem separadores, escrevendo o texto mais provável e as alternativas
+     */
+    private void segment(CharSequence morse, StringBuilder result) {
+        List<RunTogetherDecoder.Segmentation> segmentations = segmenter.decode(morse, SEGMENTATIONS);
+        for (int i = 0; i < segmentations.size(); i++) {
+            String text = segmentations.get(i).getText();
+            if (i == 0) {
+                result.append(text);
+                if (segmentations.size() > 1) {
+                    result.append("\n\nAlternativas:");
+                }
+            } else {
+                result.append(String.format(Locale.ROOT, "\n%d. %s (log p = %.1f)",
+                        i + 1, text, segmentations.get(i).getLogProbability()));
+            }
+        }
+    }
+
+    /**
+     * Publica o que foi produzido até agora e atualiza o progresso
+     */
+    private void flush(StringBuilder result) {
+        if (result.length() > 0) {
+            producedChars += result.length();
+            publish(result.toString());
+            result.setLength(0);
+        }
+        if (totalChars > 0) {
+            setProgress((int) Math.min(99, processedChars * 100 / totalChars));
+        }
+    }
+
+    /**
+     * Andamento de um processamento
+     */
+    public static final class Result {
+        private final long processedChars;
+        private final long producedChars;
+        private final long elapsedNanos;
+
+        Result(long processedChars, long producedChars, long elapsedNanos) {
+            this.processedChars = processedChars;
+            this.producedChars = producedChars;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getProcessedChars() {
+            return processedChars;
+        }
+
+        public long getProducedChars() {
+            return producedChars;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return Vazão de leitura em milhões de caracteres por segundo
+         */
+        public double getThroughputMcps() {
+            double seconds = elapsedNanos / 1e9;
+            return seconds > 0 ? processedChars / 1e6 / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Lidos: %d caracteres | Gerados: %d | Tempo: %.2f s | Vazão: %.2f M caracteres/s",
+                    processedChars, producedChars, elapsedNanos / 1e9, getThroughputMcps());
+        }
+    }
+}
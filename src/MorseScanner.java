@@ -0,0 +1,183 @@
+/**
+ * Busca rápida de caracteres em uma entrada: fora do morse (ponto, traço,
+ * espaço e "/"), fora de ponto e traço, ou fora do ASCII.
+ *
+ * As buscas devolvem a posição do primeiro caractere fora de um conjunto,
+ * o que permite aos chamadores processar trechos inteiros por um caminho
+ * mais simples e só tratar um a um os caracteres problemáticos:
+ * <ul>
+ *   <li>{@link MorseStreamDecoder} decodifica sem testes de símbolo
+ *       inválido até a próxima posição devolvida por
+ *       {@link #indexOfInvalidMorse};</li>
+ *   <li>{@link MorseDecoder#encodeText(String)} usa a tabela ASCII quando
+ *       {@link #indexOfNonAscii} não encontra nada;</li>
+ *   <li>a interface valida o código a visualizar com {@link #indexOfNonSymbol}.</li>
+ * </ul>
+ *
+ * Esta classe é a implementação escalar. Quando a JVM é iniciada com
+ * {@code --add-modules jdk.incubator.vector}, {@link #get()} devolve a
+ * versão vetorial ({@code VectorMorseScanner}), que testa 16 a 32
+ * caracteres (32 a 64 bytes) por instrução e devolve exatamente os mesmos
+ * resultados. {@code -Dmorse.scanner=scalar} força a versão escalar.
+ *
+ * Instâncias não têm estado e podem ser compartilhadas entre threads.
+ */
+public class MorseScanner {
+    // Caracteres copiados por vez ao varrer Strings
+    static final int CHUNK = 4096;
+
+    // Buscas aplicadas por scan a cada bloco de uma String
+    private static final int INVALID_MORSE = 0;
+    private static final int NON_SYMBOL = 1;
+    private static final int NON_ASCII = 2;
+
+    // Bits de ' ', '-', '.' e '/' (todos abaixo de 64)
+    private static final long MORSE_MASK = 1L << ' ' | 1L << '-' | 1L << '.' | 1L << '/';
+
+    private static final MorseScanner INSTANCE = create();
+
+    /**
+     * @return O scanner vetorial, se disponível, ou o escalar
+     */
+    public static MorseScanner get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Um scanner escalar (referência para comparar com o vetorial)
+     */
+    public static MorseScanner scalar() {
+        return new MorseScanner();
+    }
+
+    MorseScanner() {
+    }
+
+    private static MorseScanner create() {
+        if ("scalar".equals(System.getProperty("morse.scanner"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new MorseScanner();
+        }
+        try {
+            // Carregado por reflexão: sem o módulo, esta classe nem é ligada
+            return (MorseScanner) Class.forName("VectorMorseScanner").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new MorseScanner();
+        }
+    }
+
+    /**
+     * @return Nome da implementação, para relatórios
+     */
+    public String getName() {
+        return "escalar";
+    }
+
+    /**
+     * Procura o primeiro caractere que não é ponto, traço, espaço ou "/"
+     * @param chars Os caracteres
+     * @param from Índice inicial (inclusivo)
+     * @param to Índice final (exclusivo)
+     * @return A posição encontrada, ou -1 se todo o trecho for morse válido
+     */
+    public int indexOfInvalidMorse(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            // Um bit por caractere válido: os dois testes quase sempre dão o mesmo
+            // resultado, ao contrário de comparar com ' ' e depois com a faixa,
+            // que erra a previsão de desvio a cada troca entre espaço e símbolo
+            if (c >= 64 || (MORSE_MASK >>> c & 1) == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Procura o primeiro caractere que não é ponto nem traço
+     * @param chars Os caracteres
+     * @param from Índice inicial (inclusivo)
+     * @param to Índice final (exclusivo)
+     * @return A posição encontrada, ou -1 se o trecho só tiver pontos e traços
+     */
+    public int indexOfNonSymbol(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if ((char) (c - '-') > 1) {  // '-' e '.' são consecutivos
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Procura o primeiro caractere fora do ASCII
+     * @param chars Os caracteres
+     * @param from Índice inicial (inclusivo)
+     * @param to Índice final (exclusivo)
+     * @return A posição encontrada, ou -1 se todo o trecho for ASCII
+     */
+    public int indexOfNonAscii(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chars[i] >= 128) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Como {@link #indexOfInvalidMorse(char[], int, int)}, sobre uma String inteira
+     */
+    public int indexOfInvalidMorse(String text) {
+        return scan(text, INVALID_MORSE);
+    }
+
+    /**
+     * Como {@link #indexOfNonSymbol(char[], int, int)}, sobre uma String inteira
+     */
+    public int indexOfNonSymbol(String text) {
+        return scan(text, NON_SYMBOL);
+    }
+
+    /**
+     * Como {@link #indexOfNonAscii(char[], int, int)}, sobre uma String inteira
+     */
+    public int indexOfNonAscii(String text) {
+        return scan(text, NON_ASCII);
+    }
+
+    /**
+     * Copia a String em blocos (String.getChars é uma cópia de memória) e
+     * aplica a busca escolhida em cada um
+     */
+    private int scan(String text, int search) {
+        int length = text.length();
+        char[] chunk = new char[Math.min(length, CHUNK)];
+        for (int start = 0; start < length; start += CHUNK) {
+            int end = Math.min(length, start + CHUNK);
+            text.getChars(start, end, chunk, 0);
+            int found;
+            switch (search) {
+                case INVALID_MORSE:
+                    found = indexOfInvalidMorse(chunk, 0, end - start);
+                    break;
+                case NON_SYMBOL:
+                    found = indexOfNonSymbol(chunk, 0, end - start);
+                    break;
+                default:
+                    found = indexOfNonAscii(chunk, 0, end - start);
+                    break;
+            }
+            if (found >= 0) {
+                return start + found;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,316 @@
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * Decodificador incremental de código morse.
+ *
+ * Recebe pontos, traços, espaços e barras em blocos de qualquer tamanho e
+ * emite os caracteres decodificados para um {@link Sink}. Um símbolo pode
+ * começar em um bloco e terminar no seguinte: o estado parcial é mantido
+ * entre chamadas, de modo que a memória usada é constante e nenhuma String
+ * é criada por letra.
+ *
+ * O resultado é idêntico ao de {@link MorseDecoder#decodeMorse(String)}:
+ * sequências são separadas por espaço, "/" isolado vira espaço e qualquer
+ * outra sequência inválida vira {@link MorseDecoder#UNKNOWN}.
+ *
+ * Os blocos são varridos pelo {@link MorseScanner}: trechos só com pontos,
+ * traços, espaços e barras seguem por um laço sem os testes de símbolo
+ * inválido, e apenas os demais caracteres passam pelo tratamento geral.
+ *
+ * Os símbolos lidos e os caracteres emitidos são contados em campos
+ * próprios e somados às {@link MorseMetrics} a cada bloco de caracteres e
+ * em {@link #finish()}.
+ *
+ * Instâncias não são thread-safe; use uma por fluxo de entrada.
+ */
+public class MorseStreamDecoder {
+    // Caracteres emitidos entre duas publicações nas métricas
+    private static final int METRICS_BATCH = 1 << 16;
+
+    private static final MorseScanner SCANNER = MorseScanner.get();
+
+    /**
+     * Destino dos caracteres decodificados
+     */
+    public interface Sink {
+        void accept(char c);
+    }
+
+    private final char[] decodeTable;
+    private final char unknown;
+    private final Sink sink;
+
+    // log2 do tamanho da tabela: sequências com esse número de símbolos já
+    // saíram dela. -1 se o tamanho não for potência de 2 (sem caminho rápido).
+    private final int depth;
+
+    // Bloco para copiar Strings antes de varrê-las, criado no primeiro uso
+    private char[] chunk;
+
+    // Estado da sequência em andamento
+    private int index = 1;          // Posição atual no heap da tabela
+    private int length = 0;         // Quantidade de símbolos lidos na sequência
+    private boolean slash = false;  // A sequência até agora é exatamente "/"
+    private boolean invalid = false;
+
+    // Contagens ainda não publicadas nas métricas
+    private long pendingSymbols;
+    private int pendingDecoded;
+    private int pendingUnknown;
+
+    /**
+     * Cria um decodificador que utiliza as tabelas do decodificador informado
+     * @param decoder Decodificador com a tabela morse compilada
+     * @param sink Destino dos caracteres decodificados
+     */
+    public MorseStreamDecoder(MorseDecoder decoder, Sink sink) {
+        this(decoder.copyDecodeTable(), MorseDecoder.UNKNOWN, sink);
+    }
+
+    /**
+     * Cria um decodificador sobre uma tabela indexada como heap. A tabela
+     * não é copiada nem alterada: quem a entrega não pode mais alterá-la.
+     * @param decodeTable A tabela (raiz = 1, ponto = 2i, traço = 2i + 1)
+     * @param unknown Caractere emitido para sequências fora da tabela ou com símbolos inválidos
+     * @param sink Destino dos caracteres decodificados
+     */
+    MorseStreamDecoder(char[] decodeTable, char unknown, Sink sink) {
+        this.decodeTable = decodeTable;
+        this.unknown = unknown;
+        this.sink = sink;
+        this.depth = Integer.bitCount(decodeTable.length) == 1
+                ? Integer.numberOfTrailingZeros(decodeTable.length) : -1;
+    }
+
+    /**
+     * Processa um símbolo de entrada
+     * @param symbol O símbolo ('.', '-', ' ', '/' ou qualquer outro)
+     */
+    public void feed(char symbol) {
+        if (MorseMetrics.ENABLED) {
+            pendingSymbols++;
+        }
+        process(symbol);
+    }
+
+    /**
+     * Avança o estado com um símbolo (os métodos em bloco contam os símbolos de uma vez)
+     */
+    private void process(char symbol) {
+        if (symbol == ' ') {
+            flush();
+            return;
+        }
+
+        if (symbol == '.' || symbol == '-') {
+            if (!invalid) {
+                index = (index << 1) | (symbol == '-' ? 1 : 0);
+                // Saiu da árvore: a sequência inteira é desconhecida
+                if (index >= decodeTable.length) {
+                    invalid = true;
+                }
+            }
+            slash = false;
+        } else if (symbol == '/') {
+            // Só é separador de palavras se for o único símbolo da sequência
+            slash = length == 0;
+            invalid = true;
+        } else {
+            invalid = true;
+            slash = false;
+        }
+        length++;
+    }
+
+    /**
+     * Processa um bloco de símbolos
+     * @param buffer Vetor com os símbolos
+     * @param offset Posição inicial
+     * @param count Quantidade de símbolos
+     */
+    public void feed(char[] buffer, int offset, int count) {
+        if (MorseMetrics.ENABLED) {
+            pendingSymbols += count;
+        }
+        scan(buffer, offset, offset + count);
+    }
+
+    /**
+     * Separa o trecho [from, to) em partes válidas, decodificadas por
+     * {@link #processValid}, e caracteres inválidos, tratados por {@link #process}
+     */
+    private void scan(char[] buffer, int from, int to) {
+        if (depth < 0) {
+            for (int i = from; i < to; i++) {
+                process(buffer[i]);
+            }
+            return;
+        }
+        int i = from;
+        while (i < to) {
+            int bad = SCANNER.indexOfInvalidMorse(buffer, i, to);
+            if (bad < 0) {
+                processValid(buffer, i, to);
+                return;
+            }
+            processValid(buffer, i, bad);
+            process(buffer[bad]);
+            i = bad + 1;
+        }
+    }
+
+    /**
+     * Mesmo efeito de {@link #process} para cada caractere de um trecho que só
+     * tem '.', '-', ' ' e '/'. O estado fica em variáveis locais, o símbolo
+     * vira o bit do heap direto ('-' é ímpar, '.' é par) e a saída da árvore é
+     * verificada uma vez por sequência, pelo número de símbolos.
+     */
+    private void processValid(char[] buffer, int from, int to) {
+        final char[] table = decodeTable;
+        int idx = index;
+        int len = length;
+        boolean sl = slash;
+        boolean inv = invalid;
+        for (int i = from; i < to; i++) {
+            char c = buffer[i];
+            if (c == ' ') {
+                if (len > 0) {
+                    emit(sl ? ' ' : inv || len >= depth ? unknown : table[idx]);
+                    idx = 1;
+                    len = 0;
+                    sl = false;
+                    inv = false;
+                }
+            } else if (c == '/') {
+                sl = len == 0;
+                inv = true;
+                len++;
+            } else {
+                idx = (idx << 1) | (c & 1);
+                sl = false;
+                len++;
+            }
+        }
+        index = idx;
+        length = len;
+        slash = sl;
+        invalid = inv || len >= depth;
+    }
+
+    /**
+     * Processa o trecho [start, end) de uma sequência de caracteres
+     * @param sequence A sequência de entrada
+     * @param start Índice inicial (inclusivo)
+     * @param end Índice final (exclusivo)
+     */
+    public void feed(CharSequence sequence, int start, int end) {
+        if (MorseMetrics.ENABLED) {
+            pendingSymbols += end - start;
+        }
+        if (sequence instanceof String) {
+            // String.getChars é uma cópia de memória; o bloco é varrido como um vetor
+            if (chunk == null) {
+                chunk = new char[MorseScanner.CHUNK];
+            }
+            String string = (String) sequence;
+            for (int i = start; i < end; i += MorseScanner.CHUNK) {
+                int stop = Math.min(end, i + MorseScanner.CHUNK);
+                string.getChars(i, stop, chunk, 0);
+                scan(chunk, 0, stop - i);
+            }
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            process(sequence.charAt(i));
+        }
+    }
+
+    /**
+     * Processa todos os símbolos restantes de um CharBuffer, avançando sua posição
+     * @param buffer O buffer de entrada
+     */
+    public void feed(CharBuffer buffer) {
+        if (buffer.hasArray()) {
+            int position = buffer.position();
+            feed(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+            buffer.position(buffer.limit());
+        } else {
+            while (buffer.hasRemaining()) {
+                feed(buffer.get());
+            }
+        }
+    }
+
+    /**
+     * Processa todos os bytes restantes (ASCII) de um ByteBuffer, avançando sua posição
+     * @param buffer O buffer de entrada
+     */
+    public void feed(ByteBuffer buffer) {
+        if (MorseMetrics.ENABLED) {
+            pendingSymbols += buffer.remaining();
+        }
+        while (buffer.hasRemaining()) {
+            process((char) (buffer.get() & 0xFF));
+        }
+    }
+
+    /**
+     * Finaliza a entrada, emitindo a sequência que ainda estiver pendente.
+     * O decodificador fica pronto para um novo fluxo.
+     */
+    public void finish() {
+        flush();
+        publishMetrics();
+    }
+
+    /**
+     * Descarta a sequência pendente sem emiti-la
+     */
+    public void reset() {
+        index = 1;
+        length = 0;
+        slash = false;
+        invalid = false;
+    }
+
+    /**
+     * Emite a sequência atual (se houver) e reinicia o estado
+     */
+    private void flush() {
+        if (length == 0) {
+            return;
+        }
+
+        // '/' isolado representa um espaço
+        emit(slash ? ' ' : invalid ? unknown : decodeTable[index]);
+        reset();
+    }
+
+    /**
+     * Entrega um caractere ao destino e o conta para as métricas
+     */
+    private void emit(char c) {
+        sink.accept(c);
+        if (MorseMetrics.ENABLED) {
+            if (c == unknown) {
+                pendingUnknown++;
+            }
+            if (++pendingDecoded == METRICS_BATCH) {
+                publishMetrics();
+            }
+        }
+    }
+
+    /**
+     * Soma às métricas as contagens acumuladas desde a última publicação
+     */
+    private void publishMetrics() {
+        if (MorseMetrics.ENABLED && pendingSymbols > 0) {
+            MorseMetrics.recordDecode(pendingSymbols, pendingDecoded, pendingUnknown);
+            pendingSymbols = 0;
+            pendingDecoded = 0;
+            pendingUnknown = 0;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mensagem morse compactada em bits, uma unidade de tempo ITU por bit:
+ * 1 = tom ligado, 0 = tom desligado. Um ponto ocupa 1 unidade, um traço 3,
+ * o intervalo entre elementos 1, entre letras 3 e entre palavras 7.
+ *
+ * Os bits ficam em um {@code long[]}, do bit mais significativo para o
+ * menos significativo de cada palavra. Instâncias são imutáveis.
+ */
+public final class PackedMorse {
+    private final long[] words;
+    private final long length;
+
+    /**
+     * @param words Bits da mensagem (não é copiado)
+     * @param length Quantidade de unidades (bits) válidas
+     */
+    PackedMorse(long[] words, long length) {
+        this.words = words;
+        this.length = length;
+    }
+
+    /**
+     * @return Quantidade de unidades de tempo da mensagem
+     */
+    public long getUnitCount() {
+        return length;
+    }
+
+    /**
+     * Retorna o estado da unidade informada
+     * @param index Índice da unidade
+     * @return true se o tom está ligado nessa unidade
+     */
+    public boolean isOn(long index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Unidade " + index + " fora de 0.." + (length - 1));
+        }
+        return (words[(int) (index >>> 6)] << (index & 63)) < 0;
+    }
+
+    /**
+     * Duração da transmissão em uma dada velocidade (PARIS = 50 unidades)
+     * @param wpm Velocidade em palavras por minuto
+     * @return A duração em milissegundos
+     */
+    public double durationMillis(double wpm) {
+        return length * 1200.0 / wpm;
+    }
+
+    /**
+     * @return Uma cópia dos bits da mensagem
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(words, (int) ((length + 63) >>> 6));
+    }
+
+    /**
+     * Tamanho do formato binário produzido por {@link #writeTo(ByteBuffer)}
+     * @return Quantidade de bytes
+     */
+    public int getEncodedSize() {
+        return (int) (Long.BYTES + ((length + 7) >>> 3));
+    }
+
+    /**
+     * Grava a mensagem no formato binário: a quantidade de unidades (long)
+     * seguida dos bits, do mais significativo para o menos significativo
+     * @param buffer Buffer de destino, com pelo menos {@link #getEncodedSize()} bytes livres
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(length);
+        long remaining = (length + 7) >>> 3;
+        for (int i = 0; remaining > 0; i++) {
+            long word = words[i];
+            int bytes = (int) Math.min(8, remaining);
+            for (int b = 0; b < bytes; b++) {
+                buffer.put((byte) (word >>> (56 - 8 * b)));
+            }
+            remaining -= bytes;
+        }
+    }
+
+    /**
+     * @return A mensagem no formato binário, em um novo ByteBuffer pronto para leitura
+     */
+    public ByteBuffer toByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(getEncodedSize());
+        writeTo(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Lê uma mensagem gravada por {@link #writeTo(ByteBuffer)}
+     * @param buffer Buffer de origem; sua posição é avançada
+     * @return A mensagem lida
+     */
+    public static PackedMorse readFrom(ByteBuffer buffer) {
+        long length = buffer.getLong();
+        if (length < 0 || length > (long) Integer.MAX_VALUE * 64) {
+            throw new IllegalArgumentException("Quantidade de unidades inválida: " + length);
+        }
+
+        long[] words = new long[(int) ((length + 63) >>> 6)];
+        long remaining = (length + 7) >>> 3;
+        for (int i = 0; remaining > 0; i++) {
+            int bytes = (int) Math.min(8, remaining);
+            long word = 0;
+            for (int b = 0; b < bytes; b++) {
+                word |= (buffer.get() & 0xFFL) << (56 - 8 * b);
+            }
+            words[i] = word;
+            remaining -= bytes;
+        }
+        // Descarta bits além do fim da mensagem
+        int tail = (int) (length & 63);
+        if (tail != 0) {
+            words[words.length - 1] &= -1L << (64 - tail);
+        }
+        return new PackedMorse(words, length);
+    }
+
+    /**
+     * Devolve a posição da próxima unidade com estado diferente de {@code from}
+     * @param from Índice inicial
+     * @return O índice da próxima mudança, ou o tamanho da mensagem
+     */
+    long nextTransition(long from) {
+        boolean on = isOn(from);
+        int wordIndex = (int) (from >>> 6);
+        int bit = (int) (from & 63);
+
+        // Inverte as palavras quando o trecho é de tom ligado, assim basta
+        // procurar o próximo bit 1
+        long word = (on ? ~words[wordIndex] : words[wordIndex]) & (-1L >>> bit);
+        while (word == 0) {
+            wordIndex++;
+            if (wordIndex >= words.length || ((long) wordIndex << 6) >= length) {
+                return length;
+            }
+            word = on ? ~words[wordIndex] : words[wordIndex];
+        }
+        long position = ((long) wordIndex << 6) + Long.numberOfLeadingZeros(word);
+        return Math.min(position, length);
+    }
+
+    /**
+     * Acumulador de bits usado pelos codificadores
+     */
+    static final class Builder {
+        private long[] words = new long[4];
+        private long length = 0;
+
+        /**
+         * Acrescenta {@code count} unidades com o mesmo estado
+         */
+        void append(boolean on, int count) {
+            ensureCapacity(length + count);
+            if (on) {
+                for (int i = 0; i < count; i++) {
+                    long index = length + i;
+                    words[(int) (index >>> 6)] |= Long.MIN_VALUE >>> (index & 63);
+                }
+            }
+            length += count;
+        }
+
+        long length() {
+            return length;
+        }
+
+        PackedMorse build() {
+            return new PackedMorse(Arrays.copyOf(words, (int) ((length + 63) >>> 6)), length);
+        }
+
+        private void ensureCapacity(long bits) {
+            int needed = (int) ((bits + 63) >>> 6);
+            if (needed > words.length) {
+                words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+            }
+        }
+    }
+}
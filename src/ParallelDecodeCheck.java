@@ -0,0 +1,200 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Verificação da decodificação paralela ({@link ParallelMorseDecoder}),
+ * sem interface gráfica.
+ *
+ * Compara {@link MorseDecoder#decodeMorseParallel(String, int, ForkJoinPool)}
+ * com {@link MorseDecoder#decodeMorse(String)} em três grupos de entradas:
+ * <ul>
+ *   <li>casos escolhidos à mão, com o corte ideal no meio de uma sequência,
+ *       junto de um "/" isolado, em "/" colado a sequências (".-/-...", que
+ *       é uma única sequência inválida) e em espaços repetidos nas pontas;</li>
+ *   <li>entradas aleatórias curtas sobre ".", "-", " ", "/" e "x" com
+ *       threshold de 1 a 5, que forçam cortes em todas as posições;</li>
+ *   <li>uma entrada grande com threshold 1, que precisa respeitar o limite
+ *       de blocos por worker em vez de criar uma tarefa por caractere.</li>
+ * </ul>
+ * Para cada entrada também confere os limites devolvidos por
+ * {@code splitPoints}: crescentes, dentro do limite de blocos e com todo
+ * corte interno sobre um espaço.
+ *
+ * Uso: {@code java ParallelDecodeCheck [entradas aleatórias] [tabela]}
+ * (padrão: 50000, tabela internacional). Termina com código 1 se houver
+ * qualquer divergência.
+ */
+public class ParallelDecodeCheck {
+    // Semente fixa para que todas as execuções usem as mesmas entradas
+    private static final long SEED = 0x5EED_5_9L;
+    private static final String ALPHABET = ".- /x";
+    private static final int MAX_RANDOM_LENGTH = 60;
+    private static final int MAX_THRESHOLD = 5;
+    // Entrada grande para o limite de blocos: ~4 milhões de caracteres
+    private static final int LARGE_LETTERS = 1 << 20;
+    // Quantas divergências são mostradas por completo
+    private static final int MAX_REPORTED = 10;
+
+    private static final String[] HANDPICKED = {
+            "...---...",
+            "...---... ...---...",
+            ".- / -... .- / -",
+            "/ .- /",
+            " / / ",
+            ".-/-... -.-.",
+            ".- /-... / -.-./",
+            "   .-   -...   ",
+            ".-.-.- / / / .-.-.-",
+            "x.- .-x / ......... ",
+            "-",
+            " ",
+            "",
+    };
+
+    private final MorseDecoder decoder;
+    private final List<String> failures = new ArrayList<>();
+    private long checked;
+
+    /**
+     * @param tableName A tabela de códigos
+     */
+    public ParallelDecodeCheck(String tableName) {
+        this.decoder = MorseDecoder.forTable(tableName);
+    }
+
+    /**
+     * Confere uma entrada com um threshold em um pool
+     */
+    private void check(String morse, int threshold, ForkJoinPool pool) {
+        checked++;
+        String expected = decoder.decodeMorse(morse);
+        String actual;
+        try {
+            actual = decoder.decodeMorseParallel(morse, threshold, pool);
+        } catch (RuntimeException e) {
+            fail(morse, threshold, pool, "exceção " + e);
+            return;
+        }
+        if (!actual.equals(expected)) {
+            fail(morse, threshold, pool, "esperado [" + expected + "], obtido [" + actual + "]");
+            return;
+        }
+
+        int maxChunks = ParallelMorseDecoder.CHUNKS_PER_WORKER * pool.getParallelism();
+        int[] bounds = new ParallelMorseDecoder(decoder, threshold).splitPoints(morse, maxChunks);
+        String problem = checkBounds(morse, bounds, maxChunks);
+        if (problem != null) {
+            fail(morse, threshold, pool, problem);
+        }
+    }
+
+    /**
+     * @return A descrição do problema nos limites, ou null se estiverem corretos
+     */
+    private static String checkBounds(String morse, int[] bounds, int maxChunks) {
+        if (bounds.length < 2 || bounds[0] != 0 || bounds[bounds.length - 1] != morse.length()) {
+            return "limites sem 0 ou sem o tamanho da entrada";
+        }
+        if (bounds.length - 1 > maxChunks) {
+            return (bounds.length - 1) + " blocos, acima do limite de " + maxChunks;
+        }
+        for (int i = 1; i < bounds.length - 1; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                return "limites fora de ordem na posição " + i;
+            }
+            if (morse.charAt(bounds[i]) != ' ') {
+                return "corte fora de um espaço na posição " + bounds[i];
+            }
+        }
+        return null;
+    }
+
+    private void fail(String morse, int threshold, ForkJoinPool pool, String problem) {
+        failures.add(String.format("threshold %d, %d workers, entrada [%s]: %s", threshold,
+                pool.getParallelism(), morse.length() > 80 ? morse.substring(0, 80) + "…" : morse, problem));
+    }
+
+    /**
+     * Casos escolhidos à mão, com todos os thresholds até o tamanho da entrada
+     */
+    void checkHandpicked(ForkJoinPool pool) {
+        for (String morse : HANDPICKED) {
+            for (int threshold = 1; threshold <= Math.max(1, morse.length()); threshold++) {
+                check(morse, threshold, pool);
+            }
+        }
+    }
+
+    /**
+     * Entradas aleatórias curtas com thresholds pequenos
+     */
+    void checkRandom(int inputs, ForkJoinPool pool) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        char[] chars = new char[MAX_RANDOM_LENGTH];
+        for (int n = 0; n < inputs; n++) {
+            int length = random.nextInt(MAX_RANDOM_LENGTH + 1);
+            for (int i = 0; i < length; i++) {
+                chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            check(new String(chars, 0, length), 1 + random.nextInt(MAX_THRESHOLD), pool);
+        }
+    }
+
+    /**
+     * Uma entrada grande com threshold 1: o número de blocos precisa ficar no limite
+     */
+    void checkLarge(ForkJoinPool pool) {
+        MorseCodeTable table = decoder.getTable();
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder morse = new StringBuilder(LARGE_LETTERS * 4);
+        for (int i = 0; i < LARGE_LETTERS; i++) {
+            morse.append(random.nextInt(8) == 0 ? "/" : table.code(random.nextInt(table.size()))).append(' ');
+        }
+        check(morse.toString(), 1, pool);
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int inputs = 50_000;
+        String tableName = MorseCodeTable.DEFAULT;
+        try {
+            if (args.length > 0) {
+                inputs = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                tableName = args[1];
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Uso: ParallelDecodeCheck [entradas aleatórias] [tabela]");
+            System.exit(2);
+            return;
+        }
+
+        ParallelDecodeCheck check = new ParallelDecodeCheck(tableName);
+        // Um worker (todos os blocos na mesma thread) e vários, com limites de blocos diferentes
+        int[] parallelisms = {1, 4, Runtime.getRuntime().availableProcessors()};
+        for (int parallelism : parallelisms) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                check.checkHandpicked(pool);
+                check.checkRandom(inputs, pool);
+                check.checkLarge(pool);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        for (int i = 0; i < Math.min(MAX_REPORTED, check.failures.size()); i++) {
+            System.out.println("Divergência: " + check.failures.get(i));
+        }
+        System.out.println("Tabela: " + tableName + " | Entradas verificadas: " + check.checked
+                + " | Divergências: " + check.failures.size());
+        boolean ok = check.failures.isEmpty();
+        System.out.println(ok ? "OK: decodificação paralela idêntica à sequencial"
+                : "FALHA: decodificação paralela diverge da sequencial");
+        System.exit(ok ? 0 : 1);
+    }
+}
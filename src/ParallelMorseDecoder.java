@@ -0,0 +1,141 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decodificação paralela de uma única mensagem morse muito grande.
+ *
+ * A mensagem é dividida em blocos de aproximadamente {@code threshold}
+ * caracteres. Cada corte é feito no primeiro espaço (separador de letras)
+ * a partir do ponto ideal, assim nenhuma sequência é partida ao meio. O "/"
+ * só separa palavras quando aparece isolado entre espaços, então cortar
+ * apenas em espaços também preserva as palavras. Cada bloco é decodificado
+ * em um ForkJoinPool e os resultados são concatenados na ordem original,
+ * produzindo exatamente a mesma saída de {@link MorseDecoder#decodeMorse(String)}.
+ *
+ * Um {@code threshold} pequeno diante da entrada não gera milhões de
+ * tarefas: o número de blocos fica limitado a {@value #CHUNKS_PER_WORKER}
+ * por worker do pool, o suficiente para o work-stealing equilibrar a carga,
+ * e os blocos crescem além do threshold quando necessário.
+ *
+ * O {@code ParallelDecodeCheck} compara esta classe com a decodificação
+ * sequencial, inclusive com cortes no meio de sequências e junto de "/".
+ */
+class ParallelMorseDecoder {
+    // Blocos por worker do pool: mais que 1 para o work-stealing compensar blocos lentos
+    static final int CHUNKS_PER_WORKER = 4;
+
+    private final MorseDecoder decoder;
+    private final int threshold;
+
+    /**
+     * @param decoder Decodificador com a tabela compilada
+     * @param threshold Tamanho mínimo (em caracteres) para dividir a entrada
+     */
+    ParallelMorseDecoder(MorseDecoder decoder, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold deve ser positivo: " + threshold);
+        }
+        this.decoder = decoder;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Decodifica a mensagem usando o pool informado
+     * @param morseString A mensagem morse
+     * @param pool O pool que executará os blocos
+     * @return O texto decodificado
+     */
+    String decode(String morseString, ForkJoinPool pool) {
+        int length = morseString.length();
+        if (length <= threshold) {
+            return decoder.decodeMorse(morseString);
+        }
+
+        int[] bounds = splitPoints(morseString, CHUNKS_PER_WORKER * pool.getParallelism());
+        int chunks = bounds.length - 1;
+        if (chunks == 1) {
+            return decoder.decodeMorse(morseString);
+        }
+
+        StringBuilder[] results = new StringBuilder[chunks];
+        pool.invoke(new ChunkTask(morseString, bounds, results, 0, chunks));
+
+        int total = 0;
+        for (StringBuilder result : results) {
+            total += result.length();
+        }
+        StringBuilder decoded = new StringBuilder(total);
+        for (StringBuilder result : results) {
+            decoded.append(result);
+        }
+        return decoded.toString();
+    }
+
+    /**
+     * Calcula os limites dos blocos. Cada limite interno é a posição de um
+     * espaço, de modo que as sequências nunca são cortadas.
+     * @param morseString A mensagem morse
+     * @param maxChunks Quantidade máxima de blocos
+     * @return Vetor crescente com 0, os cortes e o tamanho da mensagem
+     */
+    int[] splitPoints(String morseString, int maxChunks) {
+        int length = morseString.length();
+        int chunks = (int) Math.max(1, Math.min(maxChunks, ((long) length + threshold - 1) / threshold));
+        int[] bounds = new int[chunks + 1];
+        int count = 1;  // bounds[0] = 0
+
+        for (int k = 1; k < chunks; k++) {
+            int target = (int) ((long) k * length / chunks);
+            int from = Math.max(target, bounds[count - 1] + 1);
+            int space = morseString.indexOf(' ', from);
+            if (space < 0) {
+                break;  // Não há mais separadores: o restante fica no último bloco
+            }
+            bounds[count++] = space;
+        }
+        bounds[count++] = length;
+
+        if (count == bounds.length) {
+            return bounds;
+        }
+        int[] trimmed = new int[count];
+        System.arraycopy(bounds, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    /**
+     * Divide o intervalo de blocos ao meio até restar um bloco por tarefa
+     */
+    private class ChunkTask extends RecursiveAction {
+        private final String morseString;
+        private final int[] bounds;
+        private final StringBuilder[] results;
+        private final int from;
+        private final int to;
+
+        ChunkTask(String morseString, int[] bounds, StringBuilder[] results, int from, int to) {
+            this.morseString = morseString;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int start = bounds[from];
+                int end = bounds[from + 1];
+                StringBuilder decoded = new StringBuilder((end - start) / 3 + 1);
+                MorseStreamDecoder stream = new MorseStreamDecoder(decoder, decoded::append);
+                stream.feed(morseString, start, end);
+                stream.finish();
+                results[from] = decoded;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(morseString, bounds, results, from, middle),
+                    new ChunkTask(morseString, bounds, results, middle, to));
+        }
+    }
+}
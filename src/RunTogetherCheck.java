@@ -0,0 +1,91 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verificação de ida e volta do {@link RunTogetherDecoder}, sem interface
+ * gráfica: cada frase é codificada, os espaços entre as letras são
+ * removidos e a sequência é decodificada de volta com o dicionário.
+ *
+ * As frases de {@link #WITH_WORD_GAPS} mantêm o "/" entre as palavras; as de
+ * {@link #WITHOUT_GAPS} perdem também esse separador, e por isso só entram
+ * frases sem ambiguidade real (I AM e SO, por exemplo, têm o mesmo código
+ * corrido). A transcrição, com o dicionário inglês, precisa ser idêntica
+ * ao texto.
+ *
+ * Uso: {@code java RunTogetherCheck}. Termina com código 1 se houver
+ * qualquer divergência.
+ */
+public class RunTogetherCheck {
+    private static final String[] WITH_WORD_GAPS = {
+            "I AM HERE",
+            "GOOD MORNING",
+            "HELLO WORLD",
+            "WHAT IS YOUR NAME",
+            "THANK YOU VERY MUCH",
+            "SEND HELP NOW",
+            "THE WEATHER IS NICE TODAY",
+            "PLEASE CALL ME BACK TOMORROW",
+            "ALL STATIONS STAND BY",
+            "WE ARE TAKING ON WATER",
+            "SOS SOS SOS",
+            "73 AND GOOD LUCK",
+            "I LOVE MORSE CODE",
+    };
+    private static final String[] WITHOUT_GAPS = {
+            "GOOD MORNING",
+            "HELLO WORLD",
+            "WHAT IS YOUR NAME",
+            "THANK YOU VERY MUCH",
+            "SEND HELP NOW",
+            "PLEASE CALL ME BACK TOMORROW",
+            "SOS SOS SOS",
+            "I LOVE MORSE CODE",
+    };
+
+    private static final String MODEL = "english";
+
+    private final MorseDecoder decoder;
+    private final RunTogetherDecoder segmenter;
+    private final List<String> failures = new ArrayList<>();
+    private int checked;
+
+    public RunTogetherCheck() {
+        this.decoder = new MorseDecoder();
+        this.segmenter = new RunTogetherDecoder(decoder, WordModel.get(MODEL));
+    }
+
+    /**
+     * Codifica a frase, remove os separadores e confere a decodificação
+     * @param keepWordGaps true para manter o "/" entre as palavras
+     */
+    void check(String sentence, boolean keepWordGaps) {
+        checked++;
+        String morse = decoder.encodeText(sentence).replace(" / ", keepWordGaps ? "/" : "").replace(" ", "");
+        String decoded = segmenter.decodeMorse(morse);
+        if (!decoded.equals(sentence)) {
+            failures.add((keepWordGaps ? "com \"/\": " : "corrido: ") + "esperado [" + sentence
+                    + "], obtido [" + decoded + "]");
+        }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        RunTogetherCheck check = new RunTogetherCheck();
+        for (String sentence : WITH_WORD_GAPS) {
+            check.check(sentence, true);
+        }
+        for (String sentence : WITHOUT_GAPS) {
+            check.check(sentence, false);
+        }
+
+        for (String failure : check.failures) {
+            System.out.println("Divergência: " + failure);
+        }
+        System.out.println("Dicionário: " + MODEL + " | Frases: " + check.checked
+                + " | Divergências: " + check.failures.size());
+        boolean ok = check.failures.isEmpty();
+        System.out.println(ok ? "OK: todas as frases decodificadas de volta sem separadores"
+                : "FALHA: a decodificação sem separadores diverge do texto");
+        System.exit(ok ? 0 : 1);
+    }
+}
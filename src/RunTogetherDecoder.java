@@ -0,0 +1,389 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decodificação de morse sem separadores entre as letras, como
+ * {@code "......-...-..---"} para HELLO.
+ *
+ * Sem os espaços, a mesma sequência admite muitas divisões em letras; a mais
+ * provável é escolhida por programação dinâmica (Viterbi) sobre as posições
+ * da entrada. Cada hipótese guarda o nó da trie de um {@link WordModel} em
+ * que a palavra atual está e o logaritmo da sua probabilidade: entrar em um
+ * nó soma log P(letra | prefixo), fechar a palavra soma log P(fim | palavra).
+ * Letras que não formam nenhuma palavra do dicionário ainda são aceitas
+ * como uma palavra desconhecida, pontuada pelo modelo de letras do
+ * dicionário (cada letra dada a anterior, e o fim da palavra), para que
+ * sempre exista uma resposta sem que nomes e siglas virem sequências de
+ * palavras curtas. Algarismos, pontuação e prosinais formam grupos
+ * próprios e nunca se misturam com letras na mesma palavra.
+ *
+ * Em cada posição ficam apenas as {@code beamWidth} melhores hipóteses, e no
+ * máximo {@code k} por nó da trie (o suficiente para as k melhores divisões).
+ * Como cada hipótese avança por no máximo um código de cada tamanho, o tempo
+ * é linear no tamanho da entrada.
+ *
+ * Espaços que já existirem na entrada são respeitados como separadores de
+ * letras. Se a entrada tiver algum "/", ele passa a ser o único separador
+ * de palavras: as palavras só terminam nele e no fim da entrada.
+ *
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public class RunTogetherDecoder {
+    // Hipóteses mantidas por posição, por padrão
+    public static final int DEFAULT_BEAM_WIDTH = 64;
+
+    // Probabilidade de uma palavra estar fora do dicionário; as do dicionário dividem o resto
+    private static final double UNKNOWN_WORD_PROBABILITY = 0.01;
+    private static final double UNKNOWN_WORD_LOG = Math.log(UNKNOWN_WORD_PROBABILITY);
+    private static final double KNOWN_WORD_LOG = Math.log(1 - UNKNOWN_WORD_PROBABILITY);
+
+    // log P de começar um grupo de algarismos, pontuação e prosinais, e de cada símbolo nele
+    private static final double SYMBOL_WORD_LOG = Math.log(1e-3);
+    private static final double SYMBOL_LOG = Math.log(1.0 / 16);
+
+    // Nós usados para palavras fora do dicionário e para grupos de símbolos
+    private static final int UNKNOWN_WORD = -1;
+    private static final int SYMBOL_WORD = -2;
+    // Deslocamento dos nós no contador da poda, para incluir os negativos
+    private static final int NODE_OFFSET = 2;
+
+    private final char[] decodeTable;
+    private final int maxCodeLength;
+    private final WordModel model;
+    private final int beamWidth;
+
+    /**
+     * @param decoder O decodificador com a tabela morse compilada
+     * @param model O dicionário usado para pontuar as palavras
+     */
+    public RunTogetherDecoder(MorseDecoder decoder, WordModel model) {
+        this(decoder, model, DEFAULT_BEAM_WIDTH);
+    }
+
+    /**
+     * @param decoder O decodificador com a tabela morse compilada
+     * @param model O dicionário usado para pontuar as palavras
+     * @param beamWidth Hipóteses mantidas por posição (mais = mais preciso e mais lento)
+     */
+    public RunTogetherDecoder(MorseDecoder decoder, WordModel model, int beamWidth) {
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException("beamWidth deve ser positivo: " + beamWidth);
+        }
+        this.decodeTable = decoder.copyDecodeTable();
+        this.model = model;
+        this.beamWidth = beamWidth;
+
+        int longest = 0;
+        for (int i = 2; i < decodeTable.length; i++) {
+            if (isCharacter(decodeTable[i])) {
+                longest = 31 - Integer.numberOfLeadingZeros(i);
+            }
+        }
+        this.maxCodeLength = longest;
+    }
+
+    public WordModel getModel() {
+        return model;
+    }
+
+    /**
+     * Decodifica uma sequência sem separadores
+     * @param morse Pontos e traços, com ou sem espaços e barras
+     * @return O texto mais provável, ou uma string vazia se não houver nenhuma divisão válida
+     */
+    public String decodeMorse(CharSequence morse) {
+        List<Segmentation> best = decode(morse, 1);
+        return best.isEmpty() ? "" : best.get(0).getText();
+    }
+
+    /**
+     * Encontra as k divisões mais prováveis de uma sequência sem separadores
+     * @param morse Pontos e traços, com ou sem espaços e barras
+     * @param k Quantidade de resultados
+     * @return Até k textos distintos, do mais para o menos provável
+     */
+    public List<Segmentation> decode(CharSequence morse, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k deve ser positivo: " + k);
+        }
+        int length = morse.length();
+        // Hipóteses que chegam a cada posição; só as próximas maxCodeLength + 1 ficam vivas
+        int ring = maxCodeLength + 2;
+        List<List<Hypothesis>> pending = new ArrayList<>(ring);
+        for (int i = 0; i < ring; i++) {
+            pending.add(new ArrayList<>());
+        }
+        pending.get(0).add(new Hypothesis(null, WordModel.ROOT, 0, '\0', false));
+        boolean explicitWords = morse.chars().anyMatch(c -> c == '/');
+
+        List<Hypothesis> beam = new ArrayList<>();
+        // Hipóteses por nó na poda (deslocado por NODE_OFFSET), sempre zerado entre posições
+        int[] perNode = new int[model.nodes() + NODE_OFFSET];
+        for (int position = 0; position < length; position++) {
+            List<Hypothesis> arriving = pending.get(position % ring);
+            prune(arriving, k, perNode, beam);
+            arriving.clear();
+            if (beam.isEmpty()) {
+                continue;
+            }
+
+            char symbol = morse.charAt(position);
+            if (symbol == '.' || symbol == '-') {
+                expandLetters(morse, position, beam, pending, ring, explicitWords);
+            } else if (symbol == '/') {
+                // Fim de palavra obrigatório
+                List<Hypothesis> next = pending.get((position + 1) % ring);
+                int before = next.size();
+                for (Hypothesis h : beam) {
+                    Hypothesis closed = close(h);
+                    if (closed != null) {
+                        next.add(closed);
+                    }
+                }
+                if (next.size() == before) {
+                    // Nenhuma palavra do dicionário termina aqui: aceita a melhor como desconhecida
+                    Hypothesis h = beam.get(0);
+                    next.add(new Hypothesis(h.parent, WordModel.ROOT, h.score + UNKNOWN_WORD_LOG, h.character, h.spaceBefore));
+                }
+            } else {
+                // Espaço (ou qualquer outro símbolo): separa letras, as hipóteses seguem iguais
+                pending.get((position + 1) % ring).addAll(beam);
+            }
+        }
+
+        List<Hypothesis> arriving = pending.get(length % ring);
+        prune(arriving, k, perNode, beam);
+
+        // Fecha as palavras em andamento e junta os textos iguais
+        Map<String, Double> results = new LinkedHashMap<>();
+        List<Hypothesis> finals = new ArrayList<>();
+        for (Hypothesis h : beam) {
+            Hypothesis closed = close(h);
+            if (closed != null) {
+                finals.add(closed);
+            }
+        }
+        finals.sort(Comparator.comparingDouble((Hypothesis h) -> h.score).reversed());
+        for (Hypothesis h : finals) {
+            results.putIfAbsent(h.text(), h.score);
+            if (results.size() == k) {
+                break;
+            }
+        }
+
+        List<Segmentation> segmentations = new ArrayList<>(results.size());
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            segmentations.add(new Segmentation(entry.getKey(), entry.getValue()));
+        }
+        return segmentations;
+    }
+
+    /**
+     * Avança cada hipótese por todas as letras que começam na posição
+     */
+    private void expandLetters(CharSequence morse, int position, List<Hypothesis> beam,
+                               List<List<Hypothesis>> pending, int ring, boolean explicitWords) {
+        int index = 1;
+        int length = morse.length();
+        for (int l = 1; l <= maxCodeLength && position + l <= length; l++) {
+            char symbol = morse.charAt(position + l - 1);
+            if (symbol == '.') {
+                index = index << 1;
+            } else if (symbol == '-') {
+                index = (index << 1) | 1;
+            } else {
+                break;  // Uma letra não atravessa separadores
+            }
+            if (index >= decodeTable.length) {
+                break;
+            }
+            char letter = decodeTable[index];
+            if (!isCharacter(letter)) {
+                continue;
+            }
+
+            boolean alphabetic = isAlphabetic(letter);
+            List<Hypothesis> target = pending.get((position + l) % ring);
+            for (Hypothesis h : beam) {
+                extend(h, letter, alphabetic, explicitWords, target);
+            }
+        }
+    }
+
+    /**
+     * Gera as continuações de uma hipótese com a letra: dentro da palavra
+     * atual ou, se a palavra puder terminar ali, começando outra
+     */
+    private void extend(Hypothesis h, char letter, boolean alphabetic, boolean explicitWords,
+                        List<Hypothesis> target) {
+        if (h.node == WordModel.ROOT) {
+            boolean started = h.character != '\0' || h.parent != null;
+            startWord(h, h.score, letter, alphabetic, started, target);
+            return;
+        }
+
+        // Continua a palavra atual
+        if (h.node >= 0) {
+            int child = model.child(h.node, letter);
+            if (child >= 0) {
+                target.add(new Hypothesis(h, child, h.score + model.enterLog(child), letter, false));
+            }
+        } else if (h.node == UNKNOWN_WORD && alphabetic) {
+            target.add(new Hypothesis(h, UNKNOWN_WORD, h.score + model.letterLog(h.character, letter), letter, false));
+        } else if (h.node == SYMBOL_WORD && !alphabetic) {
+            target.add(new Hypothesis(h, SYMBOL_WORD, h.score + SYMBOL_LOG, letter, false));
+        }
+
+        // Fecha a palavra atual e começa outra com esta letra
+        if (explicitWords) {
+            return;
+        }
+        Hypothesis closed = close(h);
+        if (closed != null) {
+            startWord(h, closed.score, letter, alphabetic, true, target);
+        }
+    }
+
+    /**
+     * Começa uma palavra com a letra: do dicionário, desconhecida ou grupo de símbolos
+     */
+    private void startWord(Hypothesis parent, double score, char letter, boolean alphabetic,
+                           boolean spaceBefore, List<Hypothesis> target) {
+        if (!alphabetic) {
+            target.add(new Hypothesis(parent, SYMBOL_WORD, score + SYMBOL_WORD_LOG + SYMBOL_LOG, letter, spaceBefore));
+            return;
+        }
+        int child = model.child(WordModel.ROOT, letter);
+        if (child >= 0) {
+            target.add(new Hypothesis(parent, child, score + KNOWN_WORD_LOG + model.enterLog(child), letter,
+                    spaceBefore));
+        }
+        target.add(new Hypothesis(parent, UNKNOWN_WORD, score + UNKNOWN_WORD_LOG + model.letterLog('\0', letter),
+                letter, spaceBefore));
+    }
+
+    /**
+     * @return A hipótese com a palavra atual terminada, ou null se ela não for uma palavra
+     */
+    private Hypothesis close(Hypothesis h) {
+        switch (h.node) {
+            case WordModel.ROOT:
+                return h;
+            case UNKNOWN_WORD:
+                return new Hypothesis(h.parent, WordModel.ROOT, h.score + model.letterEndLog(h.character),
+                        h.character, h.spaceBefore);
+            case SYMBOL_WORD:
+                return new Hypothesis(h.parent, WordModel.ROOT, h.score, h.character, h.spaceBefore);
+            default:
+                if (!model.isWord(h.node)) {
+                    return null;
+                }
+                return new Hypothesis(h.parent, WordModel.ROOT, h.score + model.closeLog(h.node), h.character,
+                        h.spaceBefore);
+        }
+    }
+
+    /**
+     * Mantém as melhores hipóteses: no máximo k por nó da trie e beamWidth no total
+     */
+    private void prune(List<Hypothesis> arriving, int k, int[] perNode, List<Hypothesis> beam) {
+        beam.clear();
+        if (arriving.isEmpty()) {
+            return;
+        }
+        arriving.sort(Comparator.comparingDouble((Hypothesis h) -> h.score).reversed());
+        for (Hypothesis h : arriving) {
+            if (++perNode[h.node + NODE_OFFSET] <= k) {
+                beam.add(h);
+                if (beam.size() == beamWidth) {
+                    break;
+                }
+            }
+        }
+        for (Hypothesis h : arriving) {
+            perNode[h.node + NODE_OFFSET] = 0;
+        }
+    }
+
+    /**
+     * @return true se o código decodifica para algum caractere
+     */
+    private static boolean isCharacter(char c) {
+        return c != MorseDecoder.UNKNOWN && c != ' ';
+    }
+
+    /**
+     * @return true para letras, que formam palavras; algarismos, pontuação e prosinais formam grupos próprios
+     */
+    private static boolean isAlphabetic(char c) {
+        return Character.isLetter(c) && !MorseCodeTable.isProsign(c);
+    }
+
+    /**
+     * Uma divisão parcial da entrada. O texto é guardado como uma lista
+     * encadeada de trás para frente, compartilhada entre as hipóteses.
+     */
+    private static final class Hypothesis {
+        final Hypothesis parent;
+        final int node;
+        final double score;
+        final char character;
+        final boolean spaceBefore;
+
+        Hypothesis(Hypothesis parent, int node, double score, char character, boolean spaceBefore) {
+            this.parent = parent;
+            this.node = node;
+            this.score = score;
+            this.character = character;
+            this.spaceBefore = spaceBefore;
+        }
+
+        String text() {
+            StringBuilder text = new StringBuilder();
+            for (Hypothesis h = this; h != null; h = h.parent) {
+                if (h.character != '\0') {
+                    text.append(MorseCodeTable.isProsign(h.character)
+                            ? new StringBuilder(MorseCodeTable.label(h.character)).reverse()
+                            : String.valueOf(h.character));
+                    if (h.spaceBefore) {
+                        text.append(' ');
+                    }
+                }
+            }
+            return text.reverse().toString();
+        }
+    }
+
+    /**
+     * Uma divisão da entrada em palavras
+     */
+    public static final class Segmentation {
+        private final String text;
+        private final double logProbability;
+
+        Segmentation(String text, double logProbability) {
+            this.text = text;
+            this.logProbability = logProbability;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return Logaritmo natural da probabilidade da divisão segundo o dicionário
+         */
+        public double getLogProbability() {
+            return logProbability;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s (log p = %.2f)", text, logProbability);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tom lateral (sidetone) para manipulação ao vivo: o tom soa enquanto a
+ * chave está pressionada, com o menor atraso que a saída de áudio permite.
+ *
+ * Tocar um Clip a cada toque leva dezenas de milissegundos para começar e
+ * não acompanha a duração real do toque. Aqui uma única saída fica aberta
+ * com um buffer pequeno e uma thread de prioridade máxima gera o áudio em
+ * blocos de 1 ms: a cada bloco ela lê o estado da chave e gera o tom (com
+ * rampas de 5 ms, como o {@link MorseAudioRenderer}) ou silêncio. A escrita
+ * bloqueia enquanto o buffer está cheio, então o ritmo é dado pela placa e
+ * o atraso fica em torno do tamanho do buffer.
+ *
+ * O estado da chave é uma única palavra volátil com o instante da última
+ * mudança e, no bit 0, se a chave está pressionada: quem manipula só faz
+ * uma escrita, sem travas, e a thread de áudio sempre lê instante e estado
+ * coerentes.
+ *
+ * A latência de cada toque (do {@link #setKeyDown} até o início do tom sair
+ * do buffer) é estimada pelo áudio que ainda estava na fila à frente do
+ * tom, e vai para {@link MorseMetrics} junto com as vezes em que o buffer
+ * esvaziou (underruns).
+ */
+public class SidetoneKeyer {
+    public static final int DEFAULT_BUFFER_MILLIS = 20;
+    public static final float DEFAULT_FREQUENCY = 700f;
+
+    private static final float SAMPLE_RATE = 44100f;
+    private static final double RAMP_SECONDS = 0.005;
+    private static final float AMPLITUDE = 0.7f;
+    // Cada bloco cobre 1 ms de áudio: é o intervalo entre leituras da chave
+    private static final int CHUNK_MILLIS = 1;
+
+    private final AudioSink sink;
+    private final float frequency;
+    private final int bufferMillis;
+    private final AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+
+    private Thread renderThread;
+    private volatile boolean running;
+
+    // Instante (System.nanoTime) da última mudança da chave, com o bit 0 = pressionada
+    private volatile long keyState;
+
+    // Escritos só pela thread de áudio
+    private volatile long underruns;
+    private volatile long latencyCount;
+    private volatile long latencySumNanos;
+    private volatile long latencyMaxNanos;
+    private volatile long lastLatencyNanos;
+
+    /**
+     * @param sink Saída de áudio (ainda fechada)
+     * @param frequency Frequência do tom em Hz
+     * @param bufferMillis Tamanho pedido para o buffer da saída
+     */
+    public SidetoneKeyer(AudioSink sink, float frequency, int bufferMillis) {
+        if (bufferMillis < 2 * CHUNK_MILLIS) {
+            throw new IllegalArgumentException("Buffer pequeno demais: " + bufferMillis + " ms");
+        }
+        this.sink = sink;
+        this.frequency = frequency;
+        this.bufferMillis = bufferMillis;
+    }
+
+    /**
+     * Inicia o tom lateral na placa de som, ou em uma saída silenciosa se
+     * não houver dispositivo de áudio
+     * @param frequency Frequência do tom em Hz
+     * @param bufferMillis Tamanho pedido para o buffer da saída
+     * @return O keyer já iniciado
+     */
+    public static SidetoneKeyer startDefault(float frequency, int bufferMillis) {
+        SidetoneKeyer keyer = new SidetoneKeyer(AudioSink.line(), frequency, bufferMillis);
+        try {
+            keyer.start();
+            return keyer;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // IllegalArgumentException: nenhum mixer oferece o formato (máquina sem áudio)
+            SidetoneKeyer silent = new SidetoneKeyer(AudioSink.silent(), frequency, bufferMillis);
+            try {
+                silent.start();
+            } catch (LineUnavailableException impossible) {
+                throw new IllegalStateException(impossible);
+            }
+            return silent;
+        }
+    }
+
+    /**
+     * Abre a saída e inicia a thread de áudio
+     * @throws LineUnavailableException Se a saída não puder ser aberta
+     */
+    public synchronized void start() throws LineUnavailableException {
+        if (running) {
+            return;
+        }
+        int frameSize = format.getFrameSize();
+        sink.open(format, (int) (SAMPLE_RATE * bufferMillis / 1000) * frameSize);
+        keyState = System.nanoTime() & ~1L;
+        running = true;
+        renderThread = new Thread(this::renderLoop, "sidetone");
+        renderThread.setDaemon(true);
+        renderThread.setPriority(Thread.MAX_PRIORITY);
+        renderThread.start();
+    }
+
+    /**
+     * Para a thread de áudio e fecha a saída (um WAV é gravado neste momento)
+     * @throws IOException Se a saída falhar ao fechar
+     */
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            renderThread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderThread = null;
+        sink.close();
+    }
+
+    /**
+     * Pressiona ou solta a chave agora
+     * @param down true para pressionar
+     */
+    public void setKeyDown(boolean down) {
+        setKeyDown(down, System.nanoTime());
+    }
+
+    /**
+     * Pressiona ou solta a chave. Repetir o estado atual não tem efeito.
+     * @param down true para pressionar
+     * @param nanos Instante do evento ({@link System#nanoTime()}), base da latência medida
+     */
+    public void setKeyDown(boolean down, long nanos) {
+        long bit = down ? 1 : 0;
+        if ((keyState & 1) != bit) {
+            keyState = nanos & ~1L | bit;
+        }
+    }
+
+    /**
+     * @return Se a chave está pressionada
+     */
+    public boolean isKeyDown() {
+        return (keyState & 1) != 0;
+    }
+
+    /**
+     * @return Nome da saída em uso
+     */
+    public String getSinkName() {
+        return sink.getName();
+    }
+
+    /**
+     * @return Tamanho real do buffer da saída em ms (0 antes de iniciar)
+     */
+    public double getBufferMillis() {
+        return running ? sink.getBufferSize() / (double) format.getFrameSize() / SAMPLE_RATE * 1000 : 0;
+    }
+
+    /**
+     * @return Quantas vezes o buffer esvaziou desde o início
+     */
+    public long getUnderrunCount() {
+        return underruns;
+    }
+
+    /**
+     * @return Quantos toques tiveram a latência medida
+     */
+    public long getLatencyCount() {
+        return latencyCount;
+    }
+
+    /**
+     * @return Latência do último toque em ms
+     */
+    public double getLastLatencyMillis() {
+        return lastLatencyNanos / 1e6;
+    }
+
+    /**
+     * @return Latência média dos toques em ms
+     */
+    public double getMeanLatencyMillis() {
+        long count = latencyCount;
+        return count > 0 ? latencySumNanos / 1e6 / count : 0;
+    }
+
+    /**
+     * @return Maior latência medida em ms
+     */
+    public double getMaxLatencyMillis() {
+        return latencyMaxNanos / 1e6;
+    }
+
+    private void renderLoop() {
+        int frameSize = format.getFrameSize();
+        int chunkFrames = (int) (SAMPLE_RATE * CHUNK_MILLIS / 1000);
+        byte[] chunk = new byte[chunkFrames * frameSize];
+        double bytesPerNano = SAMPLE_RATE * frameSize / 1e9;
+
+        int rampSamples = Math.max(1, (int) Math.round(RAMP_SECONDS * SAMPLE_RATE));
+        float[] ramp = new float[rampSamples + 1];
+        for (int i = 0; i <= rampSamples; i++) {
+            ramp[i] = (float) (0.5 - 0.5 * Math.cos(Math.PI * i / rampSamples));
+        }
+        ToneOscillator oscillator = new ToneOscillator(frequency, SAMPLE_RATE);
+
+        boolean down = false;
+        int level = 0;  // Posição na rampa: 0 = silêncio, rampSamples = volume cheio
+        boolean started = false;
+        while (running) {
+            long state = keyState;
+            boolean pressed = (state & 1) != 0;
+            long pressedNanos = 0;
+            if (pressed != down) {
+                down = pressed;
+                if (down) {
+                    pressedNanos = state & ~1L;
+                    if (level == 0) {
+                        oscillator.reset();  // Todo tom começa na mesma fase
+                    }
+                }
+            }
+
+            if (!down && level == 0) {
+                Arrays.fill(chunk, (byte) 0);
+            } else {
+                for (int i = 0, b = 0; i < chunkFrames; i++, b += 2) {
+                    if (down) {
+                        level = Math.min(rampSamples, level + 1);
+                    } else {
+                        level = Math.max(0, level - 1);
+                    }
+                    int sample = (int) (oscillator.next() * ramp[level] * AMPLITUDE * Short.MAX_VALUE);
+                    chunk[b] = (byte) sample;
+                    chunk[b + 1] = (byte) (sample >> 8);
+                }
+            }
+
+            // Buffer vazio depois do início significa que a saída ficou sem áudio
+            if (started && sink.available() >= sink.getBufferSize()) {
+                underruns++;
+                MorseMetrics.recordAudioUnderrun();
+            }
+            sink.write(chunk, 0, chunk.length);
+            if (!started) {
+                sink.start();
+                started = true;
+            }
+
+            if (pressedNanos != 0) {
+                // O tom começa no início deste bloco: à frente dele ainda há o
+                // que estava na fila antes da escrita
+                int ahead = Math.max(0, sink.getBufferSize() - sink.available() - chunk.length);
+                long latency = System.nanoTime() - pressedNanos + (long) (ahead / bytesPerNano);
+                recordLatency(latency);
+            }
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        lastLatencyNanos = nanos;
+        latencySumNanos += nanos;
+        latencyMaxNanos = Math.max(latencyMaxNanos, nanos);
+        latencyCount++;
+        MorseMetrics.recordSidetoneLatency(nanos);
+    }
+
+    /**
+     * Manipula uma mensagem com os tempos exatos de
+     * {@link KeyTimingDecoder#synthesize} e mostra a latência e os underruns
+     * medidos, sem interface gráfica.
+     *
+     * Uso:
+     * <pre>
+     * SidetoneKeyer [--wav arquivo] &lt;texto&gt; [wpm] [buffer em ms]
+     * </pre>
+     * Sem {@code --wav} o tom sai na placa de som (ou em uma saída
+     * silenciosa, se não houver). Com {@code --wav} o áudio é gravado no
+     * arquivo e transcrito pelo {@link CwAudioDecoder}; o código de saída é
+     * 1 se a transcrição for diferente do texto.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Path wav = null;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("--wav")) {
+            wav = Paths.get(args[1]);
+            first = 2;
+        }
+        if (args.length - first < 1 || args.length - first > 3) {
+            System.err.println("Uso: SidetoneKeyer [--wav arquivo] <texto> [wpm] [buffer em ms]");
+            System.exit(2);
+            return;
+        }
+        String message = args[first];
+        double wpm = args.length - first > 1 ? Double.parseDouble(args[first + 1]) : 20;
+        int bufferMillis = args.length - first > 2 ? Integer.parseInt(args[first + 2]) : DEFAULT_BUFFER_MILLIS;
+
+        MorseDecoder decoder = MorseDecoder.forTable(MorseCodeTable.DEFAULT);
+        String morse = decoder.encodeText(message);
+        long[] events = KeyTimingDecoder.synthesize(morse, wpm, wpm, 0, 42);
+
+        SidetoneKeyer keyer;
+        if (wav != null) {
+            keyer = new SidetoneKeyer(AudioSink.wavFile(wav), DEFAULT_FREQUENCY, bufferMillis);
+            try {
+                keyer.start();
+            } catch (LineUnavailableException e) {
+                throw new IllegalStateException(e);  // A saída simulada sempre abre
+            }
+        } else {
+            keyer = startDefault(DEFAULT_FREQUENCY, bufferMillis);
+        }
+
+        // Começa depois de 7 unidades de silêncio, com a saída já em regime
+        long unitNanos = (long) (1.2e9 / wpm);
+        long base = System.nanoTime() + 7 * unitNanos - events[0];
+        for (int i = 0; i < events.length; i++) {
+            long due = base + events[i];
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            keyer.setKeyDown(i % 2 == 0, System.nanoTime());
+        }
+        LockSupport.parkNanos(7 * unitNanos + 1_000_000L * bufferMillis);
+
+        try {
+            keyer.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar " + wav + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.printf(Locale.ROOT, "Saída: %s, buffer de %d ms pedido%n", keyer.getSinkName(), bufferMillis);
+        System.out.printf(Locale.ROOT, "Latência (chave → tom): média %.1f ms, máx %.1f ms em %d toques%n",
+                keyer.getMeanLatencyMillis(), keyer.getMaxLatencyMillis(), keyer.getLatencyCount());
+        System.out.println("Underruns: " + keyer.getUnderrunCount());
+        if (wav == null) {
+            return;
+        }
+
+        String expected = decoder.decodeMorse(morse);
+        String transcribed;
+        try {
+            transcribed = CwAudioDecoder.transcribe(wav.toFile(), decoder, DEFAULT_FREQUENCY).trim();
+        } catch (IOException | UnsupportedAudioFileException e) {
+            System.err.println("Erro ao ler " + wav + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        System.out.println("Esperado:   " + expected);
+        System.out.println("Transcrito: " + transcribed);
+        System.exit(transcribed.equals(expected) ? 0 : 1);
+    }
+}
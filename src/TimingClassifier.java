@@ -0,0 +1,209 @@
+/**
+ * Classificação adaptativa de durações em pontos e traços, compartilhada
+ * pelos decodificadores que medem tempo ({@link CwAudioDecoder},
+ * {@link KeyTimingDecoder}).
+ *
+ * Cada tom encerrado entra em um histórico dos últimos tons; um 2-means
+ * sobre esse histórico separa pontos de traços e estima a duração da
+ * unidade, que assim acompanha mudanças de velocidade ao longo da
+ * mensagem. Os tons de uma letra só são classificados no fim dela, quando
+ * a estimativa já conta com eles, e vão direto para um
+ * {@link MorseStreamDecoder}.
+ *
+ * Quem mede o tom com um limiar (áudio, tecla com curso) tende a encurtar
+ * todos os tons e alongar todos os intervalos pela mesma quantidade. Tom e
+ * intervalo seguinte somam sempre 2 unidades (ponto) ou 4 (traço), então,
+ * quando há intervalos entre elementos no histórico, a unidade é estimada
+ * por essas somas e o desvio se cancela.
+ *
+ * Quem usa a classe decide onde terminam as letras, com um limiar entre o
+ * intervalo entre elementos (1 unidade) e o entre letras (3 unidades) a
+ * partir de {@link #getUnitMillis()}, e chama {@link #endLetter()}.
+ */
+final class TimingClassifier {
+    // Quantidade de tons usados para estimar a velocidade
+    private static final int HISTORY_SIZE = 16;
+    // Quantidade máxima de elementos guardados por letra
+    private static final int MAX_LETTER_ELEMENTS = 16;
+
+    private final MorseStreamDecoder stream;
+
+    // Tons da letra em andamento
+    private final double[] letterMarks = new double[MAX_LETTER_ELEMENTS];
+    private int letterMarkCount;
+
+    // Estimativa de velocidade: duração da unidade e histórico de tons
+    private double unitMillis;
+    // Fronteira entre ponto e traço: média geométrica dos dois grupos, ou 2
+    // unidades enquanto o histórico só tem um tipo de tom
+    private double thresholdMillis;
+    private final double[] markHistory = new double[HISTORY_SIZE];
+    private int markCount;
+    // Intervalos entre elementos recentes (1 unidade cada)
+    private final double[] gapHistory = new double[HISTORY_SIZE];
+    private int gapCount;
+
+    /**
+     * @param stream Destino dos pontos, traços e separadores
+     * @param initialWpm Velocidade assumida até a primeira estimativa
+     */
+    TimingClassifier(MorseStreamDecoder stream, double initialWpm) {
+        this.stream = stream;
+        this.unitMillis = 1200.0 / initialWpm;
+        this.thresholdMillis = 2 * unitMillis;
+    }
+
+    /**
+     * Guarda um tom encerrado e atualiza a estimativa de velocidade. Durações
+     * nulas, negativas ou não finitas são ignoradas: um único valor assim no
+     * histórico tornaria a estimativa NaN para sempre.
+     * @param millis Duração do tom em ms
+     */
+    void mark(double millis) {
+        if (!(millis > 0) || Double.isInfinite(millis)) {
+            return;
+        }
+        if (letterMarkCount == MAX_LETTER_ELEMENTS) {
+            endLetter();  // Sequência longa demais para uma letra: emite o que houver
+        }
+        letterMarks[letterMarkCount++] = millis;
+        markHistory[markCount % HISTORY_SIZE] = millis;
+        markCount++;
+        updateUnit();
+    }
+
+    /**
+     * Registra um intervalo entre dois tons da mesma letra
+     * @param millis Duração do intervalo em ms
+     */
+    void elementGap(double millis) {
+        if (!(millis > 0) || Double.isInfinite(millis)) {
+            return;
+        }
+        gapHistory[gapCount % HISTORY_SIZE] = millis;
+        gapCount++;
+    }
+
+    /**
+     * Substitui a estimativa atual da unidade, por exemplo por uma medida
+     * sobre o início da mensagem. Os próximos tons continuam a ajustá-la.
+     * @param millis Duração de um ponto em ms
+     */
+    void setUnitMillis(double millis) {
+        if (millis > 0 && !Double.isInfinite(millis)) {
+            unitMillis = millis;
+            thresholdMillis = 2 * millis;
+        }
+    }
+
+    /**
+     * Classifica os tons da letra como pontos ou traços e os envia ao decodificador
+     */
+    void endLetter() {
+        for (int i = 0; i < letterMarkCount; i++) {
+            stream.feed(letterMarks[i] < thresholdMillis ? '.' : '-');
+        }
+        letterMarkCount = 0;
+    }
+
+    /**
+     * @return Se algum tom já foi registrado
+     */
+    boolean hasMarks() {
+        return markCount > 0;
+    }
+
+    /**
+     * @return Duração estimada de um ponto em milissegundos
+     */
+    double getUnitMillis() {
+        return unitMillis;
+    }
+
+    /**
+     * @return Velocidade estimada em palavras por minuto (PARIS)
+     */
+    double getEstimatedWpm() {
+        return 1200.0 / unitMillis;
+    }
+
+    /**
+     * Reestima a duração da unidade com um 2-means sobre os tons recentes
+     */
+    private void updateUnit() {
+        int count = Math.min(markCount, HISTORY_SIZE);
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, markHistory[i]);
+            max = Math.max(max, markHistory[i]);
+        }
+
+        // Média dos intervalos entre elementos recentes, ou 0 se não houver
+        int gaps = Math.min(gapCount, HISTORY_SIZE);
+        double gap = 0;
+        for (int i = 0; i < gaps; i++) {
+            gap += gapHistory[i];
+        }
+        gap = gaps > 0 ? gap / gaps : 0;
+
+        double threshold = Math.sqrt(min * max);
+        double dots = min;
+        double dashes = max;
+        if (max >= 1.5 * min) {
+            for (int iteration = 0; iteration < 4; iteration++) {
+                double dotSum = 0;
+                double dashSum = 0;
+                int dotCount = 0;
+                int dashCount = 0;
+                for (int i = 0; i < count; i++) {
+                    if (markHistory[i] < threshold) {
+                        dotSum += markHistory[i];
+                        dotCount++;
+                    } else {
+                        dashSum += markHistory[i];
+                        dashCount++;
+                    }
+                }
+                if (dotCount == 0 || dashCount == 0) {
+                    break;  // Não acontece com durações positivas; mantém as médias anteriores
+                }
+                dots = dotSum / dotCount;
+                dashes = dashSum / dashCount;
+                threshold = Math.sqrt(dots * dashes);
+            }
+        }
+
+        if (dashes < 2 * dots) {
+            // Um único tipo de tom no histórico (grupos a menos de 2x um do
+            // outro são só a variação de um mesmo tipo): os intervalos dentro
+            // da letra medem uma unidade; sem eles, vale a estimativa atual
+            double mean = 0;
+            for (int i = 0; i < count; i++) {
+                mean += markHistory[i];
+            }
+            mean /= count;
+            // Um intervalo entre elementos é maior que um ponto encurtado e
+            // bem menor que um traço, mesmo com o desvio do limiar
+            boolean dotsOnly = gap > 0 ? gap >= 0.75 * mean : mean < 2 * unitMillis;
+            if (gap > 0) {
+                unitMillis = dotsOnly ? (mean + gap) / 2 : (mean + gap) / 4;
+            } else {
+                unitMillis = dotsOnly ? mean : mean / 3;
+            }
+            thresholdMillis = 2 * unitMillis;
+            return;
+        }
+
+        if (gap > 0) {
+            // Ponto + intervalo = 2 unidades e traço + intervalo = 4, sem o desvio do limiar
+            unitMillis = ((dots + gap) / 2 + (dashes + gap) / 4) / 2;
+        } else {
+            // Ponto e traço/3 estimam a mesma unidade
+            unitMillis = (dots + dashes / 3) / 2;
+        }
+        // Com erro relativo parecido em pontos e traços, a fronteira justa é a
+        // média geométrica (cerca de 1,7 unidade), não 2 unidades
+        thresholdMillis = threshold;
+    }
+}
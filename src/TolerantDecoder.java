@@ -0,0 +1,439 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Decodificação tolerante a erros: cada sequência é trocada pelo código
+ * válido mais próximo.
+ *
+ * A distância é a de edição entre sequências de pontos e traços, contando
+ * símbolos perdidos, símbolos a mais, ponto trocado por traço e dois
+ * símbolos vizinhos invertidos. Sequências a mais de {@link #MAX_DISTANCE}
+ * edições de qualquer código continuam desconhecidas e viram
+ * {@link #REPLACEMENT}.
+ *
+ * Em vez de buscar na árvore a cada letra, o construtor parte de cada código
+ * da tabela e enumera todas as sequências a até {@link #MAX_DISTANCE}
+ * edições dele, guardando o vizinho mais próximo em vetores indexados como o
+ * heap de {@link MorseDecoder} (raiz = 1, ponto = 2i, traço = 2i + 1).
+ * Nenhuma sequência mais longa que o maior código mais {@link #MAX_DISTANCE}
+ * pode estar perto o bastante, então o índice é finito e pequeno (alguns KB
+ * para a tabela internacional). Decodificar custa o mesmo que a
+ * decodificação exata: percorrer os símbolos e ler uma posição do vetor.
+ *
+ * Quando mais de um código está à mesma distância, vence o mais curto (e,
+ * entre códigos do mesmo tamanho, o que tem mais pontos no início), e a
+ * confiança é dividida pela quantidade de empates.
+ *
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public class TolerantDecoder {
+    // Quantidade máxima de edições corrigidas em uma sequência
+    public static final int MAX_DISTANCE = 2;
+
+    // Caractere emitido para sequências sem nenhum código próximo
+    public static final char REPLACEMENT = '\uFFFD';
+
+    private final MorseDecoder decoder;
+
+    // Vizinho mais próximo, distância e confiança de cada sequência, indexados como heap
+    private final char[] nearest;
+    private final byte[] distance;
+    private final float[] confidence;
+
+    /**
+     * Monta o índice de vizinhos a partir da tabela de um decodificador
+     * @param decoder O decodificador com a tabela morse compilada
+     */
+    public TolerantDecoder(MorseDecoder decoder) {
+        this.decoder = decoder;
+        char[] exact = decoder.copyDecodeTable();
+
+        // Maior código da tabela; a raiz (índice 1) não é um código
+        int maxLength = 0;
+        for (int i = 2; i < exact.length; i++) {
+            if (exact[i] != MorseDecoder.UNKNOWN) {
+                maxLength = length(i);
+            }
+        }
+        int size = 1 << (maxLength + MAX_DISTANCE + 1);
+
+        int[] best = new int[size];
+        byte[] ties = new byte[size];
+        distance = new byte[size];
+        Arrays.fill(distance, (byte) (MAX_DISTANCE + 1));
+
+        // Marca as sequências já visitadas a partir do código atual
+        int[] visited = new int[size];
+        int[] frontier = new int[size];
+        int[] next = new int[size];
+
+        // Ordem do heap: códigos mais curtos primeiro, o que decide os empates
+        for (int code = 2; code < exact.length; code++) {
+            if (exact[code] == MorseDecoder.UNKNOWN) {
+                continue;
+            }
+            visited[code] = code;
+            record(code, 0, code, best, ties);
+            frontier[0] = code;
+            int frontierSize = 1;
+
+            for (int d = 1; d <= MAX_DISTANCE; d++) {
+                int nextSize = 0;
+                for (int f = 0; f < frontierSize; f++) {
+                    nextSize = expand(frontier[f], code, d, visited, next, nextSize, best, ties);
+                }
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                frontierSize = nextSize;
+            }
+        }
+
+        nearest = new char[size];
+        confidence = new float[size];
+        for (int i = 2; i < size; i++) {
+            if (distance[i] > MAX_DISTANCE) {
+                nearest[i] = REPLACEMENT;
+                continue;
+            }
+            nearest[i] = exact[best[i]];
+            int longest = Math.max(length(i), length(best[i]));
+            confidence[i] = (1f - (float) distance[i] / (longest + 1)) / ties[i];
+        }
+    }
+
+    /**
+     * Obtém o decodificador tolerante compartilhado de uma tabela
+     * @param tableName O nome da tabela (ver MorseCodeTable.availableTables)
+     * @return O decodificador tolerante da tabela
+     */
+    public static TolerantDecoder forTable(String tableName) {
+        return MorseDecoder.forTable(tableName).tolerant();
+    }
+
+    /**
+     * @return O decodificador exato usado como referência
+     */
+    public MorseDecoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * Encontra o código mais próximo do trecho [start, end) de uma sequência
+     * @param sequence A sequência que contém o código morse
+     * @param start Índice inicial (inclusivo)
+     * @param end Índice final (exclusivo)
+     * @return O caractere escolhido, a distância e a confiança
+     */
+    public Match match(CharSequence sequence, int start, int end) {
+        int index = index(sequence, start, end);
+        if (index < 0 || distance[index] > MAX_DISTANCE) {
+            return new Match(REPLACEMENT, -1, 0f);
+        }
+        return new Match(nearest[index], distance[index], confidence[index]);
+    }
+
+    /**
+     * Decodifica uma mensagem corrigindo as sequências inválidas
+     * @param morse A mensagem com sequências separadas por espaço e "/" entre palavras
+     * @return O texto, com o número de correções e a confiança
+     */
+    public Result decode(CharSequence morse) {
+        MorseEvents.Decode event = new MorseEvents.Decode();
+        event.begin();
+        long startNanos = MorseMetrics.startTimer();
+        StringBuilder text = new StringBuilder(morse.length() / 3 + 1);
+        int letters = 0;
+        int corrected = 0;
+        int unknown = 0;
+        double confidenceSum = 0;
+        float minConfidence = 1f;
+
+        int length = morse.length();
+        int start = 0;
+        while (start < length) {
+            if (morse.charAt(start) == ' ') {
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < length && morse.charAt(end) != ' ') {
+                end++;
+            }
+
+            if (end - start == 1 && morse.charAt(start) == '/') {
+                text.append(' ');  // '/' representa um espaço
+            } else {
+                int index = index(morse, start, end);
+                float c = index < 0 ? 0f : confidence[index];
+                if (index < 0 || distance[index] > MAX_DISTANCE) {
+                    text.append(REPLACEMENT);
+                    unknown++;
+                } else {
+                    text.append(nearest[index]);
+                    if (distance[index] > 0) {
+                        corrected++;
+                    }
+                }
+                letters++;
+                confidenceSum += c;
+                minConfidence = Math.min(minConfidence, c);
+            }
+            start = end;
+        }
+
+        MorseMetrics.recordDecode(length, text.length(), unknown);
+        MorseMetrics.recordDecodeLatency(startNanos);
+        commit(event, length, text.length());
+        return new Result(text.toString(), letters, corrected, unknown,
+                letters == 0 ? 1f : (float) (confidenceSum / letters), letters == 0 ? 1f : minConfidence);
+    }
+
+    /**
+     * Decodifica uma mensagem corrigindo as sequências inválidas
+     * @param morse A mensagem com sequências separadas por espaço e "/" entre palavras
+     * @return Apenas o texto decodificado
+     */
+    public String decodeMorse(String morse) {
+        MorseEvents.Decode event = new MorseEvents.Decode();
+        event.begin();
+        long start = MorseMetrics.startTimer();
+        StringBuilder decoded = new StringBuilder(morse.length() / 3 + 1);
+        MorseStreamDecoder stream = streamDecoder(decoded::append);
+        stream.feed(morse, 0, morse.length());
+        stream.finish();
+        MorseMetrics.recordDecodeLatency(start);
+        commit(event, morse.length(), decoded.length());
+        return decoded.toString();
+    }
+
+    /**
+     * Grava o evento de decodificação se houver uma gravação do JFR interessada nele
+     */
+    private void commit(MorseEvents.Decode event, long inputLength, long outputLength) {
+        if (event.shouldCommit()) {
+            event.table = decoder.getTable().getName();
+            event.tolerant = true;
+            event.inputLength = inputLength;
+            event.outputLength = outputLength;
+            event.commit();
+        }
+    }
+
+    /**
+     * Cria um decodificador incremental que corrige as sequências inválidas
+     * @param sink Destino dos caracteres decodificados
+     * @return O decodificador incremental
+     */
+    public MorseStreamDecoder streamDecoder(MorseStreamDecoder.Sink sink) {
+        return new MorseStreamDecoder(nearest, REPLACEMENT, sink);
+    }
+
+    /**
+     * Calcula a posição no heap do trecho [start, end)
+     * @return A posição, ou -1 se houver símbolos inválidos ou a sequência for longa demais
+     */
+    private int index(CharSequence sequence, int start, int end) {
+        int index = 1;
+        for (int i = start; i < end; i++) {
+            char symbol = sequence.charAt(i);
+            if (symbol == '.') {
+                index = index << 1;
+            } else if (symbol == '-') {
+                index = (index << 1) | 1;
+            } else {
+                return -1;
+            }
+            if (index >= nearest.length) {
+                return -1;
+            }
+        }
+        return index > 1 ? index : -1;
+    }
+
+    /**
+     * Guarda o código como vizinho da sequência, se for o mais próximo até agora
+     */
+    private void record(int sequence, int d, int code, int[] best, byte[] ties) {
+        if (d < distance[sequence]) {
+            distance[sequence] = (byte) d;
+            best[sequence] = code;
+            ties[sequence] = 1;
+        } else if (d == distance[sequence] && ties[sequence] < Byte.MAX_VALUE) {
+            ties[sequence]++;
+        }
+    }
+
+    /**
+     * Gera as sequências a uma edição de {@code from} que ainda não foram visitadas
+     * @return O novo tamanho de {@code out}
+     */
+    private int expand(int from, int code, int d, int[] visited, int[] out, int outSize,
+                       int[] best, byte[] ties) {
+        int n = length(from);
+        int bits = from ^ (1 << n);
+
+        for (int p = 0; p <= n; p++) {
+            int after = n - p;             // Símbolos depois da posição p
+            int high = bits >>> after;
+            int low = bits & ((1 << after) - 1);
+
+            // Símbolo a mais na posição p
+            if ((1 << (n + 2)) <= visited.length) {
+                for (int symbol = 0; symbol <= 1; symbol++) {
+                    int inserted = (1 << (n + 1)) | (((high << 1) | symbol) << after) | low;
+                    outSize = visit(inserted, code, d, visited, out, outSize, best, ties);
+                }
+            }
+            if (p == n) {
+                break;
+            }
+
+            // Símbolo perdido na posição p
+            if (n > 1) {
+                int lowAfter = bits & ((1 << (after - 1)) - 1);
+                int deleted = (1 << (n - 1)) | ((high << (after - 1)) | lowAfter);
+                outSize = visit(deleted, code, d, visited, out, outSize, best, ties);
+            }
+
+            // Ponto trocado por traço (ou o contrário)
+            outSize = visit(from ^ (1 << (after - 1)), code, d, visited, out, outSize, best, ties);
+
+            // Símbolos vizinhos invertidos
+            if (p + 1 < n) {
+                int a = (bits >>> (after - 1)) & 1;
+                int b = (bits >>> (after - 2)) & 1;
+                if (a != b) {
+                    outSize = visit(from ^ (3 << (after - 2)), code, d, visited, out, outSize, best, ties);
+                }
+            }
+        }
+        return outSize;
+    }
+
+    private int visit(int sequence, int code, int d, int[] visited, int[] out, int outSize,
+                      int[] best, byte[] ties) {
+        if (visited[sequence] == code) {
+            return outSize;
+        }
+        visited[sequence] = code;
+        record(sequence, d, code, best, ties);
+        out[outSize] = sequence;
+        return outSize + 1;
+    }
+
+    /**
+     * @return A quantidade de símbolos da sequência na posição do heap
+     */
+    private static int length(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index);
+    }
+
+    /**
+     * Resultado da busca por uma única sequência
+     */
+    public static final class Match {
+        private final char character;
+        private final int distance;
+        private final float confidence;
+
+        Match(char character, int distance, float confidence) {
+            this.character = character;
+            this.distance = distance;
+            this.confidence = confidence;
+        }
+
+        /**
+         * @return O caractere escolhido, ou {@link #REPLACEMENT}
+         */
+        public char getCharacter() {
+            return character;
+        }
+
+        /**
+         * @return Edições até o código escolhido (0 = exato), ou -1 se nenhum código estiver perto
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return Confiança entre 0 e 1: 1 para códigos exatos, menor com mais edições e empates
+         */
+        public float getConfidence() {
+            return confidence;
+        }
+
+        @Override
+        public String toString() {
+            return MorseCodeTable.label(character) + " (distância " + distance + ", confiança "
+                    + String.format(Locale.ROOT, "%.2f", confidence) + ")";
+        }
+    }
+
+    /**
+     * Resultado da decodificação de uma mensagem
+     */
+    public static final class Result {
+        private final String text;
+        private final int letters;
+        private final int corrected;
+        private final int unknown;
+        private final float confidence;
+        private final float minConfidence;
+
+        Result(String text, int letters, int corrected, int unknown, float confidence, float minConfidence) {
+            this.text = text;
+            this.letters = letters;
+            this.corrected = corrected;
+            this.unknown = unknown;
+            this.confidence = confidence;
+            this.minConfidence = minConfidence;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return Sequências decodificadas (sem contar os espaços entre palavras)
+         */
+        public int getLetters() {
+            return letters;
+        }
+
+        /**
+         * @return Sequências trocadas por um código próximo
+         */
+        public int getCorrected() {
+            return corrected;
+        }
+
+        /**
+         * @return Sequências sem nenhum código próximo
+         */
+        public int getUnknown() {
+            return unknown;
+        }
+
+        /**
+         * @return Confiança média por sequência
+         */
+        public float getConfidence() {
+            return confidence;
+        }
+
+        /**
+         * @return Confiança da sequência mais duvidosa
+         */
+        public float getMinConfidence() {
+            return minConfidence;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d letras | %d corrigidas | %d desconhecidas | confiança média %.2f (mínima %.2f)",
+                    letters, corrected, unknown, confidence, minConfidence);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Banco de tons compartilhado por todo o processo.
+ *
+ * Os tons são identificados por frequência, duração, taxa de amostragem e
+ * envelope. O PCM gerado fica em um cache LRU limitado em bytes e os Clips
+ * abertos ficam em um pool pequeno, também LRU: abrir várias janelas de
+ * visualização reaproveita as mesmas linhas do mixer em vez de abrir novas.
+ * Contadores de acertos, faltas e remoções permitem acompanhar o cache.
+ */
+public final class ToneBank {
+    // Limite padrão do cache de PCM (cerca de 25 s de áudio a 44,1 kHz)
+    private static final long DEFAULT_MAX_PCM_BYTES = 2L << 20;
+    // Limite padrão de Clips abertos ao mesmo tempo
+    private static final int DEFAULT_MAX_OPEN_CLIPS = 4;
+
+    private static final ToneBank INSTANCE = new ToneBank(DEFAULT_MAX_PCM_BYTES, DEFAULT_MAX_OPEN_CLIPS);
+
+    /**
+     * Envelope aplicado ao tom para evitar estalos
+     */
+    public enum Envelope {
+        // Subida linear em 10% da duração e descida em 20% (o som original dos visualizadores)
+        LINEAR_ATTACK_RELEASE,
+        // Rampas de meio cosseno de 5 ms nas duas pontas
+        RAISED_COSINE
+    }
+
+    /**
+     * Identificação de um tom no banco
+     */
+    public static final class ToneKey {
+        private final float frequency;
+        private final int durationMillis;
+        private final float sampleRate;
+        private final Envelope envelope;
+
+        public ToneKey(float frequency, int durationMillis, float sampleRate, Envelope envelope) {
+            this.frequency = frequency;
+            this.durationMillis = durationMillis;
+            this.sampleRate = sampleRate;
+            this.envelope = Objects.requireNonNull(envelope);
+        }
+
+        public float getFrequency() {
+            return frequency;
+        }
+
+        public int getDurationMillis() {
+            return durationMillis;
+        }
+
+        public float getSampleRate() {
+            return sampleRate;
+        }
+
+        public Envelope getEnvelope() {
+            return envelope;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ToneKey)) {
+                return false;
+            }
+            ToneKey key = (ToneKey) other;
+            return Float.compare(frequency, key.frequency) == 0
+                    && durationMillis == key.durationMillis
+                    && Float.compare(sampleRate, key.sampleRate) == 0
+                    && envelope == key.envelope;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(frequency, durationMillis, sampleRate, envelope);
+        }
+
+        @Override
+        public String toString() {
+            return frequency + " Hz, " + durationMillis + " ms, " + sampleRate + " Hz, " + envelope;
+        }
+    }
+
+    private final long maxPcmBytes;
+    private final int maxOpenClips;
+
+    // Ordem de acesso: o primeiro elemento é o menos usado recentemente
+    private final LinkedHashMap<ToneKey, byte[]> pcmCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<ToneKey, Clip> clipPool = new LinkedHashMap<>(8, 0.75f, true);
+    private long pcmBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder clipsOpened = new LongAdder();
+    private final LongAdder clipsClosed = new LongAdder();
+
+    /**
+     * Cria um banco independente (normalmente usa-se {@link #getInstance()})
+     * @param maxPcmBytes Limite de bytes de PCM em cache
+     * @param maxOpenClips Limite de Clips abertos ao mesmo tempo
+     */
+    public ToneBank(long maxPcmBytes, int maxOpenClips) {
+        if (maxPcmBytes <= 0 || maxOpenClips <= 0) {
+            throw new IllegalArgumentException("Limites devem ser positivos");
+        }
+        this.maxPcmBytes = maxPcmBytes;
+        this.maxOpenClips = maxOpenClips;
+    }
+
+    /**
+     * @return O banco de tons compartilhado pelo processo
+     */
+    public static ToneBank getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return O formato do PCM gerado: 16 bits, mono, com sinal, little-endian
+     */
+    public static AudioFormat formatFor(ToneKey key) {
+        return new AudioFormat(key.getSampleRate(), 16, 1, true, false);
+    }
+
+    /**
+     * Obtém o PCM de um tom, gerando-o apenas na primeira vez.
+     * O vetor devolvido é compartilhado e não deve ser alterado.
+     * @param key O tom desejado
+     * @return As amostras no formato de {@link #formatFor(ToneKey)}
+     */
+    public synchronized byte[] pcm(ToneKey key) {
+        byte[] buffer = pcmCache.get(key);
+        if (buffer != null) {
+            hits.increment();
+            return buffer;
+        }
+
+        misses.increment();
+        buffer = render(key);
+        pcmCache.put(key, buffer);
+        pcmBytes += buffer.length;
+
+        // Remove os menos usados até caber no limite (o recém-criado sempre fica)
+        Iterator<Map.Entry<ToneKey, byte[]>> iterator = pcmCache.entrySet().iterator();
+        while (pcmBytes > maxPcmBytes && pcmCache.size() > 1) {
+            Map.Entry<ToneKey, byte[]> eldest = iterator.next();
+            pcmBytes -= eldest.getValue().length;
+            iterator.remove();
+            evictions.increment();
+        }
+        return buffer;
+    }
+
+    /**
+     * Obtém um Clip aberto com o tom, reaproveitando o do pool quando existir.
+     * O Clip pertence ao banco: quem o usa pode tocá-lo e pará-lo, mas não deve fechá-lo.
+     * Como o banco fecha o Clip menos usado para abrir outro, quem toca um tom
+     * deve pedir o Clip a cada vez em vez de guardá-lo.
+     * @param key O tom desejado
+     * @return Um Clip aberto e pronto para tocar
+     * @throws LineUnavailableException Se não houver linha de áudio disponível
+     */
+    public synchronized Clip clip(ToneKey key) throws LineUnavailableException {
+        Clip clip = clipPool.get(key);
+        if (clip != null && clip.isOpen()) {
+            return clip;
+        }
+        if (clip != null) {
+            clipPool.remove(key);  // Fechado por fora: descarta
+        }
+
+        // Libera a linha menos usada antes de abrir outra, de preferência uma
+        // que não esteja tocando
+        if (clipPool.size() >= maxOpenClips) {
+            Clip evicted = evictClip();
+            evicted.stop();
+            evicted.close();
+            clipsClosed.increment();
+        }
+
+        byte[] buffer = pcm(key);
+        clip = AudioSystem.getClip();
+        clip.open(formatFor(key), buffer, 0, buffer.length);
+        clipsOpened.increment();
+        clipPool.put(key, clip);
+        return clip;
+    }
+
+    /**
+     * Remove do pool o Clip menos usado que esteja parado, ou o menos usado
+     * de todos se todos estiverem tocando
+     */
+    private Clip evictClip() {
+        Iterator<Map.Entry<ToneKey, Clip>> iterator = clipPool.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Clip candidate = iterator.next().getValue();
+            if (!candidate.isRunning()) {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        iterator = clipPool.entrySet().iterator();
+        Clip eldest = iterator.next().getValue();
+        iterator.remove();
+        return eldest;
+    }
+
+    /**
+     * Fecha todos os Clips e esvazia o cache
+     */
+    public synchronized void clear() {
+        for (Clip clip : clipPool.values()) {
+            clip.stop();
+            clip.close();
+            clipsClosed.increment();
+        }
+        clipPool.clear();
+        evictions.add(pcmCache.size());
+        pcmCache.clear();
+        pcmBytes = 0;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public synchronized long getCachedBytes() {
+        return pcmBytes;
+    }
+
+    public synchronized int getOpenClipCount() {
+        return clipPool.size();
+    }
+
+    public long getClipsOpenedCount() {
+        return clipsOpened.sum();
+    }
+
+    public long getClipsClosedCount() {
+        return clipsClosed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ToneBank[acertos=" + getHitCount() + ", faltas=" + getMissCount()
+                + ", remoções=" + getEvictionCount() + ", bytes=" + getCachedBytes()
+                + ", clips abertos=" + getOpenClipCount() + "]";
+    }
+
+    /**
+     * Gera o PCM de um tom senoidal com o envelope pedido
+     */
+    private static byte[] render(ToneKey key) {
+        int numSamples = (int) (key.getSampleRate() * key.getDurationMillis() / 1000.0);
+        byte[] buffer = new byte[numSamples * 2]; // 16 bits = 2 bytes por amostra
+        ToneOscillator oscillator = new ToneOscillator(key.getFrequency(), key.getSampleRate());
+        double amplitude = 0.7 * Short.MAX_VALUE;
+        int ramp = Math.max(1, (int) (key.getSampleRate() * 0.005));
+
+        for (int i = 0; i < numSamples; i++) {
+            double envelope = 1.0;
+            if (key.getEnvelope() == Envelope.LINEAR_ATTACK_RELEASE) {
+                if (i < numSamples * 0.1) { // Attack: 10% do tempo
+                    envelope = i / (numSamples * 0.1);
+                } else if (i > numSamples * 0.8) { // Release: 20% do tempo
+                    envelope = (numSamples - i) / (numSamples * 0.2);
+                }
+            } else {
+                int edge = Math.min(i, numSamples - 1 - i);
+                if (edge < ramp) {
+                    envelope = 0.5 - 0.5 * Math.cos(Math.PI * edge / ramp);
+                }
+            }
+
+            short sample = (short) (amplitude * oscillator.next() * envelope);
+            buffer[i * 2] = (byte) (sample & 0xFF);
+            buffer[i * 2 + 1] = (byte) ((sample >> 8) & 0xFF);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Oscilador senoidal por tabela de onda (wavetable) com fase contínua.
+ *
+ * A fase é um acumulador inteiro de 32 bits que dá a volta sozinho a cada
+ * período; os 12 bits mais altos indexam uma tabela de seno pré-calculada e
+ * os demais interpolam linearmente entre duas posições. Assim cada amostra
+ * custa uma soma e uma interpolação, sem chamar {@code Math.sin}, e a fase
+ * segue sem saltos entre um elemento e outro, evitando estalos.
+ *
+ * Instâncias não são thread-safe.
+ */
+public class ToneOscillator {
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int FRACTION_BITS = 32 - TABLE_BITS;
+    private static final float FRACTION_SCALE = 1.0f / (1 << FRACTION_BITS);
+
+    // Uma posição extra evita testar o fim da tabela na interpolação
+    private static final float[] SINE = new float[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SINE[i] = (float) Math.sin(2 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private final float sampleRate;
+    private int phase;
+    private int increment;
+
+    /**
+     * @param frequency Frequência do tom em Hz
+     * @param sampleRate Taxa de amostragem em Hz
+     */
+    public ToneOscillator(float frequency, float sampleRate) {
+        this.sampleRate = sampleRate;
+        setFrequency(frequency);
+    }
+
+    /**
+     * Altera a frequência sem reiniciar a fase
+     * @param frequency Nova frequência em Hz
+     */
+    public void setFrequency(float frequency) {
+        if (frequency <= 0 || frequency >= sampleRate / 2) {
+            throw new IllegalArgumentException("Frequência fora da faixa: " + frequency + " Hz");
+        }
+        // Fração de período por amostra em ponto fixo de 32 bits
+        this.increment = (int) Math.round(frequency / sampleRate * 4294967296.0);
+    }
+
+    /**
+     * @return A próxima amostra, entre -1 e 1
+     */
+    public float next() {
+        int index = phase >>> FRACTION_BITS;
+        float fraction = (phase & ((1 << FRACTION_BITS) - 1)) * FRACTION_SCALE;
+        phase += increment;
+
+        float a = SINE[index];
+        return a + (SINE[index + 1] - a) * fraction;
+    }
+
+    /**
+     * Avança a fase como se {@code samples} amostras tivessem sido geradas
+     * @param samples Quantidade de amostras
+     */
+    public void skip(long samples) {
+        phase += (int) (increment * samples);
+    }
+
+    /**
+     * Volta a fase para zero
+     */
+    public void reset() {
+        phase = 0;
+    }
+
+    /**
+     * @return A taxa de amostragem em Hz
+     */
+    public float getSampleRate() {
+        return sampleRate;
+    }
+}
@@ -0,0 +1,274 @@
+import java.awt.*;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Posições dos nós da árvore morse para uma dada largura de componente.
+ *
+ * O layout é baseado na quantidade de folhas: cada folha ocupa uma coluna de
+ * largura fixa, um nó com dois filhos fica centrado entre eles e um nó com um
+ * único filho fica meia coluna para o lado oposto (o ponto sempre à esquerda,
+ * o traço à direita). Assim a largura acompanha a árvore real, sem sobreposição
+ * nem espaço desperdiçado, mesmo com alfabetos de 6 ou 7 níveis. Se o
+ * componente for mais largo que a árvore, ela é centralizada.
+ *
+ * O cálculo é feito uma vez por layout e guardado em vetores planos, indexados
+ * na ordem de visita (pré-ordem): a raiz é o índice 0 e cada nó guarda o
+ * índice dos filhos. Uma grade por nível e coluna permite achar o nó sob o
+ * mouse em tempo constante.
+ */
+final class TreeLayout {
+    // Largura de uma coluna: o nó e o código escrito abaixo dele
+    static final int COLUMN_WIDTH = 48;
+    private static final int MARGIN = 20;
+    private static final int CELL_WIDTH = COLUMN_WIDTH / 2;
+    // Caixa que contém o nó e o código escrito abaixo dele, relativa ao centro
+    private static final int BOUNDS_HALF_WIDTH = COLUMN_WIDTH * 3 / 4;
+    private static final int BOUNDS_TOP = TreeRenderer.NODE_SIZE / 2 + 2;
+    private static final int BOUNDS_BOTTOM = TreeRenderer.NODE_SIZE + 6;
+
+    private final int width;
+    private final MorseNode[] nodes;
+    private final String[] codes;
+    private final int[] x;
+    private final int[] y;
+    private final int[] left;
+    private final int[] right;
+    private final Map<MorseNode, Integer> indexOf = new IdentityHashMap<>();
+    private int size;
+
+    // Largura (em colunas) e posição do nó (em colunas, a partir da borda esquerda) de cada subárvore
+    private final double[] subtreeWidth;
+    private final double[] anchor;
+    private final double[] childShift;
+
+    private final int levels;
+    private final int extentWidth;
+    private final int originX;
+    // Nó de cada nível em cada faixa de meia coluna, ou -1
+    private final int[][] grid;
+
+    /**
+     * @param root Raiz da árvore
+     * @param width Largura do componente em que a árvore é desenhada
+     */
+    TreeLayout(MorseNode root, int width) {
+        int count = count(root);
+        this.nodes = new MorseNode[count];
+        this.codes = new String[count];
+        this.x = new int[count];
+        this.y = new int[count];
+        this.left = new int[count];
+        this.right = new int[count];
+        this.subtreeWidth = new double[count];
+        this.anchor = new double[count];
+        this.childShift = new double[count];
+
+        // Primeira passada: índices e medidas de cada subárvore
+        index(root, "");
+        for (int i = size - 1; i >= 0; i--) {
+            measure(i);
+        }
+
+        this.levels = depth(root);
+        this.extentWidth = count == 0 ? 0 : (int) Math.ceil(subtreeWidth[0] * COLUMN_WIDTH);
+        this.width = width;
+        this.originX = Math.max(MARGIN, (width - extentWidth) / 2);
+
+        // Segunda passada: posições absolutas, da raiz para as folhas
+        if (count > 0) {
+            place(0, 0, 0);
+        }
+
+        this.grid = new int[levels][extentWidth / CELL_WIDTH + 2];
+        for (int[] row : grid) {
+            Arrays.fill(row, -1);
+        }
+        for (int i = 0; i < size; i++) {
+            grid[level(i)][cell(x[i])] = i;
+        }
+    }
+
+    /**
+     * @return A largura para a qual o layout foi calculado
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return O tamanho mínimo do componente para mostrar a árvore inteira
+     */
+    Dimension getPreferredSize() {
+        int height = TreeRenderer.TOP + Math.max(0, levels - 1) * TreeRenderer.VERTICAL_SPACING
+                + BOUNDS_BOTTOM + MARGIN;
+        return new Dimension(extentWidth + 2 * MARGIN, height);
+    }
+
+    /**
+     * @return A quantidade de nós
+     */
+    int size() {
+        return size;
+    }
+
+    MorseNode node(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * @return O código morse que leva da raiz até o nó
+     */
+    String code(int index) {
+        return codes[index];
+    }
+
+    int x(int index) {
+        return x[index];
+    }
+
+    int y(int index) {
+        return y[index];
+    }
+
+    /**
+     * @return O índice do filho do ponto, ou -1
+     */
+    int left(int index) {
+        return left[index];
+    }
+
+    /**
+     * @return O índice do filho do traço, ou -1
+     */
+    int right(int index) {
+        return right[index];
+    }
+
+    /**
+     * @return O índice do nó, ou -1 se ele não pertence à árvore
+     */
+    int indexOf(MorseNode node) {
+        Integer index = indexOf.get(node);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return O retângulo ocupado pelo nó e seus rótulos, para repintura parcial
+     */
+    Rectangle bounds(int index) {
+        return new Rectangle(x[index] - BOUNDS_HALF_WIDTH, y[index] - BOUNDS_TOP,
+                2 * BOUNDS_HALF_WIDTH, BOUNDS_TOP + BOUNDS_BOTTOM);
+    }
+
+    /**
+     * Encontra o nó sob um ponto em tempo constante.
+     * Nós do mesmo nível ficam a pelo menos uma coluna de distância, então
+     * cada célula (meia coluna) guarda no máximo um nó e, como o raio do nó é
+     * menor que uma célula, bastam a célula do ponto e as duas vizinhas.
+     * @return O índice do nó cujo círculo contém o ponto, ou -1
+     */
+    int nodeAt(int px, int py) {
+        int level = Math.round((py - TreeRenderer.TOP) / (float) TreeRenderer.VERTICAL_SPACING);
+        if (level < 0 || level >= levels) {
+            return -1;
+        }
+        int cell = cell(px);
+        int radius = TreeRenderer.NODE_SIZE / 2;
+        for (int c = cell - 1; c <= cell + 1; c++) {
+            if (c < 0 || c >= grid[level].length) {
+                continue;
+            }
+            int candidate = grid[level][c];
+            if (candidate >= 0) {
+                int dx = px - x[candidate];
+                int dy = py - y[candidate];
+                if (dx * dx + dy * dy <= radius * radius) {
+                    return candidate;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int level(int index) {
+        return (y[index] - TreeRenderer.TOP) / TreeRenderer.VERTICAL_SPACING;
+    }
+
+    private int cell(int px) {
+        return Math.floorDiv(px - originX, CELL_WIDTH);
+    }
+
+    private static int count(MorseNode node) {
+        return node == null ? 0 : 1 + count(node.left) + count(node.right);
+    }
+
+    private static int depth(MorseNode node) {
+        return node == null ? 0 : 1 + Math.max(depth(node.left), depth(node.right));
+    }
+
+    /**
+     * Numera os nós em pré-ordem e guarda os filhos e o código de cada um
+     * @return O índice atribuído ao nó, ou -1 se for nulo
+     */
+    private int index(MorseNode node, String code) {
+        if (node == null) {
+            return -1;
+        }
+        int index = size++;
+        nodes[index] = node;
+        codes[index] = code;
+        indexOf.put(node, index);
+        left[index] = index(node.left, code + ".");
+        right[index] = index(node.right, code + "-");
+        return index;
+    }
+
+    /**
+     * Calcula a largura da subárvore e a posição do nó dentro dela, em colunas.
+     * Em pré-ordem os filhos têm índices maiores, então já foram medidos.
+     */
+    private void measure(int i) {
+        int l = left[i];
+        int r = right[i];
+        if (l < 0 && r < 0) {
+            // Folha: uma coluna, nó no centro
+            subtreeWidth[i] = 1;
+            anchor[i] = 0.5;
+        } else if (l >= 0 && r >= 0) {
+            // Dois filhos lado a lado, nó centrado entre eles
+            subtreeWidth[i] = subtreeWidth[l] + subtreeWidth[r];
+            anchor[i] = (anchor[l] + subtreeWidth[l] + anchor[r]) / 2;
+        } else if (l >= 0) {
+            // Só o ponto: nó meia coluna à direita do filho
+            anchor[i] = anchor[l] + 0.5;
+            subtreeWidth[i] = Math.max(subtreeWidth[l], anchor[i] + 0.5);
+        } else {
+            // Só o traço: nó meia coluna à esquerda do filho, deslocando o filho se preciso
+            childShift[i] = Math.max(0, 1 - anchor[r]);
+            anchor[i] = childShift[i] + anchor[r] - 0.5;
+            subtreeWidth[i] = childShift[i] + subtreeWidth[r];
+        }
+    }
+
+    /**
+     * Converte as posições relativas em coordenadas do componente
+     * @param i Índice do nó
+     * @param edge Borda esquerda da subárvore, em colunas
+     * @param level Nível do nó
+     */
+    private void place(int i, double edge, int level) {
+        x[i] = originX + (int) Math.round((edge + anchor[i]) * COLUMN_WIDTH);
+        y[i] = TreeRenderer.TOP + level * TreeRenderer.VERTICAL_SPACING;
+
+        int l = left[i];
+        int r = right[i];
+        if (l >= 0) {
+            place(l, edge, level + 1);
+        }
+        if (r >= 0) {
+            place(r, l >= 0 ? edge + subtreeWidth[l] : edge + childShift[i], level + 1);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Desenho da árvore morse compartilhado pelos visualizadores.
+ *
+ * As posições vêm de um {@link TreeLayout}, calculado uma vez por largura.
+ * A árvore estática (nós, arestas, rótulos) é desenhada uma única vez em uma
+ * imagem compatível com a tela e só é refeita quando o tamanho do componente
+ * ou a raiz mudam; cada pintura apenas copia o retângulo recortado dessa
+ * imagem. Destaques de animação são desenhados por cima com
+ * {@link #paintNode(Graphics2D, MorseNode, int, int, Color)}.
+ * Fontes e cores são criadas uma vez, não a cada nó.
+ */
+final class TreeRenderer {
+    static final int NODE_SIZE = 30;
+    static final int VERTICAL_SPACING = 50;
+    static final int TOP = 40;
+
+    private static final Font NODE_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Font CODE_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font DOT_FONT = new Font("Arial", Font.BOLD, 44);
+    private static final Font DASH_FONT = new Font("Arial", Font.BOLD, 36);
+    static final Color NODE_COLOR = new Color(240, 240, 255);
+    private static final Color BACKGROUND = Color.WHITE;
+
+    private MorseNode root;
+    private TreeLayout layout;
+    private BufferedImage image;
+
+    TreeRenderer(MorseNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Troca a árvore desenhada, descartando a imagem em cache
+     */
+    void setRoot(MorseNode root) {
+        this.root = root;
+        this.layout = null;
+        invalidate();
+    }
+
+    /**
+     * @param width Largura do componente
+     * @return As posições dos nós, recalculadas só quando a largura muda
+     */
+    TreeLayout getLayout(int width) {
+        if (layout == null || layout.getWidth() != width) {
+            layout = new TreeLayout(root, width);
+        }
+        return layout;
+    }
+
+    /**
+     * @return O tamanho que mostra a árvore inteira, conforme o layout
+     */
+    Dimension getPreferredSize() {
+        return getLayout(layout != null ? layout.getWidth() : 0).getPreferredSize();
+    }
+
+    /**
+     * @return Descrição do nó sob o ponto (para dicas do mouse), ou null
+     */
+    String describeNodeAt(int width, Point point) {
+        TreeLayout current = getLayout(width);
+        int index = current.nodeAt(point.x, point.y);
+        if (index < 0) {
+            return null;
+        }
+        MorseNode node = current.node(index);
+        String code = current.code(index).isEmpty() ? "(raiz)" : current.code(index);
+        return node.character != '\0' ? MorseCodeTable.label(node.character) + "  " + code : code;
+    }
+
+    /**
+     * Descarta a imagem em cache; a próxima pintura a refaz
+     */
+    void invalidate() {
+        if (image != null) {
+            image.flush();
+            image = null;
+        }
+    }
+
+    /**
+     * Copia para {@code g} apenas a parte da árvore dentro do recorte
+     * @param g Contexto gráfico do componente
+     * @param component O componente em que a árvore é pintada
+     */
+    void paint(Graphics2D g, JComponent component) {
+        int width = component.getWidth();
+        int height = component.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            invalidate();
+            image = render(component, width, height);
+        }
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, width, height);
+        } else {
+            clip = clip.intersection(new Rectangle(0, 0, width, height));
+        }
+        if (clip.isEmpty()) {
+            return;
+        }
+        g.drawImage(image,
+                clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                null);
+    }
+
+    /**
+     * Desenha um nó (círculo, caractere e código) por cima da árvore
+     */
+    void paintNode(Graphics2D g2d, MorseNode node, int x, int y, Color fill) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawNode(g2d, node, x, y, fill);
+    }
+
+    private BufferedImage render(JComponent component, int width, int height) {
+        GraphicsConfiguration config = component.getGraphicsConfiguration();
+        BufferedImage rendered = config != null
+                ? config.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g2d = rendered.createGraphics();
+        try {
+            g2d.setColor(BACKGROUND);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawTree(g2d, getLayout(width));
+        } finally {
+            g2d.dispose();
+        }
+        return rendered;
+    }
+
+    /**
+     * Desenha todos os nós e arestas nas posições do layout
+     * @param g2d Contexto gráfico
+     * @param layout Posições dos nós
+     */
+    private static void drawTree(Graphics2D g2d, TreeLayout layout) {
+        for (int i = 0; i < layout.size(); i++) {
+            int x = layout.x(i);
+            int y = layout.y(i);
+            drawNode(g2d, layout.node(i), x, y, NODE_COLOR);
+
+            int leftChild = layout.left(i);
+            if (leftChild >= 0) {
+                // Desenha a linha para o filho esquerdo com "." (ponto)
+                int leftX = layout.x(leftChild);
+                int nextY = layout.y(leftChild);
+                g2d.setColor(Color.BLACK);
+                g2d.draw(new Line2D.Double(x, y + NODE_SIZE / 2, leftX, nextY - NODE_SIZE / 2));
+                g2d.setFont(DOT_FONT);
+                g2d.setColor(Color.GREEN);
+                g2d.drawString(".", (x + leftX) / 2 - 5, (y + nextY) / 2);
+            }
+
+            int rightChild = layout.right(i);
+            if (rightChild >= 0) {
+                // Desenha a linha para o filho direito com "-" (traço)
+                int rightX = layout.x(rightChild);
+                int nextY = layout.y(rightChild);
+                g2d.setColor(Color.BLACK);
+                g2d.draw(new Line2D.Double(x, y + NODE_SIZE / 2, rightX, nextY - NODE_SIZE / 2));
+                g2d.setFont(DASH_FONT);
+                g2d.setColor(Color.RED);
+                g2d.drawString("-", (x + rightX) / 2 - 5, (y + nextY) / 2);
+            }
+        }
+    }
+
+    private static void drawNode(Graphics2D g2d, MorseNode node, int x, int y, Color fill) {
+        // Desenha o nó
+        g2d.setColor(fill);
+        g2d.fillOval(x - NODE_SIZE / 2, y - NODE_SIZE / 2, NODE_SIZE, NODE_SIZE);
+        g2d.setColor(Color.BLACK);
+        g2d.drawOval(x - NODE_SIZE / 2, y - NODE_SIZE / 2, NODE_SIZE, NODE_SIZE);
+
+        // Desenha o caractere no nó (prosinais, com nome longo, em fonte menor)
+        String nodeValue = (node.character != '\0') ? MorseCodeTable.label(node.character) : "•";
+        g2d.setFont(nodeValue.length() > 1 ? CODE_FONT : NODE_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        int textWidth = fm.stringWidth(nodeValue);
+        int textHeight = fm.getHeight();
+        g2d.drawString(nodeValue, x - textWidth / 2, y + textHeight / 4);
+
+        // Se for uma folha com caractere, desenha o código morse abaixo do nó
+        if (node.character != '\0' && node.morseCode != null && !node.morseCode.isEmpty()) {
+            g2d.setFont(CODE_FONT);
+            g2d.setColor(Color.gray);
+            fm = g2d.getFontMetrics();
+            textWidth = fm.stringWidth(node.morseCode);
+            g2d.drawString(node.morseCode, x - textWidth / 2, y + NODE_SIZE);
+        }
+    }
+}
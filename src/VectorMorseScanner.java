@@ -0,0 +1,70 @@
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versão vetorial do {@link MorseScanner}, com a Vector API
+ * ({@code jdk.incubator.vector}).
+ *
+ * Cada iteração carrega o maior vetor de caracteres que o processador
+ * oferece (16 caracteres com AVX2, 32 com AVX-512) e compara todos de uma
+ * vez; só o resto que não completa um vetor passa pela versão escalar.
+ *
+ * Exige {@code --add-modules jdk.incubator.vector} na compilação e na
+ * execução. É carregada por reflexão em {@link MorseScanner#get()}, então
+ * sem o módulo o restante do programa funciona com a versão escalar.
+ */
+final class VectorMorseScanner extends MorseScanner {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vetorial (" + SPECIES.length() + " caracteres por vetor)";
+    }
+
+    @Override
+    public int indexOfInvalidMorse(char[] chars, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            // '-', '.' e '/' são consecutivos: c - '-' > 2 (sem sinal) fica fora dos três
+            VectorMask<Short> invalid = v.sub((short) '-').compare(VectorOperators.UNSIGNED_GT, (short) 2)
+                    .and(v.compare(VectorOperators.NE, (short) ' '));
+            if (invalid.anyTrue()) {
+                return i + invalid.firstTrue();
+            }
+        }
+        return super.indexOfInvalidMorse(chars, i, to);
+    }
+
+    @Override
+    public int indexOfNonSymbol(char[] chars, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            // '-' e '.' são consecutivos: c - '-' > 1 (sem sinal) não é nenhum dos dois
+            VectorMask<Short> other = v.sub((short) '-').compare(VectorOperators.UNSIGNED_GT, (short) 1);
+            if (other.anyTrue()) {
+                return i + other.firstTrue();
+            }
+        }
+        return super.indexOfNonSymbol(chars, i, to);
+    }
+
+    @Override
+    public int indexOfNonAscii(char[] chars, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> wide = v.compare(VectorOperators.UNSIGNED_GT, (short) 127);
+            if (wide.anyTrue()) {
+                return i + wide.firstTrue();
+            }
+        }
+        return super.indexOfNonAscii(chars, i, to);
+    }
+}
@@ -0,0 +1,369 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário com a frequência de cada palavra, guardado em uma trie.
+ *
+ * O formato é texto UTF-8, uma palavra por linha, da mais frequente para a
+ * menos frequente, opcionalmente seguida da contagem ({@code HELLO 120}).
+ * Sem contagem, a frequência segue a lei de Zipf pela posição na lista.
+ * Linhas vazias e iniciadas por {@code #} são ignoradas, e {@code @title}
+ * define o nome exibido, como nas tabelas de códigos. As palavras são
+ * convertidas para maiúsculas.
+ *
+ * Cada nó da trie guarda o logaritmo da probabilidade de entrar nele a
+ * partir do pai e de terminar a palavra nele, de modo que a soma ao longo
+ * de um caminho completo é o logaritmo da probabilidade da palavra. Isso
+ * permite comparar hipóteses no meio de uma palavra (ver
+ * {@link RunTogetherDecoder}).
+ *
+ * Para palavras fora da lista há também um modelo de letras: a
+ * probabilidade de cada letra dada a anterior (ou o início da palavra) e de
+ * a palavra terminar depois dela, contadas uma vez por palavra da lista e
+ * suavizadas somando 1 a cada contagem.
+ *
+ * Dicionários são imutáveis e carregados uma única vez por nome.
+ */
+public final class WordModel {
+    private static final String RESOURCE_DIR = "/words/";
+    private static final String EXTENSION = ".words";
+    // Contagem atribuída à primeira palavra de uma lista sem contagens
+    private static final long ZIPF_SCALE = 1_000_000;
+
+    private static final Map<String, WordModel> CACHE = new ConcurrentHashMap<>();
+
+    // Raiz da trie
+    static final int ROOT = 0;
+
+    private final String name;
+    private final String title;
+    private final int words;
+
+    // Trie em vetores: rótulo, primeiro filho e próximo irmão de cada nó
+    private final char[] label;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    // log P(nó | pai) e log P(fim da palavra | nó); -infinito se a palavra não termina ali
+    private final double[] enterLog;
+    private final double[] closeLog;
+
+    // Modelo de letras: as letras da lista em ordem, e log P(próxima | anterior)
+    // em uma linha por anterior (0 = início da palavra, i + 1 = alphabet[i]) com
+    // uma coluna por letra e a última para o fim da palavra
+    private final char[] alphabet;
+    private final double[] letterLog;
+    // log P de uma letra fora da lista, por linha
+    private final double[] unseenLetterLog;
+
+    private WordModel(String name, String title, List<String> entries, List<Long> counts) {
+        this.name = name;
+        this.title = title;
+        this.words = entries.size();
+
+        // Primeira passada: monta a trie somando as contagens por prefixo
+        int capacity = 1;
+        for (String word : entries) {
+            capacity += word.length();
+        }
+        char[] labels = new char[capacity];
+        int[] first = new int[capacity];
+        int[] next = new int[capacity];
+        long[] prefix = new long[capacity];
+        long[] end = new long[capacity];
+        Arrays.fill(first, -1);
+        Arrays.fill(next, -1);
+        int size = 1;
+
+        for (int w = 0; w < entries.size(); w++) {
+            String word = entries.get(w);
+            long count = counts.get(w);
+            int node = ROOT;
+            prefix[ROOT] += count;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                int child = first[node];
+                while (child >= 0 && labels[child] != c) {
+                    child = next[child];
+                }
+                if (child < 0) {
+                    child = size++;
+                    labels[child] = c;
+                    next[child] = first[node];
+                    first[node] = child;
+                }
+                node = child;
+                prefix[node] += count;
+            }
+            end[node] += count;
+        }
+
+        // Segunda passada: converte as contagens em logaritmos de probabilidades condicionais
+        this.label = Arrays.copyOf(labels, size);
+        this.firstChild = Arrays.copyOf(first, size);
+        this.nextSibling = Arrays.copyOf(next, size);
+        this.enterLog = new double[size];
+        this.closeLog = new double[size];
+        for (int node = 0; node < size; node++) {
+            closeLog[node] = end[node] > 0 ? Math.log((double) end[node] / prefix[node]) : Double.NEGATIVE_INFINITY;
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                enterLog[child] = Math.log((double) prefix[child] / prefix[node]);
+            }
+        }
+
+        // Modelo de letras: conta os pares de letras vizinhas, com início e fim
+        StringBuilder letters = new StringBuilder();
+        for (String word : entries) {
+            for (int i = 0; i < word.length(); i++) {
+                if (letters.indexOf(String.valueOf(word.charAt(i))) < 0) {
+                    letters.append(word.charAt(i));
+                }
+            }
+        }
+        this.alphabet = letters.toString().toCharArray();
+        Arrays.sort(alphabet);
+        int columns = alphabet.length + 1;
+        int[] pairs = new int[(alphabet.length + 1) * columns];
+        for (String word : entries) {
+            int previous = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int letter = Arrays.binarySearch(alphabet, word.charAt(i));
+                pairs[previous * columns + letter]++;
+                previous = letter + 1;
+            }
+            pairs[previous * columns + alphabet.length]++;
+        }
+        this.letterLog = new double[pairs.length];
+        this.unseenLetterLog = new double[alphabet.length + 1];
+        for (int row = 0; row <= alphabet.length; row++) {
+            int total = 0;
+            for (int column = 0; column < columns; column++) {
+                total += pairs[row * columns + column];
+            }
+            // Uma posição a mais para as letras que não aparecem na lista
+            double denominator = total + columns + 1;
+            for (int column = 0; column < columns; column++) {
+                letterLog[row * columns + column] = Math.log((pairs[row * columns + column] + 1) / denominator);
+            }
+            unseenLetterLog[row] = Math.log(1 / denominator);
+        }
+    }
+
+    /**
+     * Obtém um dicionário, carregando-o do recurso na primeira vez
+     * @param name O nome do dicionário (arquivo {@code words/<nome>.words})
+     * @return O dicionário
+     * @throws IllegalArgumentException Se o dicionário não existir ou tiver erros
+     */
+    public static WordModel get(String name) {
+        WordModel model = CACHE.get(name);
+        if (model != null) {
+            return model;
+        }
+        model = parse(name, open(RESOURCE_DIR + name + EXTENSION), name + EXTENSION);
+        WordModel previous = CACHE.putIfAbsent(name, model);
+        return previous != null ? previous : model;
+    }
+
+    /**
+     * Carrega um dicionário de um arquivo local (sem guardá-lo em cache)
+     * @param path O arquivo, no mesmo formato dos recursos
+     * @return O dicionário
+     * @throws IOException Se o arquivo não puder ser lido
+     */
+    public static WordModel load(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        String name = fileName.endsWith(EXTENSION)
+                ? fileName.substring(0, fileName.length() - EXTENSION.length()) : fileName;
+        try {
+            return parse(name, Files.newBufferedReader(path, StandardCharsets.UTF_8), fileName);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return Os nomes dos dicionários listados em {@code words/index}, na ordem do arquivo
+     */
+    public static List<String> availableModels() {
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = open(RESOURCE_DIR + "index")) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    names.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return A quantidade de palavras do dicionário
+     */
+    public int size() {
+        return words;
+    }
+
+    /**
+     * @return A quantidade de nós da trie
+     */
+    int nodes() {
+        return label.length;
+    }
+
+    /**
+     * @return O filho do nó com o rótulo dado, ou -1
+     */
+    int child(int node, char c) {
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            if (label[child] == c) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return log P(nó | pai): a probabilidade de a palavra continuar por este nó
+     */
+    double enterLog(int node) {
+        return enterLog[node];
+    }
+
+    /**
+     * @return log P(fim | nó), ou -infinito se nenhuma palavra termina no nó
+     */
+    double closeLog(int node) {
+        return closeLog[node];
+    }
+
+    /**
+     * @return true se alguma palavra termina no nó
+     */
+    boolean isWord(int node) {
+        return closeLog[node] != Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @param previous A letra anterior na palavra, ou '\0' no início dela
+     * @param letter A próxima letra
+     * @return log P(letra | anterior) pelo modelo de letras
+     */
+    double letterLog(char previous, char letter) {
+        int column = Arrays.binarySearch(alphabet, letter);
+        int row = letterRow(previous);
+        return column >= 0 ? letterLog[row * (alphabet.length + 1) + column] : unseenLetterLog[row];
+    }
+
+    /**
+     * @param last A última letra da palavra
+     * @return log P(fim da palavra | última letra) pelo modelo de letras
+     */
+    double letterEndLog(char last) {
+        return letterLog[letterRow(last) * (alphabet.length + 1) + alphabet.length];
+    }
+
+    /**
+     * Linha do modelo de letras: letras fora da lista recomeçam como no início da palavra
+     */
+    private int letterRow(char previous) {
+        int index = previous == '\0' ? -1 : Arrays.binarySearch(alphabet, previous);
+        return index >= 0 ? index + 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+
+    private static WordModel parse(String name, BufferedReader source, String fileName) {
+        String title = name;
+        List<String> entries = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+
+        try (BufferedReader reader = source) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("@title ")) {
+                    title = line.substring(7).trim();
+                    continue;
+                }
+
+                String[] parts = line.split("\\s+");
+                if (parts.length > 2) {
+                    throw new IllegalArgumentException(fileName + ":" + lineNumber + ": esperado '<palavra> [contagem]'");
+                }
+                long count;
+                if (parts.length == 2) {
+                    try {
+                        count = Long.parseLong(parts[1]);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(fileName + ":" + lineNumber + ": contagem inválida '" + parts[1] + "'");
+                    }
+                    if (count <= 0) {
+                        throw new IllegalArgumentException(fileName + ":" + lineNumber + ": contagem deve ser positiva");
+                    }
+                } else {
+                    count = Math.max(1, ZIPF_SCALE / (entries.size() + 1));
+                }
+
+                // Palavras repetidas somam as contagens
+                String word = parts[0].toUpperCase(Locale.ROOT);
+                Integer previous = seen.putIfAbsent(word, entries.size());
+                if (previous != null) {
+                    counts.set(previous, counts.get(previous) + count);
+                } else {
+                    entries.add(word);
+                    counts.add(count);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException(fileName + ": dicionário vazio");
+        }
+        return new WordModel(name, title, entries, counts);
+    }
+
+    private static BufferedReader open(String resource) {
+        InputStream in = WordModel.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Dicionário não encontrado no classpath: " + resource);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}